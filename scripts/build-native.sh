@@ -62,6 +62,9 @@ javac -h "$BUILD_DIR" -cp "$PROJECT_ROOT/src/main/java" \
   "$PROJECT_ROOT/src/main/java/nl/jessenagel/jhighs/VarType.java" \
   "$PROJECT_ROOT/src/main/java/nl/jessenagel/jhighs/HighsStatus.java" \
   "$PROJECT_ROOT/src/main/java/nl/jessenagel/jhighs/ModelStatus.java" \
+  "$PROJECT_ROOT/src/main/java/nl/jessenagel/jhighs/MatrixFormat.java" \
+  "$PROJECT_ROOT/src/main/java/nl/jessenagel/jhighs/BasisStatus.java" \
+  "$PROJECT_ROOT/src/main/java/nl/jessenagel/jhighs/Basis.java" \
   "$PROJECT_ROOT/src/main/java/nl/jessenagel/jhighs/Solution.java"
 echo "JNI headers generated successfully."
 
@@ -189,12 +192,15 @@ esac
 # Verify the library was created
 case "$OS" in
     Linux*)
+        HIGHS_LIB="libhighs.so"
         MAIN_LIB="libjhighs.so"
         ;;
     Darwin*)
+        HIGHS_LIB="libhighs.dylib"
         MAIN_LIB="libjhighs.dylib"
         ;;
     MINGW*|MSYS*|CYGWIN*)
+        HIGHS_LIB="highs.dll"
         MAIN_LIB="jhighs.dll"
         ;;
 esac
@@ -208,6 +214,22 @@ fi
 
 echo "Native library built successfully: $OUTPUT_DIR/$MAIN_LIB"
 
+# Record the SHA-256 of the libraries the loader extracts, so it can verify its cache without
+# hashing the jar contents on every start
+echo "Writing checksums..."
+(
+    cd "$OUTPUT_DIR"
+    for lib in "$HIGHS_LIB" "$MAIN_LIB"; do
+        if [[ -f "$lib" ]]; then
+            if command -v sha256sum >/dev/null 2>&1; then
+                sha256sum "$lib"
+            else
+                shasum -a 256 "$lib"
+            fi
+        fi
+    done
+) > "$OUTPUT_DIR/checksums.sha256"
+
 # List all files in output directory
 echo "Files in output directory:"
 ls -la "$OUTPUT_DIR"
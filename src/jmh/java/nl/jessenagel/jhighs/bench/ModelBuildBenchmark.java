@@ -0,0 +1,141 @@
+package nl.jessenagel.jhighs.bench;
+
+import nl.jessenagel.jhighs.HiGHS;
+import nl.jessenagel.jhighs.HighsStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row-by-row versus bulk constraint building, and dense objective updates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelBuildBenchmark {
+    private static final int NUM_COL = 1_000;
+    private static final int NZ_PER_ROW = 10;
+
+    // Rows to add to a model that is reset before every invocation
+    @State(Scope.Thread)
+    public static class Rows {
+        @Param({"1000", "10000"})
+        public int numRow;
+
+        HiGHS solver;
+        ModelFamilies.SparseRows rows;
+        double[] rowLower;
+        double[] rowUpper;
+        int[][] rowIndices;
+        double[][] rowValues;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            rows = ModelFamilies.SparseRows.random(NUM_COL, numRow, NZ_PER_ROW, new Random(42));
+            rowLower = new double[numRow];
+            rowUpper = new double[numRow];
+            Arrays.fill(rowLower, Double.NEGATIVE_INFINITY);
+            Arrays.fill(rowUpper, 100.0);
+            rowIndices = new int[numRow][];
+            rowValues = new double[numRow][];
+            for (int i = 0; i < numRow; i++) {
+                rowIndices[i] = Arrays.copyOfRange(rows.indices, rows.starts[i], rows.starts[i + 1]);
+                rowValues[i] = Arrays.copyOfRange(rows.values, rows.starts[i], rows.starts[i + 1]);
+            }
+            solver = newSolver();
+        }
+
+        @Setup(Level.Invocation)
+        public void resetModel() {
+            solver.clearModel();
+            addColumns(solver);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            solver.close();
+        }
+    }
+
+    // Overwriting costs leaves the model the same size, so it is built once per trial
+    @State(Scope.Thread)
+    public static class Objective {
+        HiGHS solver;
+        double[] costs;
+        int[] allCols;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            Random random = new Random(42);
+            costs = new double[NUM_COL];
+            allCols = new int[NUM_COL];
+            for (int j = 0; j < NUM_COL; j++) {
+                costs[j] = random.nextDouble();
+                allCols[j] = j;
+            }
+            solver = newSolver();
+            addColumns(solver);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            solver.close();
+        }
+    }
+
+    @Benchmark
+    public HighsStatus addConstraintPerRow(Rows state) {
+        HighsStatus status = HighsStatus.kOk;
+        for (int i = 0; i < state.numRow; i++) {
+            status = state.solver.addConstraint(state.rowValues[i], state.rowIndices[i], state.rowLower[i],
+                    state.rowUpper[i]);
+        }
+        return status;
+    }
+
+    @Benchmark
+    public HighsStatus addConstraintsBulk(Rows state) {
+        ModelFamilies.SparseRows rows = state.rows;
+        return state.solver.addConstraints(state.numRow, state.rowLower, state.rowUpper, rows.starts, rows.indices,
+                rows.values);
+    }
+
+    @Benchmark
+    public HighsStatus setObjectiveFunction(Objective state) {
+        return state.solver.setObjectiveFunction(state.costs, state.allCols, true, 0.0);
+    }
+
+    @Benchmark
+    public HighsStatus changeColsCost(Objective state) {
+        return state.solver.changeColsCost(state.costs);
+    }
+
+    private static HiGHS newSolver() {
+        HiGHS solver = new HiGHS();
+        solver.setBoolParameter("output_flag", false);
+        return solver;
+    }
+
+    private static void addColumns(HiGHS solver) {
+        double[] lower = new double[NUM_COL];
+        double[] upper = new double[NUM_COL];
+        Arrays.fill(upper, 1.0);
+        solver.addVars(NUM_COL, lower, upper, new double[NUM_COL]);
+    }
+}
@@ -0,0 +1,113 @@
+package nl.jessenagel.jhighs.bench;
+
+import nl.jessenagel.jhighs.LpModel;
+import nl.jessenagel.jhighs.MatrixFormat;
+import nl.jessenagel.jhighs.VarType;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Seeded generators for the LP and MIP families used by the benchmarks, so every run and every
+ * version solves exactly the same instances.
+ */
+final class ModelFamilies {
+    private ModelFamilies() {
+    }
+
+    /**
+     * Random sparse packing LP: maximize c'x subject to Ax <= b, 0 <= x <= 10, with nonnegative A
+     * and b = A * 5, so the LP is always feasible and bounded.
+     */
+    static LpModel packingLp(int numCol, int numRow, int nzPerRow, long seed) {
+        Random random = new Random(seed);
+        SparseRows rows = SparseRows.random(numCol, numRow, nzPerRow, random);
+        double[] costs = new double[numCol];
+        double[] lower = new double[numCol];
+        double[] upper = new double[numCol];
+        for (int j = 0; j < numCol; j++) {
+            costs[j] = 1.0 + random.nextDouble();
+            upper[j] = 10.0;
+        }
+        double[] rowLower = new double[numRow];
+        double[] rowUpper = new double[numRow];
+        for (int i = 0; i < numRow; i++) {
+            rowLower[i] = Double.NEGATIVE_INFINITY;
+            rowUpper[i] = 5.0 * rows.rowSum(i);
+        }
+        return new LpModel(numCol, numRow, MatrixFormat.kRowwise, rows.starts, rows.indices, rows.values,
+                costs, lower, upper, rowLower, rowUpper, false, 0.0, null);
+    }
+
+    /**
+     * Multi-dimensional binary knapsack: every constraint allows about half of the total weight.
+     */
+    static LpModel knapsackMip(int numItems, int numConstraints, int nzPerRow, long seed) {
+        Random random = new Random(seed);
+        SparseRows rows = SparseRows.random(numItems, numConstraints, nzPerRow, random);
+        double[] profits = new double[numItems];
+        double[] lower = new double[numItems];
+        double[] upper = new double[numItems];
+        byte[] integrality = new byte[numItems];
+        for (int j = 0; j < numItems; j++) {
+            profits[j] = 1.0 + random.nextInt(100);
+            upper[j] = 1.0;
+            integrality[j] = (byte) VarType.kInteger.getValue();
+        }
+        double[] rowLower = new double[numConstraints];
+        double[] rowUpper = new double[numConstraints];
+        for (int i = 0; i < numConstraints; i++) {
+            rowLower[i] = Double.NEGATIVE_INFINITY;
+            rowUpper[i] = Math.floor(0.5 * rows.rowSum(i));
+        }
+        return new LpModel(numItems, numConstraints, MatrixFormat.kRowwise, rows.starts, rows.indices, rows.values,
+                profits, lower, upper, rowLower, rowUpper, false, 0.0, integrality);
+    }
+
+    // Row-wise sparse matrix with distinct, sorted column indices per row and values in [1, 10)
+    static final class SparseRows {
+        final int[] starts;
+        final int[] indices;
+        final double[] values;
+
+        private SparseRows(int[] starts, int[] indices, double[] values) {
+            this.starts = starts;
+            this.indices = indices;
+            this.values = values;
+        }
+
+        static SparseRows random(int numCol, int numRow, int nzPerRow, Random random) {
+            int perRow = Math.min(nzPerRow, numCol);
+            int[] starts = new int[numRow + 1];
+            int[] indices = new int[numRow * perRow];
+            double[] values = new double[numRow * perRow];
+            boolean[] used = new boolean[numCol];
+            for (int i = 0; i < numRow; i++) {
+                int offset = i * perRow;
+                for (int k = 0; k < perRow; k++) {
+                    int col;
+                    do {
+                        col = random.nextInt(numCol);
+                    } while (used[col]);
+                    used[col] = true;
+                    indices[offset + k] = col;
+                    values[offset + k] = 1.0 + 9.0 * random.nextDouble();
+                }
+                Arrays.sort(indices, offset, offset + perRow);
+                for (int k = 0; k < perRow; k++) {
+                    used[indices[offset + k]] = false;
+                }
+                starts[i + 1] = offset + perRow;
+            }
+            return new SparseRows(starts, indices, values);
+        }
+
+        double rowSum(int row) {
+            double sum = 0.0;
+            for (int k = starts[row]; k < starts[row + 1]; k++) {
+                sum += values[k];
+            }
+            return sum;
+        }
+    }
+}
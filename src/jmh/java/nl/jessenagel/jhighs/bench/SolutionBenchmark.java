@@ -0,0 +1,76 @@
+package nl.jessenagel.jhighs.bench;
+
+import nl.jessenagel.jhighs.HiGHS;
+import nl.jessenagel.jhighs.Solution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost and allocation of reading a solution back into Java; run with {@code -prof gc} to see the
+ * bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolutionBenchmark {
+    @Param({"1000", "100000"})
+    public int numCol;
+
+    private HiGHS solver;
+    private Solution reused;
+    private DoubleBuffer direct;
+
+    @Setup(Level.Trial)
+    public void solve() {
+        solver = new HiGHS();
+        solver.setBoolParameter("output_flag", false);
+        solver.loadModel(ModelFamilies.packingLp(numCol, numCol / 10, 20, 7));
+        solver.solve();
+        reused = solver.getSolution(new Solution());
+        direct = ByteBuffer.allocateDirect(numCol * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        solver.close();
+    }
+
+    @Benchmark
+    public Solution getSolutionAllocating() {
+        return solver.getSolution();
+    }
+
+    @Benchmark
+    public Solution getSolutionReused() {
+        return solver.getSolution(reused);
+    }
+
+    @Benchmark
+    public int getVariableValuesDirect() {
+        return solver.getVariableValues(direct);
+    }
+
+    @Benchmark
+    public double getObjectiveValue() {
+        return solver.getObjectiveValue();
+    }
+}
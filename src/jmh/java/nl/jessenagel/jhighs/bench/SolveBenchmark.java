@@ -0,0 +1,90 @@
+package nl.jessenagel.jhighs.bench;
+
+import nl.jessenagel.jhighs.HiGHS;
+import nl.jessenagel.jhighs.HighsStatus;
+import nl.jessenagel.jhighs.LpModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load and solve of generated LP and MIP families of increasing size.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SolveBenchmark {
+
+    @State(Scope.Thread)
+    public static class LpFamily {
+        @Param({"1000", "10000", "100000"})
+        public int numCol;
+
+        HiGHS solver;
+        LpModel model;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            model = ModelFamilies.packingLp(numCol, numCol / 2, 10, 1);
+            solver = newSolver();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            solver.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class MipFamily {
+        @Param({"50", "100", "200"})
+        public int numItems;
+
+        HiGHS solver;
+        LpModel model;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            model = ModelFamilies.knapsackMip(numItems, 5, numItems, 2);
+            solver = newSolver();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            solver.close();
+        }
+    }
+
+    @Benchmark
+    public HighsStatus solveLp(LpFamily family) {
+        family.solver.loadModel(family.model);
+        return family.solver.solve();
+    }
+
+    @Benchmark
+    public HighsStatus solveMip(MipFamily family) {
+        family.solver.loadModel(family.model);
+        return family.solver.solve();
+    }
+
+    private static HiGHS newSolver() {
+        HiGHS solver = new HiGHS();
+        solver.setBoolParameter("output_flag", false);
+        solver.setIntParameter("random_seed", 0);
+        return solver;
+    }
+}
@@ -0,0 +1,40 @@
+package nl.jessenagel.jhighs;
+
+/**
+ * Simplex basis as returned by {@link HiGHS#getBasis()}. Column and row statuses are stored as
+ * {@link BasisStatus} values packed into byte arrays, which are shared rather than copied so that
+ * a basis can be saved and restored cheaply between solves.
+ */
+public class Basis {
+    private final byte[] colStatus;
+    private final byte[] rowStatus;
+
+    public Basis(byte[] colStatus, byte[] rowStatus) {
+        this.colStatus = colStatus;
+        this.rowStatus = rowStatus;
+    }
+
+    public byte[] getColStatus() {
+        return colStatus;
+    }
+
+    public byte[] getRowStatus() {
+        return rowStatus;
+    }
+
+    public BasisStatus getColStatus(int col) {
+        return BasisStatus.fromInt(colStatus[col]);
+    }
+
+    public BasisStatus getRowStatus(int row) {
+        return BasisStatus.fromInt(rowStatus[row]);
+    }
+
+    public int getNumCols() {
+        return colStatus.length;
+    }
+
+    public int getNumRows() {
+        return rowStatus.length;
+    }
+}
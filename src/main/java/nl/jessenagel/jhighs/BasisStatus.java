@@ -0,0 +1,26 @@
+package nl.jessenagel.jhighs;
+
+public enum BasisStatus {
+    kLower(0),
+    kBasic(1),
+    kUpper(2),
+    kZero(3),
+    kNonbasic(4);
+
+    private final int value;
+
+    BasisStatus(int value) {
+        this.value = value;
+    }
+
+    public static BasisStatus fromInt(int value) {
+        for (BasisStatus status : values()) {
+            if (status.value == value) return status;
+        }
+        throw new IllegalArgumentException("Unknown basis status: " + value);
+    }
+
+    public int getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,31 @@
+package nl.jessenagel.jhighs;
+
+/**
+ * HiGHS user callback types that can be delivered to a {@link SolveListener}.
+ */
+public enum CallbackType {
+    kLogging(0),
+    kSimplexInterrupt(1),
+    kIpmInterrupt(2),
+    kMipSolution(3),
+    kMipImprovingSolution(4),
+    kMipLogging(5),
+    kMipInterrupt(6);
+
+    private final int value;
+
+    CallbackType(int value) {
+        this.value = value;
+    }
+
+    public static CallbackType fromInt(int value) {
+        for (CallbackType type : values()) {
+            if (type.value == value) return type;
+        }
+        throw new IllegalArgumentException("Unknown callback type: " + value);
+    }
+
+    public int getValue() {
+        return value;
+    }
+}
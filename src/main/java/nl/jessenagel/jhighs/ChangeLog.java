@@ -0,0 +1,110 @@
+package nl.jessenagel.jhighs;
+
+import java.util.Arrays;
+
+/**
+ * Pending edits of one kind for {@link HiGHS}'s buffered edit mode: one entry of up to two values
+ * per column or row, where a later edit of the same index overwrites the earlier one. Entries are
+ * kept in primitive arrays with an open-addressing table from index to entry, so recording an
+ * edit does not allocate.
+ */
+final class ChangeLog {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] indices = new int[INITIAL_CAPACITY];
+    private double[] first = new double[INITIAL_CAPACITY];
+    private double[] second = new double[INITIAL_CAPACITY];
+    private int size;
+    // Entry + 1 for every occupied slot, 0 for a free one
+    private int[] table = new int[2 * INITIAL_CAPACITY];
+
+    /**
+     * Entries drained from a log, ordered by index so they form the increasing set HiGHS expects.
+     */
+    static final class Batch {
+        final int[] indices;
+        final double[] first;
+        final double[] second;
+
+        Batch(int size) {
+            this.indices = new int[size];
+            this.first = new double[size];
+            this.second = new double[size];
+        }
+    }
+
+    void put(int index, double a, double b) {
+        int mask = table.length - 1;
+        int slot = mix(index) & mask;
+        while (table[slot] != 0) {
+            int entry = table[slot] - 1;
+            if (indices[entry] == index) {
+                first[entry] = a;
+                second[entry] = b;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == indices.length) {
+            indices = Arrays.copyOf(indices, size * 2);
+            first = Arrays.copyOf(first, size * 2);
+            second = Arrays.copyOf(second, size * 2);
+        }
+        indices[size] = index;
+        first[size] = a;
+        second[size] = b;
+        table[slot] = ++size;
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(table, 0);
+            size = 0;
+        }
+    }
+
+    /**
+     * Copies the entries into exact-length arrays sorted by index and empties the log.
+     */
+    Batch drain() {
+        // Sort (index, entry) pairs packed into longs; indices are non-negative
+        long[] order = new long[size];
+        for (int entry = 0; entry < size; entry++) {
+            order[entry] = ((long) indices[entry] << 32) | entry;
+        }
+        Arrays.sort(order);
+        Batch batch = new Batch(size);
+        for (int k = 0; k < size; k++) {
+            int entry = (int) order[k];
+            batch.indices[k] = indices[entry];
+            batch.first[k] = first[entry];
+            batch.second[k] = second[entry];
+        }
+        clear();
+        return batch;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        int mask = capacity - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = mix(indices[entry]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = entry + 1;
+        }
+    }
+
+    private static int mix(int index) {
+        int h = index * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,49 @@
+package nl.jessenagel.jhighs;
+
+/**
+ * Row of a {@link Model}. Instances are lightweight handles: two handles of the same model and
+ * index are equal.
+ */
+public final class Constr {
+    private final Model model;
+    private final int index;
+
+    Constr(Model model, int index) {
+        this.model = model;
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Name given when the constraint was added, or {@code null}.
+     */
+    public String getName() {
+        return model.getConstrName(index);
+    }
+
+    /**
+     * Dual value of this constraint in the last solution of its model.
+     */
+    public double getDual() {
+        return model.getDual(this);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Constr constr && constr.model == model && constr.index == index;
+    }
+
+    @Override
+    public int hashCode() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        String name = getName();
+        return name != null ? name : "r" + index;
+    }
+}
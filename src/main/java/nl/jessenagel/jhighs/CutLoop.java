@@ -0,0 +1,261 @@
+package nl.jessenagel.jhighs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Row generation on top of a loaded {@link HiGHS} model. Every round solves the model, lets the
+ * {@link Separator} add candidate rows to the {@link RowPool}, and moves every pool row the
+ * solution violates into the model in one bulk add. Pool rows that have been slack for
+ * {@link #setMaxAge(int) maxAge} consecutive rounds are deleted from the model in one batched
+ * delete, so the model only carries the rows that are still doing work. The loop stops when a
+ * round finds no violated rows, the solve is not optimal, or the round limit is reached.
+ *
+ * <p>The solver keeps its basis across the row changes, so every round after the first is a warm
+ * dual simplex solve. Rows of the model that did not come from the pool are never purged.
+ *
+ * <pre>{@code
+ * CutLoop loop = new CutLoop(solver, (solution, pool) -> separateSubtours(solution, pool));
+ * loop.setRoundListener(round -> log(round));
+ * loop.run();
+ * }</pre>
+ */
+public class CutLoop {
+    private final HiGHS solver;
+    private final Separator separator;
+    private final RowPool pool;
+    private final Solution solution = new Solution();
+    private final List<CutRound> rounds = new ArrayList<>();
+    private int maxRounds = 1000;
+    private int maxAge = 5;
+    private double tolerance = 1e-6;
+    private Consumer<CutRound> roundListener;
+
+    // Row-wise buffer of the violated pool rows of a round, reused between rounds
+    private int[] batchRows = new int[16];
+    private int[] batchStarts = new int[17];
+    private int[] batchIndices = new int[64];
+    private double[] batchValues = new double[64];
+    private double[] batchLower = new double[16];
+    private double[] batchUpper = new double[16];
+
+    public CutLoop(HiGHS solver, Separator separator) {
+        this(solver, separator, new RowPool());
+    }
+
+    /**
+     * @param pool pool to start from, e.g. rows known up front that should only be added to the
+     *             model once they are violated
+     */
+    public CutLoop(HiGHS solver, Separator separator, RowPool pool) {
+        if (solver == null || separator == null || pool == null) {
+            throw new IllegalArgumentException("Solver, separator and pool cannot be null");
+        }
+        this.solver = solver;
+        this.separator = separator;
+        this.pool = pool;
+    }
+
+    public RowPool getPool() {
+        return pool;
+    }
+
+    public void setMaxRounds(int maxRounds) {
+        if (maxRounds <= 0) {
+            throw new IllegalArgumentException("Round limit must be positive");
+        }
+        this.maxRounds = maxRounds;
+    }
+
+    /**
+     * Sets the number of consecutive rounds a pool row may be slack before it is deleted from the
+     * model; {@link Integer#MAX_VALUE} disables purging.
+     */
+    public void setMaxAge(int maxAge) {
+        if (maxAge <= 0) {
+            throw new IllegalArgumentException("Maximum age must be positive");
+        }
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Sets the tolerance above which a row counts as violated, and as slack.
+     */
+    public void setTolerance(double tolerance) {
+        if (!(tolerance >= 0.0)) {
+            throw new IllegalArgumentException("Tolerance must be non-negative");
+        }
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Sets a listener that receives the statistics of every round as soon as it ends.
+     */
+    public void setRoundListener(Consumer<CutRound> listener) {
+        this.roundListener = listener;
+    }
+
+    /**
+     * Returns the rounds of the last {@link #run()}.
+     */
+    public List<CutRound> getRounds() {
+        return Collections.unmodifiableList(rounds);
+    }
+
+    /**
+     * Returns the solution of the last round's solve. Unless the round limit was hit, it is the
+     * solution of the final model.
+     */
+    public Solution getSolution() {
+        return solution;
+    }
+
+    /**
+     * Runs rounds until no violated rows are found. Returns the worst status of the solves and
+     * model updates.
+     */
+    public HighsStatus run() {
+        rounds.clear();
+        HighsStatus result = HighsStatus.kOk;
+        for (int round = 0; round < maxRounds; round++) {
+            long start = System.nanoTime();
+            HighsStatus status = solver.solve();
+            long solved = System.nanoTime();
+            result = HighsStatus.worse(result, status);
+            SolveInfo info = solver.getSolveInfo();
+            ModelStatus modelStatus = solver.getModelStatus();
+            if (status == HighsStatus.kError || modelStatus != ModelStatus.kOptimal) {
+                record(new CutRound(round, modelStatus, info.getObjectiveValue(), info.getSimplexIterations(),
+                        solved - start, 0, 0, 0, 0, solver.getNumConstraints()));
+                break;
+            }
+            solver.getSolution(solution);
+            int aged = updateAges();
+
+            separator.separate(solution, pool);
+            int violated = collectViolated();
+            long separated = System.nanoTime();
+
+            int purged = 0;
+            if (violated > 0) {
+                if (aged > 0) {
+                    HighsStatus deleted = purge();
+                    result = HighsStatus.worse(result, deleted);
+                    purged = deleted == HighsStatus.kError ? 0 : aged;
+                }
+                result = HighsStatus.worse(result, addBatch(violated));
+            }
+            long updated = System.nanoTime();
+            record(new CutRound(round, modelStatus, info.getObjectiveValue(), info.getSimplexIterations(),
+                    solved - start, separated - solved, updated - separated,
+                    violated, purged, solver.getNumConstraints()));
+            if (violated == 0 || result == HighsStatus.kError) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    // Ages every pool row in the model by the current solution and returns how many are due
+    private int updateAges() {
+        int[] modelRow = pool.modelRow();
+        int[] age = pool.age();
+        double[] lower = pool.lower();
+        double[] upper = pool.upper();
+        int due = 0;
+        for (int row = 0; row < pool.size(); row++) {
+            if (modelRow[row] < 0) continue;
+            double activity = solution.getRowValue(modelRow[row]);
+            double slack = Math.min(activity - lower[row], upper[row] - activity);
+            age[row] = slack > tolerance ? age[row] + 1 : 0;
+            if (age[row] >= maxAge) due++;
+        }
+        return due;
+    }
+
+    // Copies the violated pool rows that are not in the model into the batch buffer
+    private int collectViolated() {
+        int[] modelRow = pool.modelRow();
+        int[] starts = pool.starts();
+        int count = 0;
+        int numNz = 0;
+        for (int row = 0; row < pool.size(); row++) {
+            if (modelRow[row] >= 0 || pool.violation(row, solution) <= tolerance) continue;
+            int length = starts[row + 1] - starts[row];
+            ensureBatchCapacity(count + 1, numNz + length);
+            System.arraycopy(pool.indices(), starts[row], batchIndices, numNz, length);
+            System.arraycopy(pool.values(), starts[row], batchValues, numNz, length);
+            batchRows[count] = row;
+            batchStarts[count] = numNz;
+            batchLower[count] = pool.lower()[row];
+            batchUpper[count] = pool.upper()[row];
+            numNz += length;
+            count++;
+        }
+        batchStarts[count] = numNz;
+        return count;
+    }
+
+    // Deletes every aged pool row from the model in one call and remaps the rows that stay
+    private HighsStatus purge() {
+        int[] modelRow = pool.modelRow();
+        int[] age = pool.age();
+        int[] mask = new int[solver.getNumConstraints()];
+        for (int row = 0; row < pool.size(); row++) {
+            if (modelRow[row] >= 0 && age[row] >= maxAge) {
+                mask[modelRow[row]] = 1;
+            }
+        }
+        HighsStatus status = solver.deleteConstraintsByMask(mask);
+        if (status == HighsStatus.kError) {
+            return status;
+        }
+        for (int row = 0; row < pool.size(); row++) {
+            if (modelRow[row] >= 0) {
+                modelRow[row] = mask[modelRow[row]];
+                if (modelRow[row] < 0) age[row] = 0;
+            }
+        }
+        return status;
+    }
+
+    private HighsStatus addBatch(int count) {
+        int firstRow = solver.getNumConstraints();
+        HighsStatus status = solver.addConstraints(count, batchStarts[count], batchLower, batchUpper,
+                batchStarts, batchIndices, batchValues);
+        if (status != HighsStatus.kError) {
+            int[] modelRow = pool.modelRow();
+            int[] age = pool.age();
+            for (int k = 0; k < count; k++) {
+                modelRow[batchRows[k]] = firstRow + k;
+                age[batchRows[k]] = 0;
+            }
+        }
+        return status;
+    }
+
+    private void ensureBatchCapacity(int rows, int numNz) {
+        if (rows > batchRows.length) {
+            int capacity = Math.max(rows, batchRows.length * 2);
+            batchRows = Arrays.copyOf(batchRows, capacity);
+            batchStarts = Arrays.copyOf(batchStarts, capacity + 1);
+            batchLower = Arrays.copyOf(batchLower, capacity);
+            batchUpper = Arrays.copyOf(batchUpper, capacity);
+        }
+        if (numNz > batchIndices.length) {
+            int capacity = Math.max(numNz, batchIndices.length * 2);
+            batchIndices = Arrays.copyOf(batchIndices, capacity);
+            batchValues = Arrays.copyOf(batchValues, capacity);
+        }
+    }
+
+    private void record(CutRound round) {
+        rounds.add(round);
+        if (roundListener != null) {
+            roundListener.accept(round);
+        }
+    }
+}
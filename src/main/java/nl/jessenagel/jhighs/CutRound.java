@@ -0,0 +1,94 @@
+package nl.jessenagel.jhighs;
+
+/**
+ * Statistics of one round of a {@link CutLoop}: the solve, the separation, and the model update
+ * that purged aged rows and added violated ones.
+ */
+public class CutRound {
+    private final int round;
+    private final ModelStatus modelStatus;
+    private final double objectiveValue;
+    private final long simplexIterations;
+    private final long solveNanos;
+    private final long separationNanos;
+    private final long updateNanos;
+    private final int rowsAdded;
+    private final int rowsPurged;
+    private final int numRows;
+
+    CutRound(int round, ModelStatus modelStatus, double objectiveValue, long simplexIterations,
+             long solveNanos, long separationNanos, long updateNanos,
+             int rowsAdded, int rowsPurged, int numRows) {
+        this.round = round;
+        this.modelStatus = modelStatus;
+        this.objectiveValue = objectiveValue;
+        this.simplexIterations = simplexIterations;
+        this.solveNanos = solveNanos;
+        this.separationNanos = separationNanos;
+        this.updateNanos = updateNanos;
+        this.rowsAdded = rowsAdded;
+        this.rowsPurged = rowsPurged;
+        this.numRows = numRows;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public ModelStatus getModelStatus() {
+        return modelStatus;
+    }
+
+    public double getObjectiveValue() {
+        return objectiveValue;
+    }
+
+    /**
+     * Returns the simplex iterations of this round's solve; small counts after the first round
+     * show that the solve was warm-started.
+     */
+    public long getSimplexIterations() {
+        return simplexIterations;
+    }
+
+    public long getSolveNanos() {
+        return solveNanos;
+    }
+
+    /**
+     * Returns the time spent in the separator and in scanning the pool for violated rows.
+     */
+    public long getSeparationNanos() {
+        return separationNanos;
+    }
+
+    /**
+     * Returns the time spent purging and adding rows in the model.
+     */
+    public long getUpdateNanos() {
+        return updateNanos;
+    }
+
+    public int getRowsAdded() {
+        return rowsAdded;
+    }
+
+    public int getRowsPurged() {
+        return rowsPurged;
+    }
+
+    /**
+     * Returns the number of model rows after this round's update.
+     */
+    public int getNumRows() {
+        return numRows;
+    }
+
+    @Override
+    public String toString() {
+        return "CutRound{round=" + round + ", status=" + modelStatus + ", objective=" + objectiveValue
+                + ", added=" + rowsAdded + ", purged=" + rowsPurged + ", rows=" + numRows
+                + ", solveNanos=" + solveNanos + ", separationNanos=" + separationNanos
+                + ", updateNanos=" + updateNanos + '}';
+    }
+}
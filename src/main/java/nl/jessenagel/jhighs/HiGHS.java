@@ -1,9 +1,23 @@
 package nl.jessenagel.jhighs;
 
-
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.Cleaner;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 // Main Java wrapper class for HiGHS solver
-public class HiGHS {
+public class HiGHS implements AutoCloseable {
 
     // Load native library (HiGHS C++ compiled as JNI)
     static {
@@ -14,14 +28,37 @@ public class HiGHS {
         }
     }
 
+    // Native solvers are reclaimed by this cleaner when an instance is never closed
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final System.Logger LOGGER = System.getLogger(HiGHS.class.getName());
+    private static final AtomicInteger LIVE_SOLVERS = new AtomicInteger();
+    private static final AtomicLong ESTIMATED_NATIVE_BYTES = new AtomicLong();
+    // Receives the statistics of every solve in the process, e.g. to export metrics
+    private static volatile Consumer<SolveInfo> metricsHook;
+
     // Instance variables
-    private long solverHandle;
-    private boolean initialized = false;
+    private final long solverHandle;
+    private final long callbackHandle;
+    private final NativeState nativeState;
+    private final Cleaner.Cleanable cleanable;
+    // Calls currently inside native code; the native solver is freed once this drops to zero after close
+    private final AtomicInteger activeCalls = new AtomicInteger();
+    // Interrupts requested so far; a solve honours those requested after its call began
+    private final AtomicLong interrupts = new AtomicLong();
+    private volatile boolean closed = false;
+    private SolveListener listener;
+    // Edits recorded in buffered edit mode, null while the mode is off
+    private PendingEdits edits;
+    private long lastSolveNanos;
 
     // Constructor
     public HiGHS() {
         this.solverHandle = createSolver();
-        this.initialized = true;
+        this.callbackHandle = createCallbackContext(solverHandle);
+        this.nativeState = new NativeState(solverHandle, callbackHandle);
+        this.cleanable = CLEANER.register(this, nativeState);
+        LIVE_SOLVERS.incrementAndGet();
+        updateNativeEstimate();
     }
 
     // ===== Model Management =====
@@ -29,68 +66,171 @@ public class HiGHS {
 
     private native int clearSolver(long solverPtr);
 
+    private native int resetOptions(long solverPtr);
+
     private native int writeModel(long solverPtr, String filename);
 
     private native int writeSolution(long solverPtr, String filename);
 
+    private native int readSolution(long solverPtr, String filename);
+
     private native long createSolver();
 
-    private native void destroySolver(long solverPtr);
+    private static native void destroySolver(long solverPtr);
+
+    private static native long estimateNativeBytes(long solverPtr);
 
     private native int readModel(long solverPtr, String filename);
 
+    private native int getModel(long solverPtr, double[] colCosts, double[] colLower, double[] colUpper,
+                                double[] rowLower, double[] rowUpper, int[] starts, int[] indices,
+                                double[] values, byte[] integrality, double[] objective);
+
+    private native int fingerprint(long solverPtr, long[] result);
+
+    private native int passModel(long solverPtr, int numCol, int numRow, int format,
+                                 int[] starts, int[] indices, double[] values,
+                                 double[] colCosts, double[] colLower, double[] colUpper,
+                                 double[] rowLower, double[] rowUpper,
+                                 boolean minimize, double offset, byte[] integrality);
+
+    private native int passModelDirect(long solverPtr, int numCol, int numRow, int format, int numNz,
+                                       IntBuffer starts, IntBuffer indices, DoubleBuffer values,
+                                       DoubleBuffer colCosts, DoubleBuffer colLower, DoubleBuffer colUpper,
+                                       DoubleBuffer rowLower, DoubleBuffer rowUpper,
+                                       boolean minimize, double offset);
+
     private native int run(long solverPtr);
 
-    private native int getModelStatus(long solverPtr);
+    // ===== Callbacks =====
+    private native long createCallbackContext(long solverPtr);
+
+    private static native void destroyCallbackContext(long solverPtr, long contextPtr);
+
+    private static native void setInterrupt(long contextPtr, boolean requested);
+
+    private native void setListener(long solverPtr, long contextPtr, SolveListener listener, SolveEvent event,
+                                    int typeMask);
+
+    private native Throwable takeListenerError(long contextPtr);
+
+    private static native int getModelStatus(long solverPtr);
+
+    private native int getInfo(long solverPtr, double[] values);
+
+    private static native int getNumCol(long solverPtr);
+
+    private static native int getNumRow(long solverPtr);
+
+    private native int getNumNz(long solverPtr);
 
     // ===== Variable Manipulation =====
-    private native int addVariable(long solverPtr, double lowerBound, double upperBound);
+    private static native int addVariable(long solverPtr, double lowerBound, double upperBound);
 
     private native int addVariables(long solverPtr, int count, double[] lowerBounds,
-                                    double[] upperBounds);
+                                    double[] upperBounds, double[] costs);
+
+    private native int addColumns(long solverPtr, int count, double[] costs, double[] lowerBounds,
+                                  double[] upperBounds, byte[] integrality,
+                                  int[] starts, int[] indices, double[] values);
+
+    private static native int deleteVariable(long solverPtr, int col);
+
+    private static native int changeVariableBounds(long solverPtr, int col, double lower, double upper);
+
+    private static native int changeColIntegrality(long solverPtr, int col, int type);
+
+    private native int changeColsIntegralityByRange(long solverPtr, int fromCol, int toCol, byte[] types);
+
+    private native int changeColsIntegralityBySet(long solverPtr, int[] cols, byte[] types);
+
+    private native int deleteColsByRange(long solverPtr, int fromCol, int toCol);
 
-    private native int deleteVariable(long solverPtr, int col);
+    private native int deleteColsBySet(long solverPtr, int[] cols);
 
-    private native int changeVariableBounds(long solverPtr, int col, double lower, double upper);
+    private native int deleteColsByMask(long solverPtr, int[] mask);
 
-    private native int changeColIntegrality(long solverPtr, int col, int type);
+    private native int changeColsBoundsByRange(long solverPtr, int fromCol, int toCol, double[] lower, double[] upper);
+
+    private native int changeColsBoundsBySet(long solverPtr, int[] cols, double[] lower, double[] upper);
+
+    private native int changeColsBoundsByMask(long solverPtr, int[] mask, double[] lower, double[] upper);
 
     // ===== Constraint Manipulation =====
-    private native int deleteConstraint(long solverPtr, int row);
+    private static native int deleteConstraint(long solverPtr, int row);
+
+    private static native int changeConstraintBounds(long solverPtr, int row, double lower, double upper);
+
+    private native int deleteRowsByRange(long solverPtr, int fromRow, int toRow);
+
+    private native int deleteRowsBySet(long solverPtr, int[] rows);
+
+    private native int deleteRowsByMask(long solverPtr, int[] mask);
+
+    private native int changeRowsBoundsByRange(long solverPtr, int fromRow, int toRow, double[] lower, double[] upper);
 
-    private native int changeConstraintBounds(long solverPtr, int row, double lower, double upper);
+    private native int changeRowsBoundsBySet(long solverPtr, int[] rows, double[] lower, double[] upper);
+
+    private native int changeRowsBoundsByMask(long solverPtr, int[] mask, double[] lower, double[] upper);
 
     private native int addConstraint(long solverPtr, double[] coefficients, int[] variableIndices,
                                      double lowerBound, double upperBound);
 
+    private native int addConstraints(long solverPtr, int count, int numNz, double[] lowerBounds,
+                                      double[] upperBounds, int[] starts, int[] indices, double[] values);
+
+    private native int addConstraintsDirect(long solverPtr, int count, int numNz,
+                                            DoubleBuffer lowerBounds, DoubleBuffer upperBounds,
+                                            IntBuffer starts, IntBuffer indices, DoubleBuffer values);
+
     // ===== Objective Function =====
     private native int setObjective(long solverPtr, double[] coefficients, int[] variableIndices,
                                     boolean sense, double offset);
 
+    private native int changeColsCostByRange(long solverPtr, int fromCol, int toCol, double[] costs);
+
+    private native int changeColsCostBySet(long solverPtr, int[] colIndices, double[] costs);
+
     // ===== Solution Management =====
+    private static native double getObjectiveValue(long solverPtr);
+
+    private native int fillSolution(long solverPtr, Solution target);
 
-//    private native int getReducedCosts(long solverPtr, double[] reducedCosts);
-//
-//    private native int getDualSolution(long solverPtr, double[] dualSolution);
-//
-//    private native int getRowValues(long solverPtr, double[] rowValues);
+    private native int getSolutionValuesDirect(long solverPtr, DoubleBuffer values, int capacity);
 
-    private native double getObjectiveValue(long solverPtr);
+    // ===== Warm Start =====
+    private native int getBasis(long solverPtr, byte[] colStatus, byte[] rowStatus);
 
-    private native double[] getSolutionValues(long solverPtr);
+    private native int setBasis(long solverPtr, byte[] colStatus, byte[] rowStatus);
 
-//    // ===== Parameter Management =====
-//    private native int getIntegerParameter(long solverPtr, String paramName);
-//
-//    private native double getDoubleParameter(long solverPtr, String paramName);
-//
-//    private native String getStringParameter(long solverPtr, String paramName);
-//
-//    private native int setIntegerParameter(long solverPtr, String paramName, int value);
-//
-//    private native int setDoubleParameter(long solverPtr, String paramName, double value);
-//
-//    private native int setStringParameter(long solverPtr, String paramName, String value);
+    private native int setSolution(long solverPtr, double[] colValues, double[] colDuals,
+                                   double[] rowValues, double[] rowDuals);
+
+    private native int setSparseSolution(long solverPtr, int[] colIndices, double[] colValues);
+
+    // ===== Scenario Sweeps =====
+    private native int solveScenarios(long solverPtr, int[] starts, byte[] kinds, int[] indices,
+                                      double[] lower, double[] upper, int[] primalCols, int[] dualRows,
+                                      int[] modelStatuses, double[] results);
+
+    // ===== Parameter Management =====
+    private native int getIntegerParameter(long solverPtr, String paramName);
+
+    private native double getDoubleParameter(long solverPtr, String paramName);
+
+    private native boolean getBooleanParameter(long solverPtr, String paramName);
+
+    private native String getStringParameter(long solverPtr, String paramName);
+
+    private native int setIntegerParameter(long solverPtr, String paramName, int value);
+
+    private native int setDoubleParameter(long solverPtr, String paramName, double value);
+
+    private native int setBooleanParameter(long solverPtr, String paramName, boolean value);
+
+    private native int setStringParameter(long solverPtr, String paramName, String value);
+
+    private native int setOptions(long solverPtr, byte[] names, int[] types, double[] values, String[] stringValues);
 
 
     // Public API methods
@@ -98,197 +238,1550 @@ public class HiGHS {
     // ===== Model Management ====
 
     public HighsStatus clearModel() {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        int status = clearModel(solverHandle);
-        return HighsStatus.fromInt(status);
+        enter();
+        try {
+            discardEdits();
+            int status = clearModel(solverHandle);
+            updateNativeEstimate();
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
     }
 
     public HighsStatus clearSolver() {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        int status = clearSolver(solverHandle);
-        return HighsStatus.fromInt(status);
+        enter();
+        try {
+            int status = clearSolver(solverHandle);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Restores every option to its HiGHS default.
+     */
+    public HighsStatus resetOptions() {
+        enter();
+        try {
+            int status = resetOptions(solverHandle);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
     }
 
     public HighsStatus writeModel(String filename) {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        int status = writeModel(solverHandle, filename);
-        return HighsStatus.fromInt(status);
+        enter();
+        try {
+            HighsStatus flushed = applyEdits();
+            int status = writeModel(solverHandle, filename);
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
     }
 
     public HighsStatus writeSolution(String filename) {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        int status = writeSolution(solverHandle, filename);
-        return HighsStatus.fromInt(status);
+        enter();
+        try {
+            int status = writeSolution(solverHandle, filename);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Reads a solution for the loaded model from a file in the format of
+     * {@link #writeSolution(String)}, e.g. to pass a known solution to a later solve.
+     */
+    public HighsStatus readSolution(String filename) {
+        enter();
+        try {
+            int status = readSolution(solverHandle, filename);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
     }
 
     public HighsStatus readModel(String filename) {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        int status = readModel(solverHandle, filename);
-        return HighsStatus.fromInt(status);
+        enter();
+        try {
+            discardEdits();
+            int status = readModel(solverHandle, filename);
+            updateNativeEstimate();
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Reads a model in the given text format ({@code "mps"} or {@code "lp"}) from {@code in}.
+     * HiGHS only parses files, so the stream is spooled to a temporary file that is deleted
+     * afterwards; use {@link #loadModel(LpModel)} with {@link LpModel#readFrom(InputStream)} to
+     * avoid disk I/O altogether.
+     */
+    public HighsStatus readModel(InputStream in, String format) throws IOException {
+        Path file = Files.createTempFile("jhighs", "." + checkModelFormat(format));
+        try {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            return readModel(file.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Writes the current model in the given text format ({@code "mps"} or {@code "lp"}) to
+     * {@code out}, through a temporary file.
+     */
+    public HighsStatus writeModel(OutputStream out, String format) throws IOException {
+        Path file = Files.createTempFile("jhighs", "." + checkModelFormat(format));
+        try {
+            HighsStatus status = writeModel(file.toString());
+            if (status != HighsStatus.kError) {
+                Files.copy(file, out);
+            }
+            return status;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Writes the current solution in the HiGHS text format to {@code out}, through a temporary file.
+     */
+    public HighsStatus writeSolution(OutputStream out) throws IOException {
+        Path file = Files.createTempFile("jhighs", ".sol");
+        try {
+            HighsStatus status = writeSolution(file.toString());
+            if (status != HighsStatus.kError) {
+                Files.copy(file, out);
+            }
+            return status;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Reads a solution in the HiGHS text format from {@code in}, through a temporary file.
+     */
+    public HighsStatus readSolution(InputStream in) throws IOException {
+        Path file = Files.createTempFile("jhighs", ".sol");
+        try {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            return readSolution(file.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Returns a copy of the current model, with the constraint matrix column-wise. Together with
+     * {@link LpModel#toByteArray()} this exports a model without going through a file.
+     */
+    public LpModel getModel() {
+        enter();
+        try {
+            if (applyEdits() == HighsStatus.kError) {
+                throw new IllegalStateException("Failed to apply pending edits");
+            }
+            int numCol = getNumCol(solverHandle);
+            int numRow = getNumRow(solverHandle);
+            int numNz = getNumNz(solverHandle);
+            double[] colCosts = new double[numCol];
+            double[] colLower = new double[numCol];
+            double[] colUpper = new double[numCol];
+            double[] rowLower = new double[numRow];
+            double[] rowUpper = new double[numRow];
+            int[] starts = new int[numCol + 1];
+            int[] indices = new int[numNz];
+            double[] values = new double[numNz];
+            byte[] integrality = new byte[numCol];
+            // Objective sense (1 minimize, -1 maximize) and offset
+            double[] objective = new double[2];
+            int status = getModel(solverHandle, colCosts, colLower, colUpper, rowLower, rowUpper,
+                    starts, indices, values, integrality, objective);
+            if (HighsStatus.fromInt(status) == HighsStatus.kError) {
+                throw new IllegalStateException("Failed to export model");
+            }
+            boolean mip = false;
+            for (byte type : integrality) {
+                mip |= type != VarType.kContinuous.getValue();
+            }
+            return new LpModel(numCol, numRow, MatrixFormat.kColwise, starts, indices, values,
+                    colCosts, colLower, colUpper, rowLower, rowUpper, objective[0] > 0, objective[1],
+                    mip ? integrality : null);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Returns a 64-bit hash of the current model: dimensions, matrix, costs, bounds, objective
+     * sense and offset, and integrality. It is computed natively in one pass over the model arrays,
+     * so equal models submitted repeatedly can be recognized cheaply, e.g. by a
+     * {@link SolutionCache}. The matrix is hashed column-wise, so the hash does not depend on how
+     * it was loaded or stored; a row-wise matrix is copied for that.
+     */
+    public long getModelFingerprint() {
+        return getFingerprints()[0];
+    }
+
+    // Model hash followed by the hash of the dimensions and matrix alone
+    long[] getFingerprints() {
+        enter();
+        try {
+            if (applyEdits() == HighsStatus.kError) {
+                throw new IllegalStateException("Failed to apply pending edits");
+            }
+            long[] result = new long[2];
+            if (fingerprint(solverHandle, result) == HighsStatus.kError.getValue()) {
+                throw new IllegalStateException("Failed to fingerprint model");
+            }
+            return result;
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Replaces the current model with the given one in a single native call.
+     * The constraint matrix is given in compressed sparse form: for every column
+     * (when {@code format} is {@link MatrixFormat#kColwise}) or row (when it is
+     * {@link MatrixFormat#kRowwise}), {@code starts[k]} is the offset of its first
+     * entry in {@code indices}/{@code values}. The starts begin at zero and do not decrease; a
+     * trailing end marker, if given, must equal the number of entries.
+     */
+    public HighsStatus loadModel(int numCol, int numRow, MatrixFormat format,
+                                 int[] starts, int[] indices, double[] values,
+                                 double[] colCosts, double[] colLower, double[] colUpper,
+                                 double[] rowLower, double[] rowUpper,
+                                 boolean minimize, double offset) {
+        enter();
+        try {
+            if (format == null) {
+                throw new IllegalArgumentException("Matrix format cannot be null");
+            }
+            if (colCosts.length != numCol || colLower.length != numCol || colUpper.length != numCol) {
+                throw new IllegalArgumentException("Column array lengths must match column count");
+            }
+            if (rowLower.length != numRow || rowUpper.length != numRow) {
+                throw new IllegalArgumentException("Row array lengths must match row count");
+            }
+            int numMajor = format == MatrixFormat.kColwise ? numCol : numRow;
+            checkSparseMatrix(numMajor, starts, indices, values);
+            discardEdits();
+            int status = passModel(solverHandle, numCol, numRow, format.getValue(), starts, indices, values,
+                    colCosts, colLower, colUpper, rowLower, rowUpper, minimize, offset, null);
+            updateNativeEstimate();
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Replaces the current model with {@code model}, including its integrality, in a single
+     * native call. The model has already been validated when it was constructed.
+     */
+    public HighsStatus loadModel(LpModel model) {
+        enter();
+        try {
+            if (model == null) {
+                throw new IllegalArgumentException("Model cannot be null");
+            }
+            discardEdits();
+            int status = passModel(solverHandle, model.getNumCol(), model.getNumRow(), model.getFormat().getValue(),
+                    model.getStarts(), model.getIndices(), model.getValues(),
+                    model.getColCosts(), model.getColLower(), model.getColUpper(),
+                    model.getRowLower(), model.getRowUpper(), model.isMinimize(), model.getOffset(),
+                    model.getIntegrality());
+            updateNativeEstimate();
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Off-heap variant of {@link #loadModel(int, int, MatrixFormat, int[], int[], double[], double[],
+     * double[], double[], double[], double[], boolean, double)}. All buffers must be direct and in
+     * native byte order; HiGHS reads them in place from their current position, so no intermediate
+     * copies are made on the Java or JNI side. The number of nonzeros is {@code indices.remaining()}.
+     */
+    public HighsStatus loadModel(int numCol, int numRow, MatrixFormat format,
+                                 IntBuffer starts, IntBuffer indices, DoubleBuffer values,
+                                 DoubleBuffer colCosts, DoubleBuffer colLower, DoubleBuffer colUpper,
+                                 DoubleBuffer rowLower, DoubleBuffer rowUpper,
+                                 boolean minimize, double offset) {
+        enter();
+        try {
+            if (format == null) {
+                throw new IllegalArgumentException("Matrix format cannot be null");
+            }
+            int numMajor = format == MatrixFormat.kColwise ? numCol : numRow;
+            int numNz = indices.remaining();
+            discardEdits();
+            int status = passModelDirect(solverHandle, numCol, numRow, format.getValue(), numNz,
+                    directSlice(starts, numMajor), directSlice(indices, numNz), directSlice(values, numNz),
+                    directSlice(colCosts, numCol), directSlice(colLower, numCol), directSlice(colUpper, numCol),
+                    directSlice(rowLower, numRow), directSlice(rowUpper, numRow), minimize, offset);
+            updateNativeEstimate();
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
     }
 
     public HighsStatus solve() {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        int status = run(solverHandle);
-        return HighsStatus.fromInt(status);
+        long interruptsAtCall = interrupts.get();
+        enter();
+        try {
+            resetInterrupt(interruptsAtCall);
+            HighsStatus flushed = applyEdits();
+            if (flushed == HighsStatus.kError) return flushed;
+            int status = runRecorded();
+            rethrowListenerError();
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Runs {@link #solve()} on {@code executor}. Cancelling the returned future with
+     * {@code cancel(true)} interrupts the running solve through the HiGHS user-interrupt callback,
+     * so the executor thread is released at the next simplex, IPM or MIP interrupt check. The
+     * instance must not be used by other threads until the future completes.
+     *
+     * <p>A cancelled future completes at once, but the native solve keeps running until it reaches
+     * that check and returns. Until then the instance is still busy: it must not be used by other
+     * threads, and {@link #close()} defers freeing the native solver. The solve has returned once
+     * the task submitted to {@code executor} has finished, e.g. after awaiting its termination.
+     */
+    public CompletableFuture<SolveResult> solveAsync(Executor executor) {
+        if (closed) throw new IllegalStateException("Solver not initialized");
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        long interruptsAtCall = interrupts.get();
+        CompletableFuture<SolveResult> future = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean cancelled = super.cancel(mayInterruptIfRunning);
+                if (cancelled && mayInterruptIfRunning) {
+                    interrupt();
+                }
+                return cancelled;
+            }
+        };
+        executor.execute(() -> {
+            try {
+                enter();
+            } catch (IllegalStateException e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            try {
+                // Reset before the check so a cancel that races with the start still interrupts
+                resetInterrupt(interruptsAtCall);
+                if (future.isDone()) return;
+                HighsStatus flushed = applyEdits();
+                if (flushed == HighsStatus.kError) {
+                    future.complete(new SolveResult(flushed, getModelStatus(), getObjectiveValue()));
+                    return;
+                }
+                HighsStatus status = HighsStatus.worse(flushed, HighsStatus.fromInt(runRecorded()));
+                rethrowListenerError();
+                future.complete(new SolveResult(status, getModelStatus(), getObjectiveValue()));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                exit();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Asks a running solve to stop at its next interrupt check; safe to call from any thread.
+     * The interrupted solve finishes with {@link ModelStatus#kInterrupt}. A solve whose call began
+     * before the interrupt but that has not started running yet is stopped as well; later solves
+     * are not affected.
+     */
+    public void interrupt() {
+        // Counted before the flag is set, so resetInterrupt either sees the count or is overwritten
+        interrupts.incrementAndGet();
+        activeCalls.incrementAndGet();
+        try {
+            if (!closed) {
+                setInterrupt(callbackHandle, true);
+            }
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Returns the iteration counts, MIP node count and gap, infeasibility measures, run time and
+     * presolve reductions of the last solve, read in one native call.
+     */
+    public SolveInfo getSolveInfo() {
+        enter();
+        try {
+            return readSolveInfo();
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Installs a process-wide hook that receives the {@link SolveInfo} of every {@link #solve()}
+     * and {@link #solveAsync(Executor)}, e.g. to export duration and iteration metrics; {@code null}
+     * removes it. The hook runs on the solving thread; an exception it throws is logged and does
+     * not fail the solve. Independently of the hook, every solve also emits a
+     * {@code nl.jessenagel.jhighs.Solve} Flight Recorder event when JFR has it enabled. The
+     * re-solves of {@link #solveScenarios} run inside one native call and are reported to neither.
+     */
+    public static void setMetricsHook(Consumer<SolveInfo> hook) {
+        metricsHook = hook;
+    }
+
+    /**
+     * Delivers the given callback types of every later solve to {@code listener}, replacing any
+     * previous listener; {@code null} removes it. Events reuse one {@link SolveEvent} per solver,
+     * so the callback path does not allocate except for log messages. Must not be called while a
+     * solve is running.
+     */
+    public void setSolveListener(SolveListener listener, CallbackType... types) {
+        enter();
+        try {
+            int mask = 0;
+            for (CallbackType type : types) {
+                mask |= 1 << type.getValue();
+            }
+            if (listener != null && mask == 0) {
+                throw new IllegalArgumentException("At least one callback type is required");
+            }
+            setListener(solverHandle, callbackHandle, listener, listener != null ? new SolveEvent() : null, mask);
+            this.listener = listener;
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Solves every scenario of {@code scenarios} against the loaded model without returning to
+     * Java between scenarios. Each scenario's changes are applied, the model is re-solved warm
+     * from the basis of the previous scenario, the results are recorded and the changes are undone
+     * again, so the loaded model is unchanged afterwards.
+     *
+     * <p>For scenario {@code s}, {@code modelStatuses[s]} receives the {@link ModelStatus} value
+     * and {@code results} receives {@code 1 + primalCols.length + dualRows.length} entries starting
+     * at {@code s * (1 + primalCols.length + dualRows.length)}: the objective value, the values of
+     * {@code primalCols} and the duals of {@code dualRows}, or {@code NaN} where the solve produced
+     * no valid solution.
+     *
+     * <p>The scenario solves are not reported to the metrics hook or Flight Recorder, see
+     * {@link #setMetricsHook(Consumer)}, and do not update {@link #getSolveInfo()} timing.
+     *
+     * @return the worst status of all scenario solves
+     */
+    public HighsStatus solveScenarios(ScenarioSet scenarios, int[] primalCols, int[] dualRows,
+                                      int[] modelStatuses, double[] results) {
+        long interruptsAtCall = interrupts.get();
+        enter();
+        try {
+            int numScenarios = scenarios.getNumScenarios();
+            int stride = 1 + primalCols.length + dualRows.length;
+            if (modelStatuses.length < numScenarios || results.length < (long) numScenarios * stride) {
+                throw new IllegalArgumentException("Output arrays are too small for the number of scenarios");
+            }
+            int numCol = getNumCol(solverHandle);
+            int numRow = getNumRow(solverHandle);
+            if (scenarios.maxColIndex() >= numCol || scenarios.maxRowIndex() >= numRow) {
+                throw new IllegalArgumentException("Scenario changes reference indices outside the model");
+            }
+            for (int col : primalCols) {
+                if (col < 0 || col >= numCol) throw new IllegalArgumentException("Column index out of range: " + col);
+            }
+            for (int row : dualRows) {
+                if (row < 0 || row >= numRow) throw new IllegalArgumentException("Row index out of range: " + row);
+            }
+            resetInterrupt(interruptsAtCall);
+            HighsStatus flushed = applyEdits();
+            if (flushed == HighsStatus.kError) return flushed;
+            int status = solveScenarios(solverHandle, scenarios.starts(), scenarios.kinds(), scenarios.indices(),
+                    scenarios.lower(), scenarios.upper(), primalCols, dualRows, modelStatuses, results);
+            updateNativeEstimate();
+            rethrowListenerError();
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Like {@link #solveScenarios(ScenarioSet, int[], int[], int[], double[])} but allocates the
+     * output arrays.
+     */
+    public ScenarioResults solveScenarios(ScenarioSet scenarios, int[] primalCols, int[] dualRows) {
+        int numScenarios = scenarios.getNumScenarios();
+        int[] modelStatuses = new int[numScenarios];
+        double[] results = new double[numScenarios * (1 + primalCols.length + dualRows.length)];
+        HighsStatus status = solveScenarios(scenarios, primalCols, dualRows, modelStatuses, results);
+        return new ScenarioResults(status, modelStatuses, results, primalCols.length, dualRows.length);
+    }
+
+    // ===== Buffered Edits ====
+
+    /**
+     * Turns buffered edit mode on or off. While it is on, {@link #changeVarBounds},
+     * {@link #changeConstraintBounds} and {@link #changeColIntegrality} record the edit on the
+     * Java side and return {@link HighsStatus#kOk}. Only the last edit of each column or row is
+     * kept, and the pending edits are applied by {@link #flush()} with one bulk call per kind.
+     * {@link #solve()} and every call that reads the model, deletes from it or changes it in bulk
+     * flush first, and calls that replace the model drop the pending edits. Indices are checked
+     * against the model when the edit is recorded; an edit HiGHS still rejects is reported by the
+     * call that flushes it, and a solve whose flush fails is not run. Turning the mode off
+     * flushes.
+     */
+    public HighsStatus setBufferedEdits(boolean enabled) {
+        enter();
+        try {
+            if (enabled) {
+                if (edits == null) edits = new PendingEdits();
+                return HighsStatus.kOk;
+            }
+            HighsStatus status = applyEdits();
+            edits = null;
+            return status;
+        } finally {
+            exit();
+        }
+    }
+
+    public boolean isBufferedEdits() {
+        return edits != null;
+    }
+
+    /**
+     * Number of columns and rows with an edit waiting for {@link #flush()}, counting each kind of
+     * edit separately.
+     */
+    public int getNumPendingEdits() {
+        return edits != null ? edits.size() : 0;
+    }
+
+    /**
+     * Applies the pending edits of buffered edit mode: at most one call each for column bounds,
+     * row bounds and column types. Returns the worst status of those calls.
+     */
+    public HighsStatus flush() {
+        enter();
+        try {
+            return applyEdits();
+        } finally {
+            exit();
+        }
     }
 
     public ModelStatus getModelStatus() {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        int status = getModelStatus(solverHandle);
-        return ModelStatus.fromInt(status);
+        enter();
+        try {
+            int status = getModelStatus(solverHandle);
+            return ModelStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    public int getNumVars() {
+        enter();
+        try {
+            return getNumCol(solverHandle);
+        } finally {
+            exit();
+        }
+    }
+
+    public int getNumConstraints() {
+        enter();
+        try {
+            return getNumRow(solverHandle);
+        } finally {
+            exit();
+        }
     }
 
     // ===== Variable Manipulation ====
     public int addVar(double lowerBound, double upperBound) {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        return addVariable(solverHandle, lowerBound, upperBound);
+        enter();
+        try {
+            return addVariable(solverHandle, lowerBound, upperBound);
+        } finally {
+            exit();
+        }
     }
 
     public HighsStatus addVars(int count, double[] lowerBounds, double[] upperBounds, double[] costs) {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        if (lowerBounds.length != count || upperBounds.length != count || costs.length != count) {
-            throw new IllegalArgumentException("Array lengths must match variable count");
+        enter();
+        try {
+            if (lowerBounds.length != count || upperBounds.length != count || costs.length != count) {
+                throw new IllegalArgumentException("Array lengths must match variable count");
+            }
+            int status = addVariables(solverHandle, count, lowerBounds, upperBounds, costs);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    public HighsStatus addVars(double[] costs, double[] lowerBounds, double[] upperBounds, VarType[] integrality) {
+        return addVars(costs, lowerBounds, upperBounds, integrality, null, null, null);
+    }
+
+    /**
+     * Adds {@code costs.length} columns with their costs, bounds and (optionally) integrality in a
+     * single native call. When {@code starts} is given, the constraint coefficients of column
+     * {@code k} are {@code indices/values[starts[k] .. starts[k + 1])}; otherwise the columns are
+     * added without matrix entries. {@code integrality} may be {@code null} for continuous columns.
+     */
+    public HighsStatus addVars(double[] costs, double[] lowerBounds, double[] upperBounds, VarType[] integrality,
+                               int[] starts, int[] indices, double[] values) {
+        enter();
+        try {
+            int count = costs.length;
+            if (lowerBounds.length != count || upperBounds.length != count
+                    || (integrality != null && integrality.length != count)) {
+                throw new IllegalArgumentException("Array lengths must match variable count");
+            }
+            if (starts != null || indices != null || values != null) {
+                if (starts == null || indices == null || values == null) {
+                    throw new IllegalArgumentException("Start, index and value arrays must be given together");
+                }
+                checkSparseMatrix(count, starts, indices, values);
+            }
+            byte[] types = null;
+            if (integrality != null) {
+                types = new byte[count];
+                for (int i = 0; i < count; i++) {
+                    if (integrality[i] == null) {
+                        throw new IllegalArgumentException("Variable type cannot be null");
+                    }
+                    types[i] = (byte) integrality[i].getValue();
+                }
+            }
+            int status = addColumns(solverHandle, count, costs, lowerBounds, upperBounds, types, starts, indices, values);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
         }
-        int status = addVariables(solverHandle, count, lowerBounds, upperBounds);
-        return HighsStatus.fromInt(status);
     }
 
     public HighsStatus deleteVar(int colIndex) {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        int status = deleteVariable(solverHandle, colIndex);
-        return HighsStatus.fromInt(status);
+        enter();
+        try {
+            HighsStatus flushed = applyEdits();
+            int status = deleteVariable(solverHandle, colIndex);
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
     }
 
+    /**
+     * Changes the bounds of one column; recorded instead of applied in buffered edit mode, see
+     * {@link #setBufferedEdits(boolean)}.
+     */
     public HighsStatus changeVarBounds(int colIndex, double lower, double upper) {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        int status = changeVariableBounds(solverHandle, colIndex, lower, upper);
-        return HighsStatus.fromInt(status);
+        enter();
+        try {
+            if (edits != null) {
+                checkEditCol(colIndex);
+                edits.colBounds.put(colIndex, lower, upper);
+                return HighsStatus.kOk;
+            }
+            int status = changeVariableBounds(solverHandle, colIndex, lower, upper);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Deletes the columns {@code fromCol..toCol} (inclusive) in one call.
+     */
+    public HighsStatus deleteVars(int fromCol, int toCol) {
+        enter();
+        try {
+            HighsStatus flushed = applyEdits();
+            int status = deleteColsByRange(solverHandle, fromCol, toCol);
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Deletes the given columns in one call; the indices may be in any order.
+     */
+    public HighsStatus deleteVars(int[] colIndices) {
+        enter();
+        try {
+            HighsStatus flushed = applyEdits();
+            int status = deleteColsBySet(solverHandle, colIndices);
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
     }
 
+    /**
+     * Deletes every column whose {@code mask} entry is nonzero. The mask must have one entry per column;
+     * on return it holds the new index of each kept column and -1 for deleted ones.
+     */
+    public HighsStatus deleteVarsByMask(int[] mask) {
+        enter();
+        try {
+            HighsStatus flushed = applyEdits();
+            int status = deleteColsByMask(solverHandle, mask);
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
+    }
+
+    public HighsStatus changeVarsBounds(int fromCol, int toCol, double[] lower, double[] upper) {
+        enter();
+        try {
+            if (lower.length != toCol - fromCol + 1 || upper.length != lower.length) {
+                throw new IllegalArgumentException("Bound array lengths must match the column interval");
+            }
+            HighsStatus flushed = applyEdits();
+            int status = changeColsBoundsByRange(solverHandle, fromCol, toCol, lower, upper);
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
+    }
+
+    public HighsStatus changeVarsBounds(int[] colIndices, double[] lower, double[] upper) {
+        enter();
+        try {
+            if (lower.length != colIndices.length || upper.length != colIndices.length) {
+                throw new IllegalArgumentException("Bound and index arrays must have the same length");
+            }
+            HighsStatus flushed = applyEdits();
+            int status = changeColsBoundsBySet(solverHandle, colIndices, lower, upper);
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Changes the bounds of every column whose {@code mask} entry is nonzero. All three arrays
+     * have one entry per column.
+     */
+    public HighsStatus changeVarsBoundsByMask(int[] mask, double[] lower, double[] upper) {
+        enter();
+        try {
+            if (lower.length != mask.length || upper.length != mask.length) {
+                throw new IllegalArgumentException("Bound and mask arrays must have the same length");
+            }
+            HighsStatus flushed = applyEdits();
+            int status = changeColsBoundsByMask(solverHandle, mask, lower, upper);
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Changes the type of one column; recorded instead of applied in buffered edit mode, see
+     * {@link #setBufferedEdits(boolean)}.
+     */
     public HighsStatus changeColIntegrality(int colIndex, VarType varType) {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        if (varType == null) {
-            throw new IllegalArgumentException("Variable type cannot be null");
+        enter();
+        try {
+            if (varType == null) {
+                throw new IllegalArgumentException("Variable type cannot be null");
+            }
+            if (edits != null) {
+                checkEditCol(colIndex);
+                edits.colTypes.put(colIndex, varType.getValue(), 0.0);
+                return HighsStatus.kOk;
+            }
+            int status = changeColIntegrality(solverHandle, colIndex, varType.getValue());
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Sets the integrality of columns {@code fromCol} to {@code toCol} (inclusive) from
+     * {@link VarType} values, in one native call.
+     */
+    public HighsStatus changeColsIntegrality(int fromCol, int toCol, byte[] integrality) {
+        enter();
+        try {
+            if (integrality.length != toCol - fromCol + 1) {
+                throw new IllegalArgumentException("Integrality array length must match the column interval");
+            }
+            HighsStatus flushed = applyEdits();
+            int status = changeColsIntegralityByRange(solverHandle, fromCol, toCol, integrality);
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
         }
-        int status = changeColIntegrality(solverHandle, colIndex, varType.getValue());
-        return HighsStatus.fromInt(status);
     }
 
     // ===== Constraint Management ====
     public HighsStatus addConstraint(double[] coefficients, int[] variableIndices,
                                      double lowerBound, double upperBound) {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        int status = addConstraint(solverHandle, coefficients, variableIndices, lowerBound, upperBound);
-        return HighsStatus.fromInt(status);
+        enter();
+        try {
+            int status = addConstraint(solverHandle, coefficients, variableIndices, lowerBound, upperBound);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Adds {@code count} constraints in a single native call. The coefficients are
+     * given row-wise: the entries of row {@code k} are
+     * {@code indices/values[starts[k] .. starts[k + 1])}.
+     */
+    public HighsStatus addConstraints(int count, double[] lowerBounds, double[] upperBounds,
+                                      int[] starts, int[] indices, double[] values) {
+        enter();
+        try {
+            if (lowerBounds.length != count || upperBounds.length != count) {
+                throw new IllegalArgumentException("Array lengths must match constraint count");
+            }
+            checkSparseMatrix(count, starts, indices, values);
+            int status = addConstraints(solverHandle, count, indices.length, lowerBounds, upperBounds,
+                    starts, indices, values);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Adds the first {@code count} rows of a row-wise buffer whose arrays may be longer than the
+     * data they hold, so growable buffers are passed without trimming them first. The caller
+     * guarantees that the starts are valid.
+     */
+    HighsStatus addConstraints(int count, int numNz, double[] lowerBounds, double[] upperBounds,
+                               int[] starts, int[] indices, double[] values) {
+        enter();
+        try {
+            if (lowerBounds.length < count || upperBounds.length < count || starts.length < count
+                    || indices.length < numNz || values.length < numNz) {
+                throw new IllegalArgumentException("Arrays are shorter than the given counts");
+            }
+            int status = addConstraints(solverHandle, count, numNz, lowerBounds, upperBounds, starts, indices, values);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Off-heap variant of {@link #addConstraints(int, double[], double[], int[], int[], double[])}.
+     * All buffers must be direct and in native byte order.
+     */
+    public HighsStatus addConstraints(int count, DoubleBuffer lowerBounds, DoubleBuffer upperBounds,
+                                      IntBuffer starts, IntBuffer indices, DoubleBuffer values) {
+        enter();
+        try {
+            int numNz = indices.remaining();
+            int status = addConstraintsDirect(solverHandle, count, numNz,
+                    directSlice(lowerBounds, count), directSlice(upperBounds, count),
+                    directSlice(starts, count), directSlice(indices, numNz), directSlice(values, numNz));
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
     }
 
     public HighsStatus deleteConstraint(int rowIndex) {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        int status = deleteConstraint(solverHandle, rowIndex);
-        return HighsStatus.fromInt(status);
+        enter();
+        try {
+            HighsStatus flushed = applyEdits();
+            int status = deleteConstraint(solverHandle, rowIndex);
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
     }
 
+    /**
+     * Changes the bounds of one row; recorded instead of applied in buffered edit mode, see
+     * {@link #setBufferedEdits(boolean)}.
+     */
     public HighsStatus changeConstraintBounds(int rowIndex, double lower, double upper) {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        int status = changeConstraintBounds(solverHandle, rowIndex, lower, upper);
-        return HighsStatus.fromInt(status);
+        enter();
+        try {
+            if (edits != null) {
+                checkEditRow(rowIndex);
+                edits.rowBounds.put(rowIndex, lower, upper);
+                return HighsStatus.kOk;
+            }
+            int status = changeConstraintBounds(solverHandle, rowIndex, lower, upper);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Deletes the rows {@code fromRow..toRow} (inclusive) in one call.
+     */
+    public HighsStatus deleteConstraints(int fromRow, int toRow) {
+        enter();
+        try {
+            HighsStatus flushed = applyEdits();
+            int status = deleteRowsByRange(solverHandle, fromRow, toRow);
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Deletes the given rows in one call; the indices may be in any order.
+     */
+    public HighsStatus deleteConstraints(int[] rowIndices) {
+        enter();
+        try {
+            HighsStatus flushed = applyEdits();
+            int status = deleteRowsBySet(solverHandle, rowIndices);
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Deletes every row whose {@code mask} entry is nonzero. The mask must have one entry per row;
+     * on return it holds the new index of each kept row and -1 for deleted ones.
+     */
+    public HighsStatus deleteConstraintsByMask(int[] mask) {
+        enter();
+        try {
+            HighsStatus flushed = applyEdits();
+            int status = deleteRowsByMask(solverHandle, mask);
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
+    }
+
+    public HighsStatus changeConstraintsBounds(int fromRow, int toRow, double[] lower, double[] upper) {
+        enter();
+        try {
+            if (lower.length != toRow - fromRow + 1 || upper.length != lower.length) {
+                throw new IllegalArgumentException("Bound array lengths must match the row interval");
+            }
+            HighsStatus flushed = applyEdits();
+            int status = changeRowsBoundsByRange(solverHandle, fromRow, toRow, lower, upper);
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
+    }
+
+    public HighsStatus changeConstraintsBounds(int[] rowIndices, double[] lower, double[] upper) {
+        enter();
+        try {
+            if (lower.length != rowIndices.length || upper.length != rowIndices.length) {
+                throw new IllegalArgumentException("Bound and index arrays must have the same length");
+            }
+            HighsStatus flushed = applyEdits();
+            int status = changeRowsBoundsBySet(solverHandle, rowIndices, lower, upper);
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Changes the bounds of every row whose {@code mask} entry is nonzero. All three arrays
+     * have one entry per row.
+     */
+    public HighsStatus changeConstraintsBoundsByMask(int[] mask, double[] lower, double[] upper) {
+        enter();
+        try {
+            if (lower.length != mask.length || upper.length != mask.length) {
+                throw new IllegalArgumentException("Bound and mask arrays must have the same length");
+            }
+            HighsStatus flushed = applyEdits();
+            int status = changeRowsBoundsByMask(solverHandle, mask, lower, upper);
+            return HighsStatus.worse(flushed, HighsStatus.fromInt(status));
+        } finally {
+            exit();
+        }
     }
 
     // ===== Objective Function Management ====
+
+    /**
+     * Sets the objective sense and offset and the costs of the given columns. A column listed more
+     * than once takes its last coefficient.
+     */
     public HighsStatus setObjectiveFunction(double[] coefficients, int[] variableIndices,
                                             boolean minimize, double constant) {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        if (coefficients.length != variableIndices.length) {
-            throw new IllegalArgumentException("Coefficient and index arrays must have the same length");
+        enter();
+        try {
+            if (coefficients.length != variableIndices.length) {
+                throw new IllegalArgumentException("Coefficient and index arrays must have the same length");
+            }
+
+            int status = setObjective(solverHandle, coefficients, variableIndices, minimize, constant);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Replaces the cost of every column with {@code costs} in one native call.
+     */
+    public HighsStatus changeColsCost(double[] costs) {
+        enter();
+        try {
+            if (costs.length != getNumCol(solverHandle)) {
+                throw new IllegalArgumentException("Cost array length must match the number of columns");
+            }
+            if (costs.length == 0) return HighsStatus.kOk;
+            int status = changeColsCostByRange(solverHandle, 0, costs.length - 1, costs);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Sets the costs of the contiguous columns {@code fromCol..toCol} (inclusive).
+     */
+    public HighsStatus changeColsCost(int fromCol, int toCol, double[] costs) {
+        enter();
+        try {
+            if (toCol - fromCol + 1 != costs.length) {
+                throw new IllegalArgumentException("Cost array length must match the column interval");
+            }
+            int status = changeColsCostByRange(solverHandle, fromCol, toCol, costs);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
         }
+    }
 
-        int status = setObjective(solverHandle, coefficients, variableIndices, minimize, constant);
-        return HighsStatus.fromInt(status);
+    /**
+     * Sets the costs of the given columns; {@code colIndices} must not contain duplicates.
+     */
+    public HighsStatus changeColsCost(int[] colIndices, double[] costs) {
+        enter();
+        try {
+            if (colIndices.length != costs.length) {
+                throw new IllegalArgumentException("Cost and index arrays must have the same length");
+            }
+            int status = changeColsCostBySet(solverHandle, colIndices, costs);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
     }
 
     // ===== Solution Management ====
     public Solution getSolution() {
-        if (!initialized) throw new IllegalStateException("Solver not initialized");
-        double[] values = getSolutionValues(solverHandle);
-        double objective = getObjectiveValue(solverHandle);
-        return new Solution(values, objective);
-    }
-
-    //    public double[] getReducedCosts() {
-//        if (!initialized) throw new IllegalStateException("Solver not initialized");
-//
-//        // Get dimension
-//        Solution solution = getSolution();
-//        int numVars = solution.getNumVariables();
-//
-//        double[] reducedCosts = new double[numVars];
-//        getReducedCosts(solverHandle, reducedCosts);
-//        return reducedCosts;
-//    }
-//
-//    public double[] getDualSolution() {
-//        if (!initialized) throw new IllegalStateException("Solver not initialized");
-//
-//        // This needs the number of constraints, which we should get from the model
-//        int numConstraints = 100; // Placeholder
-//
-//        double[] dualSolution = new double[numConstraints];
-//        getDualSolution(solverHandle, dualSolution);
-//        return dualSolution;
-//    }
-//
-//    public double[] getRowValues() {
-//        if (!initialized) throw new IllegalStateException("Solver not initialized");
-//
-//        // This needs the number of constraints, which we should get from the model
-//        int numConstraints = 100; // Placeholder
-//
-//        double[] rowValues = new double[numConstraints];
-//        getRowValues(solverHandle, rowValues);
-//        return rowValues;
-//    }
-//    // ===== Parameter Management ====
-//
-//    public int getIntParameter(String paramName) {
-//        if (!initialized) throw new IllegalStateException("Solver not initialized");
-//        return getIntegerParameter(solverHandle, paramName);
-//    }
-//
-//    public double getDoubleParameter(String paramName) {
-//        if (!initialized) throw new IllegalStateException("Solver not initialized");
-//        return getDoubleParameter(solverHandle, paramName);
-//    }
-//
-//    public String getStringParameter(String paramName) {
-//        if (!initialized) throw new IllegalStateException("Solver not initialized");
-//        return getStringParameter(solverHandle, paramName);
-//    }
-//
-//    public HighsStatus setIntParameter(String paramName, int value) {
-//        if (!initialized) throw new IllegalStateException("Solver not initialized");
-//        int status = setIntegerParameter(solverHandle, paramName, value);
-//        return HighsStatus.fromInt(status);
-//    }
-//
-//    public HighsStatus setDoubleParameter(String paramName, double value) {
-//        if (!initialized) throw new IllegalStateException("Solver not initialized");
-//        int status = setDoubleParameter(solverHandle, paramName, value);
-//        return HighsStatus.fromInt(status);
-//    }
-//
-//    public HighsStatus setStringParameter(String paramName, String value) {
-//        if (!initialized) throw new IllegalStateException("Solver not initialized");
-//        int status = setStringParameter(solverHandle, paramName, value);
-//        return HighsStatus.fromInt(status);
-//    }
+        return getSolution(new Solution());
+    }
+
+    /**
+     * Copies the column values, reduced costs, row activities, row duals and objective of the last
+     * solve into {@code target} in a single native call and returns it. The arrays of
+     * {@code target} are reused when their sizes still match the model, so a pricing loop that
+     * passes the same instance after every solve does not allocate.
+     */
+    public Solution getSolution(Solution target) {
+        enter();
+        try {
+            if (target == null) {
+                throw new IllegalArgumentException("Target solution cannot be null");
+            }
+            int status = fillSolution(solverHandle, target);
+            if (status == HighsStatus.kError.getValue()) {
+                throw new IllegalStateException("Failed to retrieve solution");
+            }
+            return target;
+        } finally {
+            exit();
+        }
+    }
+
+    public double getObjectiveValue() {
+        enter();
+        try {
+            return getObjectiveValue(solverHandle);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Writes the primal column values of the last solve into {@code values}, starting at its
+     * current position, without allocating a Java array. The buffer must be direct and in native
+     * byte order. Returns the number of values written.
+     */
+    public int getVariableValues(DoubleBuffer values) {
+        enter();
+        try {
+            DoubleBuffer target = directSlice(values, 0);
+            int written = getSolutionValuesDirect(solverHandle, target, target.remaining());
+            if (written < 0) {
+                throw new IllegalArgumentException("Buffer too small for the solution values");
+            }
+            return written;
+        } finally {
+            exit();
+        }
+    }
+
+    // ===== Warm Start ====
+
+    /**
+     * Returns the current simplex basis, or {@code null} if the solver does not hold a valid one.
+     */
+    public Basis getBasis() {
+        enter();
+        try {
+            byte[] colStatus = new byte[getNumCol(solverHandle)];
+            byte[] rowStatus = new byte[getNumRow(solverHandle)];
+            int status = getBasis(solverHandle, colStatus, rowStatus);
+            return status == HighsStatus.kError.getValue() ? null : new Basis(colStatus, rowStatus);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Installs {@code basis} as the starting basis of the next solve. It must match the current
+     * model dimensions, e.g. a basis saved with {@link #getBasis()} before {@link #clearSolver()}.
+     */
+    public HighsStatus setBasis(Basis basis) {
+        enter();
+        try {
+            if (basis == null) {
+                throw new IllegalArgumentException("Basis cannot be null");
+            }
+            int status = setBasis(solverHandle, basis.getColStatus(), basis.getRowStatus());
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Supplies a starting point for the next solve. {@code colValues} alone is a MIP start;
+     * row values are computed by HiGHS when {@code rowValues} is {@code null}. The duals are only
+     * used when both {@code colDuals} and {@code rowDuals} are given.
+     */
+    public HighsStatus setSolution(double[] colValues, double[] colDuals, double[] rowValues, double[] rowDuals) {
+        enter();
+        try {
+            int status = setSolution(solverHandle, colValues, colDuals, rowValues, rowDuals);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    public HighsStatus setSolution(double[] colValues) {
+        return setSolution(colValues, null, null, null);
+    }
+
+    /**
+     * Supplies a partial MIP start: only the given columns have a value.
+     */
+    public HighsStatus setSolution(int[] colIndices, double[] colValues) {
+        enter();
+        try {
+            if (colIndices.length != colValues.length) {
+                throw new IllegalArgumentException("Value and index arrays must have the same length");
+            }
+            int status = setSparseSolution(solverHandle, colIndices, colValues);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    // ===== Parameter Management ====
+
+    public int getIntParameter(String paramName) {
+        enter();
+        try {
+            return getIntegerParameter(solverHandle, paramName);
+        } finally {
+            exit();
+        }
+    }
+
+    public double getDoubleParameter(String paramName) {
+        enter();
+        try {
+            return getDoubleParameter(solverHandle, paramName);
+        } finally {
+            exit();
+        }
+    }
+
+    public boolean getBoolParameter(String paramName) {
+        enter();
+        try {
+            return getBooleanParameter(solverHandle, paramName);
+        } finally {
+            exit();
+        }
+    }
+
+    public String getStringParameter(String paramName) {
+        enter();
+        try {
+            return getStringParameter(solverHandle, paramName);
+        } finally {
+            exit();
+        }
+    }
+
+    public HighsStatus setIntParameter(String paramName, int value) {
+        enter();
+        try {
+            int status = setIntegerParameter(solverHandle, paramName, value);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    public HighsStatus setDoubleParameter(String paramName, double value) {
+        enter();
+        try {
+            int status = setDoubleParameter(solverHandle, paramName, value);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    public HighsStatus setBoolParameter(String paramName, boolean value) {
+        enter();
+        try {
+            int status = setBooleanParameter(solverHandle, paramName, value);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    public HighsStatus setStringParameter(String paramName, String value) {
+        enter();
+        try {
+            int status = setStringParameter(solverHandle, paramName, value);
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Applies every option in {@code options} in a single native call. Returns the worst status
+     * reported by HiGHS; options after a failing one are still applied.
+     */
+    public HighsStatus setOptions(HighsOptions options) {
+        enter();
+        try {
+            if (options == null) {
+                throw new IllegalArgumentException("Options cannot be null");
+            }
+            if (options.size() == 0) return HighsStatus.kOk;
+            int status = setOptions(solverHandle, options.names(), options.types(), options.values(),
+                    options.stringValues());
+            return HighsStatus.fromInt(status);
+        } finally {
+            exit();
+        }
+    }
+
+    // Must be called between enter() and exit()
+    private HighsStatus applyEdits() {
+        if (edits == null) return HighsStatus.kOk;
+        // Called before every deletion, so the model size must be read again afterwards
+        edits.forgetSize();
+        if (edits.size() == 0) return HighsStatus.kOk;
+        HighsStatus status = HighsStatus.kOk;
+        if (edits.colBounds.size() > 0) {
+            ChangeLog.Batch batch = edits.colBounds.drain();
+            status = HighsStatus.worse(status, HighsStatus.fromInt(
+                    changeColsBoundsBySet(solverHandle, batch.indices, batch.first, batch.second)));
+        }
+        if (edits.rowBounds.size() > 0) {
+            ChangeLog.Batch batch = edits.rowBounds.drain();
+            status = HighsStatus.worse(status, HighsStatus.fromInt(
+                    changeRowsBoundsBySet(solverHandle, batch.indices, batch.first, batch.second)));
+        }
+        if (edits.colTypes.size() > 0) {
+            ChangeLog.Batch batch = edits.colTypes.drain();
+            byte[] types = new byte[batch.indices.length];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = (byte) batch.first[i];
+            }
+            status = HighsStatus.worse(status, HighsStatus.fromInt(
+                    changeColsIntegralityBySet(solverHandle, batch.indices, types)));
+        }
+        return status;
+    }
+
+    private void discardEdits() {
+        if (edits != null) edits.clear();
+    }
+
+    // Asks HiGHS for the model size only when the index exceeds the last known one
+    private void checkEditCol(int colIndex) {
+        if (colIndex >= edits.numCol) edits.numCol = getNumCol(solverHandle);
+        checkEditIndex(colIndex, edits.numCol);
+    }
+
+    private void checkEditRow(int rowIndex) {
+        if (rowIndex >= edits.numRow) edits.numRow = getNumRow(solverHandle);
+        checkEditIndex(rowIndex, edits.numRow);
+    }
+
+    private static void checkEditIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Index out of range: " + index);
+        }
+    }
+
+    // Runs the solver, timing it for getSolveInfo and reporting it to JFR and the metrics hook
+    private int runRecorded() {
+        SolveJfrEvent recording = new SolveJfrEvent();
+        recording.begin();
+        long start = System.nanoTime();
+        int status = run(solverHandle);
+        lastSolveNanos = System.nanoTime() - start;
+        updateNativeEstimate();
+        Consumer<SolveInfo> hook = metricsHook;
+        if (hook != null || recording.shouldCommit()) {
+            SolveInfo info = readSolveInfo();
+            if (recording.shouldCommit()) {
+                recording.fill(info);
+                recording.commit();
+            }
+            if (hook != null) {
+                // A failing hook must not fail the solve or mask a listener error
+                try {
+                    hook.accept(info);
+                } catch (RuntimeException e) {
+                    LOGGER.log(System.Logger.Level.WARNING, "Metrics hook failed", e);
+                }
+            }
+        }
+        return status;
+    }
+
+    private SolveInfo readSolveInfo() {
+        double[] values = new double[SolveInfo.NUM_SLOTS];
+        getInfo(solverHandle, values);
+        return new SolveInfo(values, ModelStatus.fromInt(getModelStatus(solverHandle)), lastSolveNanos);
+    }
+
+    // Clears the flag left by an earlier interrupt unless one was requested after the solve call began
+    private void resetInterrupt(long interruptsAtCall) {
+        setInterrupt(callbackHandle, false);
+        if (interrupts.get() != interruptsAtCall) {
+            setInterrupt(callbackHandle, true);
+        }
+    }
+
+    private void rethrowListenerError() {
+        if (listener == null) return;
+        Throwable error = takeListenerError(callbackHandle);
+        if (error instanceof RuntimeException e) throw e;
+        if (error instanceof Error e) throw e;
+        if (error != null) throw new IllegalStateException("Solve listener failed", error);
+    }
+
+    private static String checkModelFormat(String format) {
+        if (!"mps".equals(format) && !"lp".equals(format)) {
+            throw new IllegalArgumentException("Model format must be \"mps\" or \"lp\"");
+        }
+        return format;
+    }
+
+    static void checkSparseMatrix(int numMajor, int[] starts, int[] indices, double[] values) {
+        if (indices.length != values.length) {
+            throw new IllegalArgumentException("Index and value arrays must have the same length");
+        }
+        if (starts.length != numMajor && starts.length != numMajor + 1) {
+            throw new IllegalArgumentException("Start array length must match the number of rows or columns");
+        }
+        if (starts.length > 0 && starts[0] != 0) {
+            throw new IllegalArgumentException("Start array must begin at zero");
+        }
+        int previous = 0;
+        for (int start : starts) {
+            if (start < previous || start > indices.length) {
+                throw new IllegalArgumentException("Start array must be non-decreasing and within the entry count");
+            }
+            previous = start;
+        }
+        // With an end marker, the last start must account for every entry
+        if (starts.length == numMajor + 1 && starts[numMajor] != indices.length) {
+            throw new IllegalArgumentException("Last start must equal the number of entries");
+        }
+        if (numMajor == 0 && indices.length > 0) {
+            throw new IllegalArgumentException("Entries given for an empty matrix");
+        }
+    }
+
+    private static DoubleBuffer directSlice(DoubleBuffer buffer, int length) {
+        if (!buffer.isDirect() || buffer.order() != ByteOrder.nativeOrder()) {
+            throw new IllegalArgumentException("Buffer must be direct and in native byte order");
+        }
+        if (buffer.remaining() < length) {
+            throw new IllegalArgumentException("Buffer has " + buffer.remaining() + " remaining values, need " + length);
+        }
+        return buffer.slice();
+    }
+
+    private static IntBuffer directSlice(IntBuffer buffer, int length) {
+        if (!buffer.isDirect() || buffer.order() != ByteOrder.nativeOrder()) {
+            throw new IllegalArgumentException("Buffer must be direct and in native byte order");
+        }
+        if (buffer.remaining() < length) {
+            throw new IllegalArgumentException("Buffer has " + buffer.remaining() + " remaining values, need " + length);
+        }
+        return buffer.slice();
+    }
+
+    // ===== Lifecycle ====
+
+    /**
+     * Number of native HiGHS solvers that have been created and not yet freed, process-wide.
+     */
+    public static int getLiveNativeSolvers() {
+        return LIVE_SOLVERS.get();
+    }
+
+    /**
+     * Rough estimate of the off-heap memory held by all live native solvers, in bytes. Each
+     * solver's share is recomputed from its model dimensions after loading, clearing or solving.
+     */
+    public static long getEstimatedNativeBytes() {
+        return ESTIMATED_NATIVE_BYTES.get();
+    }
+
+    private void enter() {
+        activeCalls.incrementAndGet();
+        if (closed) {
+            exit();
+            throw new IllegalStateException("Solver not initialized");
+        }
+    }
+
+    private void exit() {
+        if (activeCalls.decrementAndGet() == 0 && closed) {
+            cleanable.clean();
+        }
+    }
+
+    // Must be called between enter() and exit()
+    private void updateNativeEstimate() {
+        nativeState.updateEstimate(estimateNativeBytes(solverHandle));
+    }
+
+    /**
+     * Frees the native solver. A solve running on another thread is interrupted, and the solver is
+     * freed as soon as the last in-flight call returns. Safe to call more than once.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        interrupt();
+        closed = true;
+        if (activeCalls.get() == 0) {
+            cleanable.clean();
+        }
+    }
+
     // Cleanup
     public void dispose() {
-        if (initialized) {
-            destroySolver(solverHandle);
-            initialized = false;
+        close();
+    }
+
+    // Change logs of buffered edit mode; types are stored as their VarType value
+    private static final class PendingEdits {
+        final ChangeLog colBounds = new ChangeLog();
+        final ChangeLog rowBounds = new ChangeLog();
+        final ChangeLog colTypes = new ChangeLog();
+        // Model size at the last index check, -1 if unknown. Deletions flush and replacing the
+        // model drops the edits, both of which forget it, so between those it can only grow.
+        int numCol = -1;
+        int numRow = -1;
+
+        int size() {
+            return colBounds.size() + rowBounds.size() + colTypes.size();
+        }
+
+        void clear() {
+            colBounds.clear();
+            rowBounds.clear();
+            colTypes.clear();
+            forgetSize();
+        }
+
+        void forgetSize() {
+            numCol = -1;
+            numRow = -1;
         }
     }
 
-}
+    // Cleaner action; must not reference the HiGHS instance
+    private static final class NativeState implements Runnable {
+        private final long solverHandle;
+        private final long callbackHandle;
+        private long estimatedBytes;
+
+        NativeState(long solverHandle, long callbackHandle) {
+            this.solverHandle = solverHandle;
+            this.callbackHandle = callbackHandle;
+        }
 
+        synchronized void updateEstimate(long bytes) {
+            ESTIMATED_NATIVE_BYTES.addAndGet(bytes - estimatedBytes);
+            estimatedBytes = bytes;
+        }
+
+        @Override
+        public synchronized void run() {
+            destroyCallbackContext(solverHandle, callbackHandle);
+            destroySolver(solverHandle);
+            ESTIMATED_NATIVE_BYTES.addAndGet(-estimatedBytes);
+            estimatedBytes = 0;
+            LIVE_SOLVERS.decrementAndGet();
+        }
+    }
+}
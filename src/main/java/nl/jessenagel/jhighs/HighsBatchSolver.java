@@ -0,0 +1,257 @@
+package nl.jessenagel.jhighs;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Solves many independent models in parallel. A fixed number of workers each check out one
+ * {@link HiGHS} instance from an internal {@link HighsSolverPool} and keep it for the whole batch,
+ * so solver construction is paid once per worker rather than once per model. HiGHS keeps its
+ * task scheduler per calling thread, so every worker thread starts its own; to avoid
+ * oversubscribing the machine, every worker's solver gets the {@code threads} option set so that
+ * workers times HiGHS threads does not exceed the number of available processors.
+ *
+ * <pre>{@code
+ * try (HighsBatchSolver batch = new HighsBatchSolver(8, null)) {
+ *     batch.solve(jobs, result -> record(result.getIndex(), result.getObjectiveValue()));
+ * }
+ * }</pre>
+ */
+public class HighsBatchSolver implements AutoCloseable {
+    private final int workers;
+    private final int threadsPerWorker;
+    private final HighsSolverPool pool;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+
+    public HighsBatchSolver() {
+        this(Runtime.getRuntime().availableProcessors(), null);
+    }
+
+    /**
+     * @param options options applied to every worker's solver, or {@code null}; the
+     *                {@code threads} option is always overridden by the batch solver
+     */
+    public HighsBatchSolver(int workers, HighsOptions options) {
+        this(workers, options, null);
+    }
+
+    /**
+     * @param executor runs the worker loops, e.g. a virtual-thread executor; {@code null} creates
+     *                 a fixed pool of daemon threads owned by this batch solver
+     */
+    public HighsBatchSolver(int workers, HighsOptions options, Executor executor) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive");
+        }
+        this.workers = workers;
+        this.threadsPerWorker = Math.max(1, Runtime.getRuntime().availableProcessors() / workers);
+        HighsOptions.Builder workerOptions = HighsOptions.builder();
+        if (options != null) {
+            workerOptions.setAll(options);
+        }
+        workerOptions.threads(threadsPerWorker);
+        this.pool = new HighsSolverPool(workers, null, workerOptions.build());
+        if (executor == null) {
+            this.ownedExecutor = Executors.newFixedThreadPool(workers, runnable -> {
+                Thread thread = new Thread(runnable, "jhighs-batch");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor = ownedExecutor;
+        } else {
+            this.ownedExecutor = null;
+            this.executor = executor;
+        }
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Value of the {@code threads} option of every worker's solver.
+     */
+    public int getThreadsPerWorker() {
+        return threadsPerWorker;
+    }
+
+    /**
+     * Solves all {@code jobs} and hands every result to {@code onResult} as soon as it is ready, in
+     * completion order. {@code onResult} runs on the calling thread, which blocks until the whole
+     * batch is done. A failing job is reported through {@link Result#getError()} and does not stop
+     * the others.
+     */
+    public void solve(List<Job> jobs, Consumer<Result> onResult) throws InterruptedException {
+        if (jobs.isEmpty()) return;
+        ConcurrentLinkedQueue<Job> pending = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < jobs.size(); i++) {
+            pending.add(jobs.get(i).withIndex(i));
+        }
+        BlockingQueue<Result> results = new LinkedBlockingQueue<>();
+        AtomicInteger running = new AtomicInteger();
+        int workerCount = Math.min(workers, jobs.size());
+        for (int w = 0; w < workerCount; w++) {
+            running.incrementAndGet();
+            executor.execute(() -> runWorker(pending, results, running));
+        }
+        try {
+            for (int received = 0; received < jobs.size(); received++) {
+                onResult.accept(results.take());
+            }
+        } finally {
+            // Stop handing out work if the caller gave up early
+            pending.clear();
+        }
+    }
+
+    /**
+     * Solves all {@code jobs} and returns the results in job order.
+     */
+    public List<Result> solveAll(List<Job> jobs) throws InterruptedException {
+        Result[] ordered = new Result[jobs.size()];
+        solve(jobs, result -> ordered[result.getIndex()] = result);
+        return new ArrayList<>(Arrays.asList(ordered));
+    }
+
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+        pool.close();
+    }
+
+    private void runWorker(ConcurrentLinkedQueue<Job> pending, BlockingQueue<Result> results, AtomicInteger running) {
+        HiGHS solver = null;
+        Throwable failure = null;
+        try {
+            solver = pool.acquire();
+            Job job;
+            while ((job = pending.poll()) != null) {
+                results.add(solveJob(solver, job));
+            }
+        } catch (Throwable t) {
+            failure = t;
+        } finally {
+            try {
+                if (solver != null) {
+                    pool.release(solver);
+                }
+            } finally {
+                // The last worker to leave fails whatever is still queued, e.g. because no worker
+                // could obtain a solver, so solve() never waits for a result that will not come
+                if (running.decrementAndGet() == 0) {
+                    Throwable error = failure != null ? failure : new IllegalStateException("No worker left to solve the job");
+                    Job job;
+                    while ((job = pending.poll()) != null) {
+                        results.add(new Result(job.index, null, null, null, error));
+                    }
+                }
+            }
+        }
+    }
+
+    private static Result solveJob(HiGHS solver, Job job) {
+        try {
+            HighsStatus loadStatus = job.model != null ? solver.loadModel(job.model) : solver.readModel(job.file.toString());
+            if (loadStatus == HighsStatus.kError) {
+                return new Result(job.index, loadStatus, ModelStatus.kLoadError, null, null);
+            }
+            HighsStatus status = solver.solve();
+            return new Result(job.index, status, solver.getModelStatus(), solver.getSolution(), null);
+        } catch (Throwable t) {
+            // Every polled job must yield a result, or solve() waits for it forever
+            return new Result(job.index, null, null, null, t);
+        }
+    }
+
+    /**
+     * A model to solve, either in memory or in a file HiGHS can read.
+     */
+    public static final class Job {
+        private final LpModel model;
+        private final Path file;
+        private final int index;
+
+        private Job(LpModel model, Path file, int index) {
+            this.model = model;
+            this.file = file;
+            this.index = index;
+        }
+
+        public static Job of(LpModel model) {
+            if (model == null) {
+                throw new IllegalArgumentException("Model cannot be null");
+            }
+            return new Job(model, null, -1);
+        }
+
+        public static Job ofFile(Path file) {
+            if (file == null) {
+                throw new IllegalArgumentException("File cannot be null");
+            }
+            return new Job(null, file, -1);
+        }
+
+        private Job withIndex(int index) {
+            return new Job(model, file, index);
+        }
+    }
+
+    public static final class Result {
+        private final int index;
+        private final HighsStatus status;
+        private final ModelStatus modelStatus;
+        private final Solution solution;
+        private final Throwable error;
+
+        private Result(int index, HighsStatus status, ModelStatus modelStatus, Solution solution, Throwable error) {
+            this.index = index;
+            this.status = status;
+            this.modelStatus = modelStatus;
+            this.solution = solution;
+            this.error = error;
+        }
+
+        /**
+         * Position of the job in the submitted list.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public HighsStatus getStatus() {
+            return status;
+        }
+
+        public ModelStatus getModelStatus() {
+            return modelStatus;
+        }
+
+        /**
+         * Returns the solution, or {@code null} if the job failed before solving.
+         */
+        public Solution getSolution() {
+            return solution;
+        }
+
+        public double getObjectiveValue() {
+            return solution != null ? solution.getObjectiveValue() : Double.NaN;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+    }
+}
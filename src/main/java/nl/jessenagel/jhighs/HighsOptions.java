@@ -0,0 +1,184 @@
+package nl.jessenagel.jhighs;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable set of HiGHS options that {@link HiGHS#setOptions(HighsOptions)} applies in one native
+ * call. Option names are encoded once when the set is built, so re-applying the same options to a
+ * pooled solver for every job costs no per-option string conversion.
+ *
+ * <pre>{@code
+ * HighsOptions options = HighsOptions.builder()
+ *         .threads(1)
+ *         .timeLimit(30.0)
+ *         .mipRelGap(1e-4)
+ *         .presolve("on")
+ *         .build();
+ * solver.setOptions(options);
+ * }</pre>
+ */
+public class HighsOptions {
+    static final int TYPE_BOOL = 0;
+    static final int TYPE_INT = 1;
+    static final int TYPE_DOUBLE = 2;
+    static final int TYPE_STRING = 3;
+
+    // Option names as NUL-terminated UTF-8 strings, back to back
+    private final byte[] names;
+    private final int[] types;
+    private final double[] values;
+    private final String[] stringValues;
+
+    private HighsOptions(Map<String, Object> entries) {
+        int count = entries.size();
+        ByteArrayOutputStream encodedNames = new ByteArrayOutputStream();
+        this.types = new int[count];
+        this.values = new double[count];
+        this.stringValues = new String[count];
+        int i = 0;
+        for (Map.Entry<String, Object> entry : entries.entrySet()) {
+            encodedNames.writeBytes(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            encodedNames.write(0);
+            Object value = entry.getValue();
+            if (value instanceof Boolean b) {
+                types[i] = TYPE_BOOL;
+                values[i] = b ? 1.0 : 0.0;
+            } else if (value instanceof Integer n) {
+                types[i] = TYPE_INT;
+                values[i] = n;
+            } else if (value instanceof Double d) {
+                types[i] = TYPE_DOUBLE;
+                values[i] = d;
+            } else {
+                types[i] = TYPE_STRING;
+                stringValues[i] = (String) value;
+            }
+            i++;
+        }
+        this.names = encodedNames.toByteArray();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return types.length;
+    }
+
+    byte[] names() {
+        return names;
+    }
+
+    int[] types() {
+        return types;
+    }
+
+    double[] values() {
+        return values;
+    }
+
+    String[] stringValues() {
+        return stringValues;
+    }
+
+    public static class Builder {
+        private final Map<String, Object> entries = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Copies every option of {@code options} into this builder.
+         */
+        public Builder setAll(HighsOptions options) {
+            String[] decodedNames = new String(options.names, StandardCharsets.UTF_8).split("\0");
+            for (int i = 0; i < options.size(); i++) {
+                double value = options.values[i];
+                switch (options.types[i]) {
+                    case TYPE_BOOL -> put(decodedNames[i], value != 0.0);
+                    case TYPE_INT -> put(decodedNames[i], (int) value);
+                    case TYPE_DOUBLE -> put(decodedNames[i], value);
+                    default -> put(decodedNames[i], options.stringValues[i]);
+                }
+            }
+            return this;
+        }
+
+        public Builder set(String name, boolean value) {
+            return put(name, value);
+        }
+
+        public Builder set(String name, int value) {
+            return put(name, value);
+        }
+
+        public Builder set(String name, double value) {
+            return put(name, value);
+        }
+
+        public Builder set(String name, String value) {
+            if (value == null) {
+                throw new IllegalArgumentException("Option value cannot be null");
+            }
+            return put(name, value);
+        }
+
+        /**
+         * Number of HiGHS worker threads. HiGHS sizes its global scheduler on the first solve in
+         * the process, so later changes only take effect in a fresh process.
+         */
+        public Builder threads(int threads) {
+            return set("threads", threads);
+        }
+
+        /**
+         * Parallel mode: "off", "choose" or "on".
+         */
+        public Builder parallel(String parallel) {
+            return set("parallel", parallel);
+        }
+
+        public Builder simplexStrategy(int strategy) {
+            return set("simplex_strategy", strategy);
+        }
+
+        public Builder timeLimit(double seconds) {
+            return set("time_limit", seconds);
+        }
+
+        public Builder mipRelGap(double gap) {
+            return set("mip_rel_gap", gap);
+        }
+
+        /**
+         * Presolve mode: "off", "choose" or "on".
+         */
+        public Builder presolve(String presolve) {
+            return set("presolve", presolve);
+        }
+
+        public Builder randomSeed(int seed) {
+            return set("random_seed", seed);
+        }
+
+        public Builder outputFlag(boolean outputFlag) {
+            return set("output_flag", outputFlag);
+        }
+
+        public HighsOptions build() {
+            return new HighsOptions(entries);
+        }
+
+        private Builder put(String name, Object value) {
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("Option name cannot be empty");
+            }
+            entries.put(name, value);
+            return this;
+        }
+    }
+}
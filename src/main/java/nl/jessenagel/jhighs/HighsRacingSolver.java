@@ -0,0 +1,396 @@
+package nl.jessenagel.jhighs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Solves one MIP with several differently configured {@link HiGHS} instances at the same time and
+ * keeps the first answer. MIP solve times vary strongly with the random seed and search strategy,
+ * so racing a few configurations cuts the tail latency that a single solve with internal threads
+ * cannot.
+ *
+ * <p>Every racer gets its own copy of the model and its own {@code random_seed}; with the default
+ * configurations the racers also cycle through different presolve and heuristic settings. The race
+ * ends as soon as one racer finishes with an answer, e.g. by proving optimality or infeasibility or
+ * by reaching a limit, or
+ * when the best incumbent of any racer together with the best dual bound of any racer closes the
+ * {@code mip_rel_gap} target. The remaining racers are then interrupted, and the result carries the
+ * best incumbent found by any of them.
+ *
+ * <pre>{@code
+ * try (HighsRacingSolver race = new HighsRacingSolver(4, options)) {
+ *     HighsRacingSolver.Result result = race.solve(model);
+ *     double[] x = result.getSolution().getVariableValues();
+ * }
+ * }</pre>
+ */
+public class HighsRacingSolver implements AutoCloseable {
+    private final HiGHS[] racers;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    // Race in progress; read by the listeners on the solving threads
+    private volatile Race currentRace;
+
+    /**
+     * @param options options applied to every racer, or {@code null}; {@code random_seed} and
+     *                {@code threads} are always overridden, the latter so that racers times HiGHS
+     *                threads does not exceed the number of available processors
+     */
+    public HighsRacingSolver(int racers, HighsOptions options) {
+        this(defaultConfigurations(racers, options), null);
+    }
+
+    /**
+     * @param racerOptions the complete options of every racer, one entry per racer
+     * @param executor     runs the racers and must be able to run all of them at once; {@code null}
+     *                     creates a pool of daemon threads owned by this solver
+     */
+    public HighsRacingSolver(List<HighsOptions> racerOptions, Executor executor) {
+        if (racerOptions.isEmpty()) {
+            throw new IllegalArgumentException("At least one racer is required");
+        }
+        this.racers = new HiGHS[racerOptions.size()];
+        try {
+            for (int i = 0; i < racers.length; i++) {
+                racers[i] = new HiGHS();
+                if (racers[i].setOptions(racerOptions.get(i)) == HighsStatus.kError) {
+                    throw new IllegalArgumentException("Invalid options for racer " + i);
+                }
+                int racer = i;
+                racers[i].setSolveListener(event -> onEvent(racer, event),
+                        CallbackType.kMipImprovingSolution, CallbackType.kMipInterrupt);
+            }
+        } catch (RuntimeException e) {
+            closeRacers();
+            throw e;
+        }
+        if (executor == null) {
+            this.ownedExecutor = Executors.newFixedThreadPool(racers.length, runnable -> {
+                Thread thread = new Thread(runnable, "jhighs-race");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor = ownedExecutor;
+        } else {
+            this.ownedExecutor = null;
+            this.executor = executor;
+        }
+    }
+
+    /**
+     * Options for {@code racers} racers: {@code options} plus, per racer, its index as random seed
+     * and one of four search configurations in turn (defaults, more primal heuristics, no
+     * symmetry detection, no presolve). Every racer gets an equal share of the available processors
+     * as {@code threads}, at least one.
+     */
+    public static List<HighsOptions> defaultConfigurations(int racers, HighsOptions options) {
+        if (racers <= 0) {
+            throw new IllegalArgumentException("Racer count must be positive");
+        }
+        // HiGHS starts a task scheduler per calling thread, so the cores are split across racers
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / racers);
+        List<HighsOptions> configurations = new ArrayList<>(racers);
+        for (int i = 0; i < racers; i++) {
+            HighsOptions.Builder builder = HighsOptions.builder();
+            switch (i % 4) {
+                case 1 -> builder.set("mip_heuristic_effort", 0.3);
+                case 2 -> builder.set("mip_detect_symmetry", false);
+                case 3 -> builder.presolve("off");
+                default -> {
+                }
+            }
+            if (options != null) {
+                builder.setAll(options);
+            }
+            configurations.add(builder.randomSeed(i).threads(threads).build());
+        }
+        return configurations;
+    }
+
+    public int getRacers() {
+        return racers.length;
+    }
+
+    /**
+     * Races the racers on {@code model} and blocks until the race is decided and every racer has
+     * stopped.
+     */
+    public Result solve(LpModel model) throws InterruptedException {
+        long start = System.nanoTime();
+        for (HiGHS racer : racers) {
+            HighsStatus status = racer.loadModel(model);
+            if (status == HighsStatus.kError) {
+                return new Result(status, ModelStatus.kLoadError, null, Double.NaN, -1, -1, System.nanoTime() - start);
+            }
+        }
+        Race race = new Race(model.isMinimize(), racers[0].getDoubleParameter("mip_rel_gap"));
+        currentRace = race;
+
+        List<CompletableFuture<SolveResult>> futures = new ArrayList<>(racers.length);
+        for (int i = 0; i < racers.length; i++) {
+            int racer = i;
+            // The returned stage completes only after the action, so the winner is known when all are done
+            futures.add(racers[i].solveAsync(executor).whenComplete((result, error) -> {
+                // Only a racer that stops with an answer decides the race, not one that failed
+                if (result != null && isConclusive(result)) {
+                    stop(race, racer, false);
+                }
+            }));
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+        try {
+            all.get();
+        } catch (ExecutionException e) {
+            // Failed racers are skipped below; the race is decided by the others
+        } catch (InterruptedException e) {
+            stop(race, -1, false);
+            all.exceptionally(t -> null).join();
+            throw e;
+        } finally {
+            currentRace = null;
+        }
+        return collect(race, futures, System.nanoTime() - start);
+    }
+
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+        closeRacers();
+    }
+
+    private void onEvent(int racer, SolveEvent event) {
+        Race race = currentRace;
+        if (race == null) return;
+        // Also stops a racer that started after the race was decided, whose solve cleared the interrupt
+        if (race.isDecided()) {
+            event.interrupt();
+        } else if (race.offer(event.getMipPrimalBound(), event.getMipDualBound())) {
+            stop(race, racer, true);
+        }
+    }
+
+    // Decides the race, unless it already is, and interrupts the racers that are still running
+    private void stop(Race race, int winner, boolean provenByGap) {
+        if (!race.decide(winner, provenByGap)) {
+            return;
+        }
+        for (int i = 0; i < racers.length; i++) {
+            if (i != winner || provenByGap) {
+                racers[i].interrupt();
+            }
+        }
+    }
+
+    private Result collect(Race race, List<CompletableFuture<SolveResult>> futures, long wallTimeNanos) {
+        // Best incumbent over all racers that did not fail; failed racers are treated as absent
+        int best = -1;
+        Solution bestSolution = null;
+        HighsStatus bestStatus = HighsStatus.kError;
+        ModelStatus bestModelStatus = ModelStatus.kSolveError;
+        for (int i = 0; i < racers.length; i++) {
+            if (futures.get(i).isCompletedExceptionally()) continue;
+            SolveResult outcome = futures.get(i).join();
+            if (isFailed(outcome)) {
+                if (best < 0) {
+                    // Reported when no racer produced anything better
+                    bestStatus = outcome.getStatus();
+                    bestModelStatus = outcome.getModelStatus();
+                }
+                continue;
+            }
+            Solution solution = racers[i].getSolution();
+            if (!solution.isPrimalValid()) continue;
+            if (bestSolution == null || race.isBetter(solution.getObjectiveValue(), bestSolution.getObjectiveValue())) {
+                SolveResult result = futures.get(i).join();
+                best = i;
+                bestSolution = solution;
+                bestStatus = result.getStatus();
+                bestModelStatus = result.getModelStatus();
+            }
+        }
+
+        int winner = race.getWinner();
+        if (race.isProvenByGap()) {
+            return new Result(HighsStatus.kOk, ModelStatus.kOptimal, bestSolution, race.getDualBound(), winner, best,
+                    wallTimeNanos);
+        }
+        if (winner >= 0) {
+            SolveResult decided = futures.get(winner).join();
+            // Without an optimal winner, e.g. infeasible or at a limit, the winner's own answer stands
+            if (best < 0 || decided.getModelStatus() != ModelStatus.kOptimal) {
+                best = winner;
+                bestSolution = racers[winner].getSolution();
+            }
+            return new Result(decided.getStatus(), decided.getModelStatus(), bestSolution, race.getDualBound(),
+                    winner, best, wallTimeNanos);
+        }
+        return new Result(bestStatus, bestModelStatus, bestSolution, race.getDualBound(), -1, best, wallTimeNanos);
+    }
+
+    private static boolean isFailed(SolveResult result) {
+        return result.getStatus() == HighsStatus.kError || switch (result.getModelStatus()) {
+            case kNotset, kLoadError, kModelError, kPresolveError, kSolveError, kPostsolveError,
+                 kMemoryLimit -> true;
+            default -> false;
+        };
+    }
+
+    // Proven optimal, infeasible or unbounded, or stopped at a limit every racer shares
+    private static boolean isConclusive(SolveResult result) {
+        return !isFailed(result) && switch (result.getModelStatus()) {
+            case kModelEmpty, kOptimal, kInfeasible, kUnboundedOrInfeasible, kUnbounded, kObjectiveBound,
+                 kObjectiveTarget, kTimeLimit, kIterationLimit, kSolutionLimit -> true;
+            default -> false;
+        };
+    }
+
+    private void closeRacers() {
+        for (HiGHS racer : racers) {
+            if (racer != null) {
+                racer.close();
+            }
+        }
+    }
+
+    /**
+     * Bounds shared by the racers of one {@link #solve(LpModel)}.
+     */
+    private static final class Race {
+        final boolean minimize;
+        final double gapTarget;
+        private volatile boolean decided;
+        private int winner = -1;
+        private boolean provenByGap;
+        private double primalBound;
+        private double dualBound;
+
+        Race(boolean minimize, double gapTarget) {
+            this.minimize = minimize;
+            this.gapTarget = gapTarget;
+            this.primalBound = minimize ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+            this.dualBound = minimize ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Merges one racer's bounds into the race bounds and returns whether they now close the
+         * gap target.
+         */
+        synchronized boolean offer(double primal, double dual) {
+            if (isBetter(primal, primalBound)) primalBound = primal;
+            if (minimize ? dual > dualBound : dual < dualBound) dualBound = dual;
+            if (Double.isInfinite(primalBound) || Double.isInfinite(dualBound)) {
+                return false;
+            }
+            double gap = primalBound == dualBound ? 0.0 : Math.abs(primalBound - dualBound) / Math.abs(primalBound);
+            return gap <= gapTarget;
+        }
+
+        /**
+         * Records how the race ended; returns false if it already had.
+         */
+        synchronized boolean decide(int winner, boolean provenByGap) {
+            if (decided) return false;
+            this.winner = winner;
+            this.provenByGap = provenByGap;
+            decided = true;
+            return true;
+        }
+
+        boolean isDecided() {
+            return decided;
+        }
+
+        synchronized int getWinner() {
+            return winner;
+        }
+
+        synchronized boolean isProvenByGap() {
+            return provenByGap;
+        }
+
+        boolean isBetter(double objective, double than) {
+            return minimize ? objective < than : objective > than;
+        }
+
+        synchronized double getDualBound() {
+            return dualBound;
+        }
+    }
+
+    public static final class Result {
+        private final HighsStatus status;
+        private final ModelStatus modelStatus;
+        private final Solution solution;
+        private final double dualBound;
+        private final int winner;
+        private final int bestRacer;
+        private final long wallTimeNanos;
+
+        private Result(HighsStatus status, ModelStatus modelStatus, Solution solution, double dualBound,
+                       int winner, int bestRacer, long wallTimeNanos) {
+            this.status = status;
+            this.modelStatus = modelStatus;
+            this.solution = solution;
+            this.dualBound = dualBound;
+            this.winner = winner;
+            this.bestRacer = bestRacer;
+            this.wallTimeNanos = wallTimeNanos;
+        }
+
+        public HighsStatus getStatus() {
+            return status;
+        }
+
+        /**
+         * Returns the model status of the racer that decided the race, or {@link ModelStatus#kOptimal}
+         * when the racers' shared bounds closed the gap.
+         */
+        public ModelStatus getModelStatus() {
+            return modelStatus;
+        }
+
+        /**
+         * Returns the best incumbent of all racers, or {@code null} if no racer produced a result.
+         */
+        public Solution getSolution() {
+            return solution;
+        }
+
+        public double getObjectiveValue() {
+            return solution != null ? solution.getObjectiveValue() : Double.NaN;
+        }
+
+        /**
+         * Returns the best dual bound reported by any racer during the MIP search.
+         */
+        public double getDualBound() {
+            return dualBound;
+        }
+
+        /**
+         * Index of the racer that decided the race, or -1 if none did, e.g. because every racer
+         * failed.
+         */
+        public int getWinner() {
+            return winner;
+        }
+
+        /**
+         * Index of the racer whose solution is returned.
+         */
+        public int getBestRacer() {
+            return bestRacer;
+        }
+
+        public long getWallTimeNanos() {
+            return wallTimeNanos;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package nl.jessenagel.jhighs;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded pool of {@link HiGHS} instances for serving many small solves without paying native
+ * construction and teardown per request. Instances are reset when they are released: the model
+ * and solver state are cleared, options are restored (to the pool's default options if given) and
+ * the optional base model template is loaded again, so every checkout starts from the same state.
+ *
+ * <pre>{@code
+ * try (HighsSolverPool pool = new HighsSolverPool(8, baseModel, options)) {
+ *     double objective = pool.withSolver(solver -> {
+ *         solver.changeVarsBounds(lower, upper, ...);
+ *         solver.solve();
+ *         return solver.getObjectiveValue();
+ *     });
+ * }
+ * }</pre>
+ */
+public class HighsSolverPool implements AutoCloseable {
+    private final int maxSize;
+    private final LpModel template;
+    private final HighsOptions options;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<HiGHS> idle = new ConcurrentLinkedDeque<>();
+    private final Set<HiGHS> checkedOut = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger liveInstances = new AtomicInteger();
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private volatile boolean closed = false;
+
+    public HighsSolverPool(int maxSize) {
+        this(maxSize, null, null);
+    }
+
+    /**
+     * @param template base model loaded into every instance handed out, or {@code null}
+     * @param options  options applied to every instance handed out, or {@code null} for defaults
+     */
+    public HighsSolverPool(int maxSize, LpModel template, HighsOptions options) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.template = template;
+        this.options = options;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Checks out a solver, waiting until one is available.
+     */
+    public HiGHS acquire() throws InterruptedException {
+        long start = System.nanoTime();
+        permits.acquire();
+        return checkout(start);
+    }
+
+    /**
+     * Checks out a solver, waiting at most {@code timeout}; returns {@code null} on timeout.
+     */
+    public HiGHS acquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long start = System.nanoTime();
+        if (!permits.tryAcquire(timeout, unit)) {
+            totalWaitNanos.add(System.nanoTime() - start);
+            return null;
+        }
+        return checkout(start);
+    }
+
+    /**
+     * Returns a solver obtained from {@link #acquire()} to the pool.
+     */
+    public void release(HiGHS solver) {
+        if (solver == null || !checkedOut.remove(solver)) {
+            throw new IllegalArgumentException("Solver was not checked out from this pool");
+        }
+        try {
+            if (!closed && reset(solver)) {
+                idle.push(solver);
+            } else {
+                discard(solver);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Runs {@code task} with a checked-out solver and always returns the solver to the pool.
+     */
+    public <T> T withSolver(Function<HiGHS, T> task) throws InterruptedException {
+        HiGHS solver = acquire();
+        try {
+            return task.apply(solver);
+        } finally {
+            release(solver);
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Number of native solver instances currently owned by the pool, idle or checked out.
+     */
+    public int getLiveInstances() {
+        return liveInstances.get();
+    }
+
+    public int getIdleInstances() {
+        return idle.size();
+    }
+
+    public long getCheckouts() {
+        return checkouts.sum();
+    }
+
+    /**
+     * Total time callers spent waiting for a free solver, in nanoseconds.
+     */
+    public long getTotalWaitNanos() {
+        return totalWaitNanos.sum();
+    }
+
+    /**
+     * Disposes all idle solvers; solvers still checked out are disposed when released.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        HiGHS solver;
+        while ((solver = idle.poll()) != null) {
+            discard(solver);
+        }
+    }
+
+    private HiGHS checkout(long start) {
+        totalWaitNanos.add(System.nanoTime() - start);
+        try {
+            if (closed) {
+                throw new IllegalStateException("Pool is closed");
+            }
+            HiGHS solver = idle.poll();
+            if (solver == null) {
+                solver = create();
+            }
+            checkedOut.add(solver);
+            checkouts.increment();
+            return solver;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private HiGHS create() {
+        HiGHS solver = new HiGHS();
+        liveInstances.incrementAndGet();
+        if (!configure(solver)) {
+            discard(solver);
+            throw new IllegalStateException("Failed to load the pool template into a new solver");
+        }
+        return solver;
+    }
+
+    private boolean reset(HiGHS solver) {
+        try {
+            solver.setSolveListener(null);
+            // clearModel drops pending buffered edits, so turning the mode off applies nothing
+            return solver.clearModel() != HighsStatus.kError
+                    && solver.setBufferedEdits(false) != HighsStatus.kError
+                    && solver.resetOptions() != HighsStatus.kError
+                    && configure(solver);
+        } catch (IllegalStateException e) {
+            // Disposed by the caller
+            return false;
+        }
+    }
+
+    private boolean configure(HiGHS solver) {
+        if (options != null && solver.setOptions(options) == HighsStatus.kError) {
+            return false;
+        }
+        return template == null || solver.loadModel(template) != HighsStatus.kError;
+    }
+
+    private void discard(HiGHS solver) {
+        solver.dispose();
+        liveInstances.decrementAndGet();
+    }
+}
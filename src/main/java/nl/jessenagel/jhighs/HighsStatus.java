@@ -12,10 +12,24 @@ public enum HighsStatus {
         this.value = value;
     }
 
+    // Called after every native call, so avoid the array copy made by values()
     public static HighsStatus fromInt(int value) {
-        for (HighsStatus status : values()) {
-            if (status.value == value) return status;
+        switch (value) {
+            case 0: return kOk;
+            case 1: return kWarning;
+            case -1: return kError;
+            default: throw new IllegalArgumentException("Unknown status: " + value);
         }
-        throw new IllegalArgumentException("Unknown status: " + value);
+    }
+
+    // The more severe of two statuses: error over warning over ok
+    static HighsStatus worse(HighsStatus a, HighsStatus b) {
+        if (a == kError || b == kError) return kError;
+        if (a == kWarning || b == kWarning) return kWarning;
+        return kOk;
+    }
+
+    public int getValue() {
+        return value;
     }
 }
@@ -0,0 +1,133 @@
+package nl.jessenagel.jhighs;
+
+import java.util.Arrays;
+
+/**
+ * Linear expression {@code sum(coefficient * column) + constant} backed by growable primitive
+ * arrays. Terms are appended as given, so the same column may occur more than once;
+ * {@link Model} merges duplicates when the expression is used in a constraint or objective.
+ * An expression can be {@link #clear() cleared} and reused for the next row, so building a large
+ * model does not allocate per row.
+ */
+public class LinExpr {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] indices;
+    private double[] coefficients;
+    private int size;
+    private double constant;
+
+    public LinExpr() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public LinExpr(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        this.indices = new int[capacity];
+        this.coefficients = new double[capacity];
+    }
+
+    public LinExpr addTerm(double coefficient, Var var) {
+        return addTerm(coefficient, var.getIndex());
+    }
+
+    public LinExpr addTerm(double coefficient, int colIndex) {
+        if (colIndex < 0) {
+            throw new IllegalArgumentException("Column index cannot be negative");
+        }
+        ensureCapacity(size + 1);
+        indices[size] = colIndex;
+        coefficients[size] = coefficient;
+        size++;
+        return this;
+    }
+
+    public LinExpr addTerms(double[] coefficients, Var[] vars) {
+        if (coefficients.length != vars.length) {
+            throw new IllegalArgumentException("Coefficient and variable arrays must have the same length");
+        }
+        ensureCapacity(size + vars.length);
+        for (int i = 0; i < vars.length; i++) {
+            addTerm(coefficients[i], vars[i]);
+        }
+        return this;
+    }
+
+    public LinExpr add(LinExpr other) {
+        return add(other, 1.0);
+    }
+
+    /**
+     * Appends {@code multiplier * other}, including its constant.
+     */
+    public LinExpr add(LinExpr other, double multiplier) {
+        ensureCapacity(size + other.size);
+        for (int i = 0; i < other.size; i++) {
+            indices[size + i] = other.indices[i];
+            coefficients[size + i] = multiplier * other.coefficients[i];
+        }
+        size += other.size;
+        constant += multiplier * other.constant;
+        return this;
+    }
+
+    public LinExpr addConstant(double value) {
+        constant += value;
+        return this;
+    }
+
+    /**
+     * Removes every term and the constant but keeps the allocated capacity.
+     */
+    public LinExpr clear() {
+        size = 0;
+        constant = 0.0;
+        return this;
+    }
+
+    /**
+     * Number of terms, counting duplicate columns separately.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getIndex(int term) {
+        checkTerm(term);
+        return indices[term];
+    }
+
+    public double getCoefficient(int term) {
+        checkTerm(term);
+        return coefficients[term];
+    }
+
+    public double getConstant() {
+        return constant;
+    }
+
+    // Raw access for Model, which reads the first size() entries without bounds checks per term
+    int[] indices() {
+        return indices;
+    }
+
+    double[] coefficients() {
+        return coefficients;
+    }
+
+    private void checkTerm(int term) {
+        if (term < 0 || term >= size) {
+            throw new IndexOutOfBoundsException("Term " + term + " out of range for size " + size);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > indices.length) {
+            int newCapacity = Math.max(capacity, Math.max(INITIAL_CAPACITY, indices.length * 2));
+            indices = Arrays.copyOf(indices, newCapacity);
+            coefficients = Arrays.copyOf(coefficients, newCapacity);
+        }
+    }
+}
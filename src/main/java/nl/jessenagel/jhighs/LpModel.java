@@ -0,0 +1,163 @@
+package nl.jessenagel.jhighs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * In-memory LP/MIP in the layout {@link HiGHS#loadModel(LpModel)} passes to HiGHS: column costs
+ * and bounds, row bounds and a compressed sparse constraint matrix. The arrays are validated once
+ * and then shared, not copied, so a model can be loaded into many solvers cheaply; they must not
+ * be modified afterwards.
+ */
+public class LpModel {
+    private final int numCol;
+    private final int numRow;
+    private final MatrixFormat format;
+    private final int[] starts;
+    private final int[] indices;
+    private final double[] values;
+    private final double[] colCosts;
+    private final double[] colLower;
+    private final double[] colUpper;
+    private final double[] rowLower;
+    private final double[] rowUpper;
+    private final boolean minimize;
+    private final double offset;
+    private final byte[] integrality;
+
+    /**
+     * @param integrality {@link VarType} value per column, or {@code null} for an LP
+     */
+    public LpModel(int numCol, int numRow, MatrixFormat format,
+                   int[] starts, int[] indices, double[] values,
+                   double[] colCosts, double[] colLower, double[] colUpper,
+                   double[] rowLower, double[] rowUpper,
+                   boolean minimize, double offset, byte[] integrality) {
+        if (format == null) {
+            throw new IllegalArgumentException("Matrix format cannot be null");
+        }
+        if (colCosts.length != numCol || colLower.length != numCol || colUpper.length != numCol
+                || (integrality != null && integrality.length != numCol)) {
+            throw new IllegalArgumentException("Column array lengths must match column count");
+        }
+        if (rowLower.length != numRow || rowUpper.length != numRow) {
+            throw new IllegalArgumentException("Row array lengths must match row count");
+        }
+        HiGHS.checkSparseMatrix(format == MatrixFormat.kColwise ? numCol : numRow, starts, indices, values);
+        if (integrality != null) {
+            for (byte type : integrality) {
+                VarType.fromInt(type);
+            }
+        }
+        this.numCol = numCol;
+        this.numRow = numRow;
+        this.format = format;
+        this.starts = starts;
+        this.indices = indices;
+        this.values = values;
+        this.colCosts = colCosts;
+        this.colLower = colLower;
+        this.colUpper = colUpper;
+        this.rowLower = rowLower;
+        this.rowUpper = rowUpper;
+        this.minimize = minimize;
+        this.offset = offset;
+        this.integrality = integrality;
+    }
+
+    public int getNumCol() {
+        return numCol;
+    }
+
+    public int getNumRow() {
+        return numRow;
+    }
+
+    public int getNumNz() {
+        return indices.length;
+    }
+
+    public MatrixFormat getFormat() {
+        return format;
+    }
+
+    public int[] getStarts() {
+        return starts;
+    }
+
+    public int[] getIndices() {
+        return indices;
+    }
+
+    public double[] getValues() {
+        return values;
+    }
+
+    public double[] getColCosts() {
+        return colCosts;
+    }
+
+    public double[] getColLower() {
+        return colLower;
+    }
+
+    public double[] getColUpper() {
+        return colUpper;
+    }
+
+    public double[] getRowLower() {
+        return rowLower;
+    }
+
+    public double[] getRowUpper() {
+        return rowUpper;
+    }
+
+    public boolean isMinimize() {
+        return minimize;
+    }
+
+    public double getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the {@link VarType} value of every column, or {@code null} if all are continuous.
+     */
+    public byte[] getIntegrality() {
+        return integrality;
+    }
+
+    public boolean isMip() {
+        if (integrality == null) return false;
+        for (byte type : integrality) {
+            if (type != VarType.kContinuous.getValue()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Encodes this model in the compact binary format read by {@link #fromByteArray(byte[])}.
+     * Values are stored bit for bit, so decoding gives back exactly the same model.
+     */
+    public byte[] toByteArray() {
+        return LpModelCodec.encode(this);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        LpModelCodec.write(this, out);
+    }
+
+    public static LpModel fromByteArray(byte[] data) throws IOException {
+        return LpModelCodec.decode(data);
+    }
+
+    /**
+     * Reads one model written by {@link #writeTo(OutputStream)}, leaving {@code in} positioned
+     * after it so several models can be read from one stream.
+     */
+    public static LpModel readFrom(InputStream in) throws IOException {
+        return LpModelCodec.read(in);
+    }
+}
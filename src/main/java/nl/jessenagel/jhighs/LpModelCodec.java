@@ -0,0 +1,187 @@
+package nl.jessenagel.jhighs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Compact binary encoding of an {@link LpModel}. The layout is a fixed 32 byte header followed by
+ * the model arrays in native-independent little-endian order, copied in bulk; doubles are stored
+ * as raw bits so a model round-trips exactly.
+ *
+ * <pre>
+ * int magic 'JHLP', int version, int numCol, int numRow, int numNz,
+ * byte format, byte minimize, byte hasIntegrality, byte reserved, double offset,
+ * double[numCol] colCosts, colLower, colUpper, double[numRow] rowLower, rowUpper,
+ * int[numMajor + 1] starts, int[numNz] indices, double[numNz] values, byte[numCol] integrality
+ * </pre>
+ */
+final class LpModelCodec {
+    private static final int MAGIC = 0x4A484C50;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private LpModelCodec() {
+    }
+
+    static byte[] encode(LpModel model) {
+        int numCol = model.getNumCol();
+        int numRow = model.getNumRow();
+        int numNz = model.getNumNz();
+        int numMajor = model.getFormat() == MatrixFormat.kColwise ? numCol : numRow;
+        byte[] integrality = model.getIntegrality();
+        long size = HEADER_BYTES + bodyBytes(numCol, numRow, numNz, numMajor, integrality != null);
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Model too large to encode in a single array");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(numCol).putInt(numRow).putInt(numNz);
+        buffer.put((byte) model.getFormat().getValue());
+        buffer.put((byte) (model.isMinimize() ? 1 : 0));
+        buffer.put((byte) (integrality != null ? 1 : 0));
+        buffer.put((byte) 0);
+        buffer.putDouble(model.getOffset());
+        putDoubles(buffer, model.getColCosts());
+        putDoubles(buffer, model.getColLower());
+        putDoubles(buffer, model.getColUpper());
+        putDoubles(buffer, model.getRowLower());
+        putDoubles(buffer, model.getRowUpper());
+        int[] starts = model.getStarts();
+        putInts(buffer, starts, starts.length);
+        if (starts.length == numMajor) {
+            // The end sentinel is optional in LpModel but always stored
+            buffer.putInt(numNz);
+        }
+        putInts(buffer, model.getIndices(), numNz);
+        putDoubles(buffer, model.getValues(), numNz);
+        if (integrality != null) {
+            buffer.put(integrality);
+        }
+        return buffer.array();
+    }
+
+    static void write(LpModel model, OutputStream out) throws IOException {
+        out.write(encode(model));
+    }
+
+    static LpModel decode(byte[] data) throws IOException {
+        if (data.length < HEADER_BYTES) {
+            throw new IOException("Truncated model data");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        return decode(buffer, data.length - HEADER_BYTES);
+    }
+
+    static LpModel read(InputStream in) throws IOException {
+        byte[] header = in.readNBytes(HEADER_BYTES);
+        if (header.length < HEADER_BYTES) {
+            throw new IOException("Truncated model data");
+        }
+        ByteBuffer headerBuffer = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
+        long bodyBytes = checkHeader(headerBuffer);
+        byte[] data = new byte[HEADER_BYTES + (int) bodyBytes];
+        System.arraycopy(header, 0, data, 0, HEADER_BYTES);
+        if (in.readNBytes(data, HEADER_BYTES, (int) bodyBytes) < bodyBytes) {
+            throw new IOException("Truncated model data");
+        }
+        return decode(ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN), bodyBytes);
+    }
+
+    private static LpModel decode(ByteBuffer buffer, long available) throws IOException {
+        long bodyBytes = checkHeader(buffer);
+        if (available < bodyBytes) {
+            throw new IOException("Truncated model data");
+        }
+        buffer.position(8);
+        int numCol = buffer.getInt();
+        int numRow = buffer.getInt();
+        int numNz = buffer.getInt();
+        MatrixFormat format = MatrixFormat.fromInt(buffer.get());
+        boolean minimize = buffer.get() != 0;
+        boolean hasIntegrality = buffer.get() != 0;
+        buffer.get();
+        double offset = buffer.getDouble();
+        int numMajor = format == MatrixFormat.kColwise ? numCol : numRow;
+
+        double[] colCosts = getDoubles(buffer, numCol);
+        double[] colLower = getDoubles(buffer, numCol);
+        double[] colUpper = getDoubles(buffer, numCol);
+        double[] rowLower = getDoubles(buffer, numRow);
+        double[] rowUpper = getDoubles(buffer, numRow);
+        int[] starts = getInts(buffer, numMajor + 1);
+        int[] indices = getInts(buffer, numNz);
+        double[] values = getDoubles(buffer, numNz);
+        byte[] integrality = null;
+        if (hasIntegrality) {
+            integrality = new byte[numCol];
+            buffer.get(integrality);
+        }
+        try {
+            return new LpModel(numCol, numRow, format, starts, indices, values, colCosts, colLower, colUpper,
+                    rowLower, rowUpper, minimize, offset, integrality);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid model data: " + e.getMessage(), e);
+        }
+    }
+
+    // Validates the header at the start of buffer and returns the size of the body that follows
+    private static long checkHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a jhighs binary model");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported binary model version " + buffer.getInt(4));
+        }
+        int numCol = buffer.getInt(8);
+        int numRow = buffer.getInt(12);
+        int numNz = buffer.getInt(16);
+        byte format = buffer.get(20);
+        if (numCol < 0 || numRow < 0 || numNz < 0
+                || (format != MatrixFormat.kColwise.getValue() && format != MatrixFormat.kRowwise.getValue())) {
+            throw new IOException("Invalid model header");
+        }
+        int numMajor = format == MatrixFormat.kColwise.getValue() ? numCol : numRow;
+        long bodyBytes = bodyBytes(numCol, numRow, numNz, numMajor, buffer.get(22) != 0);
+        if (bodyBytes > Integer.MAX_VALUE - 8 - HEADER_BYTES) {
+            throw new IOException("Model too large to decode");
+        }
+        return bodyBytes;
+    }
+
+    private static long bodyBytes(int numCol, int numRow, int numNz, int numMajor, boolean hasIntegrality) {
+        return 3L * numCol * Double.BYTES + 2L * numRow * Double.BYTES
+                + (numMajor + 1L) * Integer.BYTES + (long) numNz * (Integer.BYTES + Double.BYTES)
+                + (hasIntegrality ? numCol : 0);
+    }
+
+    private static void putDoubles(ByteBuffer buffer, double[] values) {
+        putDoubles(buffer, values, values.length);
+    }
+
+    private static void putDoubles(ByteBuffer buffer, double[] values, int length) {
+        buffer.asDoubleBuffer().put(values, 0, length);
+        buffer.position(buffer.position() + length * Double.BYTES);
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values, int length) {
+        buffer.asIntBuffer().put(values, 0, length);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+    }
+
+    private static double[] getDoubles(ByteBuffer buffer, int length) {
+        double[] values = new double[length];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + length * Double.BYTES);
+        return values;
+    }
+
+    private static int[] getInts(ByteBuffer buffer, int length) {
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        return values;
+    }
+}
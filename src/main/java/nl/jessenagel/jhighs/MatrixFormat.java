@@ -0,0 +1,23 @@
+package nl.jessenagel.jhighs;
+
+public enum MatrixFormat {
+    kColwise(1),
+    kRowwise(2);
+
+    private final int value;
+
+    MatrixFormat(int value) {
+        this.value = value;
+    }
+
+    public static MatrixFormat fromInt(int value) {
+        for (MatrixFormat format : values()) {
+            if (format.value == value) return format;
+        }
+        throw new IllegalArgumentException("Unknown matrix format: " + value);
+    }
+
+    public int getValue() {
+        return value;
+    }
+}
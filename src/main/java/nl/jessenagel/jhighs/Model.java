@@ -0,0 +1,387 @@
+package nl.jessenagel.jhighs;
+
+import java.util.Arrays;
+
+/**
+ * Builds a model from {@link Var}s and {@link LinExpr}s on top of a {@link HiGHS} solver.
+ * Variables and constraints are collected in growable primitive buffers, the constraints in
+ * compressed sparse row form, and are passed to the solver in bulk by {@link #flush()}, which
+ * {@link #solve()} calls first. Duplicate columns in a constraint are merged in place while the
+ * row is buffered, and terms that cancel out are dropped. Optional names are kept in an index for
+ * {@link #getVar(String)} and {@link #getConstr(String)}.
+ *
+ * <p>A model is not thread-safe.
+ */
+public class Model implements AutoCloseable {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final HiGHS solver;
+    private final boolean ownsSolver;
+
+    // Objective coefficient of every column; bounds and types only of columns not yet flushed
+    private int numVars;
+    private int flushedVars;
+    private double[] objective = new double[INITIAL_CAPACITY];
+    private double[] pendingLower = new double[INITIAL_CAPACITY];
+    private double[] pendingUpper = new double[INITIAL_CAPACITY];
+    private byte[] pendingTypes = new byte[INITIAL_CAPACITY];
+    private boolean pendingIntegral;
+    // Position of each column in the row being merged, -1 when it has no term there yet
+    private int[] position = newPositions(INITIAL_CAPACITY);
+
+    // Constraints not yet flushed, row-wise
+    private int numConstrs;
+    private int flushedConstrs;
+    private double[] rowLower = new double[INITIAL_CAPACITY];
+    private double[] rowUpper = new double[INITIAL_CAPACITY];
+    private int[] rowStarts = new int[INITIAL_CAPACITY + 1];
+    private int[] rowIndices = new int[INITIAL_CAPACITY];
+    private double[] rowValues = new double[INITIAL_CAPACITY];
+    private int numNz;
+
+    private boolean minimize = true;
+    private double objectiveOffset;
+    private boolean objectiveChanged;
+
+    private final NameIndex varNames = new NameIndex();
+    private final NameIndex constrNames = new NameIndex();
+
+    // Reused for every solution read, refreshed after each solve
+    private final Solution solution = new Solution();
+    private boolean solutionCurrent;
+
+    /**
+     * Creates a model with its own solver, which is closed together with the model.
+     */
+    public Model() {
+        this(new HiGHS(), true);
+    }
+
+    /**
+     * Creates a model on {@code solver}, which must be empty and is not closed by the model.
+     */
+    public Model(HiGHS solver) {
+        this(solver, false);
+    }
+
+    private Model(HiGHS solver, boolean ownsSolver) {
+        if (solver == null) {
+            throw new IllegalArgumentException("Solver cannot be null");
+        }
+        this.solver = solver;
+        this.ownsSolver = ownsSolver;
+    }
+
+    /**
+     * The underlying solver, e.g. to set options. Columns and rows added to it directly are not
+     * known to the model, so the model must be {@link #flush() flushed} first and not extended
+     * afterwards.
+     */
+    public HiGHS getSolver() {
+        return solver;
+    }
+
+    // ===== Variables =====
+    public Var addVar(double lowerBound, double upperBound) {
+        return addVar(lowerBound, upperBound, 0.0, VarType.kContinuous, null);
+    }
+
+    public Var addVar(double lowerBound, double upperBound, double cost, VarType type) {
+        return addVar(lowerBound, upperBound, cost, type, null);
+    }
+
+    /**
+     * Adds a column with objective coefficient {@code cost}. {@code name} may be {@code null};
+     * otherwise it must be unique among the variables of this model.
+     */
+    public Var addVar(double lowerBound, double upperBound, double cost, VarType type, String name) {
+        if (type == null) {
+            throw new IllegalArgumentException("Variable type cannot be null");
+        }
+        int col = numVars;
+        if (name != null) {
+            varNames.add(name, col);
+        }
+        int pending = col - flushedVars;
+        if (pending == pendingLower.length) {
+            int capacity = pending * 2;
+            pendingLower = Arrays.copyOf(pendingLower, capacity);
+            pendingUpper = Arrays.copyOf(pendingUpper, capacity);
+            pendingTypes = Arrays.copyOf(pendingTypes, capacity);
+        }
+        if (col == objective.length) {
+            objective = Arrays.copyOf(objective, col * 2);
+            // Every position is -1 between constraints, so nothing needs copying
+            position = newPositions(col * 2);
+        }
+        pendingLower[pending] = lowerBound;
+        pendingUpper[pending] = upperBound;
+        pendingTypes[pending] = (byte) type.getValue();
+        pendingIntegral |= type != VarType.kContinuous;
+        objective[col] = cost;
+        numVars++;
+        return new Var(this, col);
+    }
+
+    public int getNumVars() {
+        return numVars;
+    }
+
+    public Var getVar(int index) {
+        if (index < 0 || index >= numVars) {
+            throw new IndexOutOfBoundsException("Variable " + index + " out of range for " + numVars + " variables");
+        }
+        return new Var(this, index);
+    }
+
+    /**
+     * The variable named {@code name}, or {@code null}.
+     */
+    public Var getVar(String name) {
+        int index = varNames.get(name);
+        return index >= 0 ? new Var(this, index) : null;
+    }
+
+    // ===== Constraints =====
+    public Constr addLessEq(LinExpr expr, double rhs, String name) {
+        return addConstr(expr, Double.NEGATIVE_INFINITY, rhs, name);
+    }
+
+    public Constr addGreaterEq(LinExpr expr, double rhs, String name) {
+        return addConstr(expr, rhs, Double.POSITIVE_INFINITY, name);
+    }
+
+    public Constr addEq(LinExpr expr, double rhs, String name) {
+        return addConstr(expr, rhs, rhs, name);
+    }
+
+    public Constr addConstr(LinExpr expr, double lowerBound, double upperBound) {
+        return addConstr(expr, lowerBound, upperBound, null);
+    }
+
+    /**
+     * Adds the row {@code lowerBound <= expr <= upperBound}. The constant of {@code expr} is moved
+     * into the bounds, and its terms are copied, so {@code expr} can be cleared and reused for the
+     * next row. {@code name} may be {@code null}; otherwise it must be unique among the
+     * constraints of this model.
+     */
+    public Constr addConstr(LinExpr expr, double lowerBound, double upperBound, String name) {
+        int size = expr.size();
+        int[] indices = expr.indices();
+        double[] coefficients = expr.coefficients();
+        for (int k = 0; k < size; k++) {
+            checkCol(indices[k]);
+        }
+        int row = numConstrs;
+        if (name != null) {
+            constrNames.add(name, row);
+        }
+
+        int pending = row - flushedConstrs;
+        if (pending == rowLower.length) {
+            int capacity = pending * 2;
+            rowLower = Arrays.copyOf(rowLower, capacity);
+            rowUpper = Arrays.copyOf(rowUpper, capacity);
+            rowStarts = Arrays.copyOf(rowStarts, capacity + 1);
+        }
+        if (numNz + size > rowIndices.length) {
+            int capacity = Math.max(numNz + size, rowIndices.length * 2);
+            rowIndices = Arrays.copyOf(rowIndices, capacity);
+            rowValues = Arrays.copyOf(rowValues, capacity);
+        }
+
+        // Merge duplicate columns into their first occurrence in the buffer
+        int start = numNz;
+        int end = start;
+        for (int k = 0; k < size; k++) {
+            int col = indices[k];
+            int at = position[col];
+            if (at >= 0) {
+                rowValues[at] += coefficients[k];
+            } else {
+                position[col] = end;
+                rowIndices[end] = col;
+                rowValues[end] = coefficients[k];
+                end++;
+            }
+        }
+        // Reset the positions and drop terms that cancelled out
+        numNz = start;
+        for (int k = start; k < end; k++) {
+            position[rowIndices[k]] = -1;
+            if (rowValues[k] != 0.0) {
+                rowIndices[numNz] = rowIndices[k];
+                rowValues[numNz] = rowValues[k];
+                numNz++;
+            }
+        }
+
+        double constant = expr.getConstant();
+        rowLower[pending] = lowerBound - constant;
+        rowUpper[pending] = upperBound - constant;
+        rowStarts[pending + 1] = numNz;
+        numConstrs++;
+        return new Constr(this, row);
+    }
+
+    public int getNumConstrs() {
+        return numConstrs;
+    }
+
+    public Constr getConstr(int index) {
+        if (index < 0 || index >= numConstrs) {
+            throw new IndexOutOfBoundsException("Constraint " + index + " out of range for " + numConstrs + " constraints");
+        }
+        return new Constr(this, index);
+    }
+
+    /**
+     * The constraint named {@code name}, or {@code null}.
+     */
+    public Constr getConstr(String name) {
+        int index = constrNames.get(name);
+        return index >= 0 ? new Constr(this, index) : null;
+    }
+
+    // ===== Objective =====
+
+    /**
+     * Replaces the objective, including the costs given to {@link #addVar}, with {@code expr}.
+     * Duplicate columns are summed and the constant becomes the objective offset.
+     */
+    public void setObjective(LinExpr expr, boolean minimize) {
+        int size = expr.size();
+        int[] indices = expr.indices();
+        double[] coefficients = expr.coefficients();
+        for (int k = 0; k < size; k++) {
+            checkCol(indices[k]);
+        }
+        Arrays.fill(objective, 0, numVars, 0.0);
+        for (int k = 0; k < size; k++) {
+            objective[indices[k]] += coefficients[k];
+        }
+        this.minimize = minimize;
+        this.objectiveOffset = expr.getConstant();
+        this.objectiveChanged = true;
+    }
+
+    // ===== Solving =====
+
+    /**
+     * Passes the buffered variables, constraints and objective changes to the solver: at most
+     * one call for the columns, one for their integrality, one for the rows and two for the
+     * objective. On error the buffers are kept so nothing is lost.
+     */
+    public HighsStatus flush() {
+        HighsStatus status = HighsStatus.kOk;
+        if (objectiveChanged && flushedVars > 0) {
+            status = HighsStatus.worse(status, solver.changeColsCost(0, flushedVars - 1, Arrays.copyOf(objective, flushedVars)));
+            if (status == HighsStatus.kError) return status;
+        }
+
+        int newVars = numVars - flushedVars;
+        if (newVars > 0) {
+            status = HighsStatus.worse(status, solver.addVars(newVars, Arrays.copyOf(pendingLower, newVars),
+                    Arrays.copyOf(pendingUpper, newVars), Arrays.copyOfRange(objective, flushedVars, numVars)));
+            if (status == HighsStatus.kError) return status;
+            if (pendingIntegral) {
+                status = HighsStatus.worse(status, solver.changeColsIntegrality(flushedVars, numVars - 1,
+                        Arrays.copyOf(pendingTypes, newVars)));
+                if (status == HighsStatus.kError) return status;
+            }
+            flushedVars = numVars;
+            pendingIntegral = false;
+        }
+
+        if (objectiveChanged) {
+            status = HighsStatus.worse(status, solver.setObjectiveFunction(new double[0], new int[0], minimize, objectiveOffset));
+            if (status == HighsStatus.kError) return status;
+            objectiveChanged = false;
+        }
+
+        int newConstrs = numConstrs - flushedConstrs;
+        if (newConstrs > 0) {
+            // The buffers go to the solver as they are; only their filled prefix is read
+            status = HighsStatus.worse(status, solver.addConstraints(newConstrs, numNz, rowLower, rowUpper,
+                    rowStarts, rowIndices, rowValues));
+            if (status == HighsStatus.kError) return status;
+            flushedConstrs = numConstrs;
+            numNz = 0;
+        }
+        return status;
+    }
+
+    /**
+     * Flushes the model and solves it.
+     */
+    public HighsStatus solve() {
+        HighsStatus status = flush();
+        if (status == HighsStatus.kError) {
+            return status;
+        }
+        solutionCurrent = false;
+        return HighsStatus.worse(status, solver.solve());
+    }
+
+    public ModelStatus getModelStatus() {
+        return solver.getModelStatus();
+    }
+
+    public double getObjectiveValue() {
+        return solver.getObjectiveValue();
+    }
+
+    public double getValue(Var var) {
+        checkOwner(var.getIndex(), numVars, "Variable");
+        return solution().getVariableValue(var.getIndex());
+    }
+
+    public double getDual(Constr constr) {
+        checkOwner(constr.getIndex(), numConstrs, "Constraint");
+        return solution().getDualValue(constr.getIndex());
+    }
+
+    /**
+     * Closes the solver if this model created it.
+     */
+    @Override
+    public void close() {
+        if (ownsSolver) {
+            solver.close();
+        }
+    }
+
+    String getVarName(int index) {
+        return varNames.nameOf(index);
+    }
+
+    String getConstrName(int index) {
+        return constrNames.nameOf(index);
+    }
+
+    private Solution solution() {
+        if (!solutionCurrent) {
+            solver.getSolution(solution);
+            solutionCurrent = true;
+        }
+        return solution;
+    }
+
+    private void checkCol(int col) {
+        if (col >= numVars) {
+            throw new IllegalArgumentException("Column " + col + " is not a variable of this model");
+        }
+    }
+
+    private static void checkOwner(int index, int count, String kind) {
+        if (index >= count) {
+            throw new IllegalArgumentException(kind + " " + index + " is not part of this model");
+        }
+    }
+
+    private static int[] newPositions(int capacity) {
+        int[] positions = new int[capacity];
+        Arrays.fill(positions, -1);
+        return positions;
+    }
+}
@@ -16,16 +16,21 @@ public enum ModelStatus {
     kObjectiveTarget(12),
     kTimeLimit(13),
     kIterationLimit(14),
-    kUnknown(15);
+    kUnknown(15),
+    kSolutionLimit(16),
+    kInterrupt(17),
+    kMemoryLimit(18);
 
     private final int value;
+    // values() copies the array on every call
+    private static final ModelStatus[] VALUES = values();
 
     ModelStatus(int value) {
         this.value = value;
     }
 
     public static ModelStatus fromInt(int value) {
-        for (ModelStatus status : values()) {
+        for (ModelStatus status : VALUES) {
             if (status.value == value) return status;
         }
         throw new IllegalArgumentException("Unknown model status: " + value);
@@ -0,0 +1,913 @@
+package nl.jessenagel.jhighs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Loads free-format MPS files into a {@link HiGHS} instance without going through the HiGHS text
+ * reader. The file is memory-mapped in line-aligned chunks; the COLUMNS section, which holds the
+ * bulk of a large model, is parsed in parallel on the common fork-join pool. Nonzeros are written
+ * straight into direct buffers that are handed to
+ * {@link HiGHS#loadModel(int, int, MatrixFormat, IntBuffer, IntBuffer, DoubleBuffer, DoubleBuffer,
+ * DoubleBuffer, DoubleBuffer, DoubleBuffer, DoubleBuffer, boolean, double)} in one call, so Java
+ * heap use grows with the number of rows and columns (for their names) but not with the number of
+ * nonzeros.
+ *
+ * <p>Supported sections are NAME, OBJSENSE, ROWS, COLUMNS (with integer markers), RHS, RANGES and
+ * BOUNDS. Names may not contain spaces. Only the first N row is used as the objective; further
+ * N rows are dropped. As in the HiGHS reader, integer columns from marker sections that have no
+ * entry in BOUNDS are binary, with bounds [0, 1]. The nonzeros must fit in one direct buffer, which
+ * limits a model to about 268 million of them.
+ */
+public final class MpsLoader {
+    static final int DEFAULT_CHUNK_BYTES = 32 << 20;
+
+    public enum Phase {
+        /** Locating the section headers. */
+        SCAN,
+        /** Counting columns and nonzeros. */
+        COUNT,
+        /** Parsing values. */
+        PARSE,
+        /** Passing the model to HiGHS. */
+        LOAD
+    }
+
+    /**
+     * Receives load progress as bytes processed within each {@link Phase}. Calls are serialized
+     * but may come from pool threads.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(Phase phase, long done, long total);
+    }
+
+    private MpsLoader() {
+    }
+
+    public static HighsStatus load(HiGHS solver, Path file) throws IOException {
+        return load(solver, file, null);
+    }
+
+    /**
+     * Replaces the model of {@code solver} with the one in {@code file}.
+     *
+     * @param listener receives progress updates, or {@code null}
+     */
+    public static HighsStatus load(HiGHS solver, Path file, ProgressListener listener) throws IOException {
+        return load(solver, file, listener, DEFAULT_CHUNK_BYTES);
+    }
+
+    static HighsStatus load(HiGHS solver, Path file, ProgressListener listener, int chunkBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new Parser(channel, listener, chunkBytes).load(solver);
+        }
+    }
+
+    private static final class Parser {
+        private static final int OBJECTIVE = -1;
+        private static final int DROPPED = -2;
+        private static final String[] SECTIONS = {"NAME", "OBJSENSE", "ROWS", "COLUMNS", "RHS", "RANGES",
+                "BOUNDS", "ENDATA", "OBJNAME", "SOS", "QUADOBJ", "QSECTION", "QMATRIX",
+                "QCMATRIX", "CSECTION", "INDICATORS"};
+
+        private final FileChannel channel;
+        private final ProgressListener listener;
+        private final int chunkBytes;
+        private final long fileSize;
+
+        private final NameTable rowTable = new NameTable();
+        private byte[] rowTypes = new byte[64];
+        private int numRow = 0;
+        private boolean hasObjective = false;
+        private boolean minimize = true;
+        private double objectiveOffset = 0.0;
+        private double[] rhs;
+        private double[] ranges;
+
+        private NameTable colTable;
+        private int numCol = -1;
+        private int numNz;
+        private byte[] integrality;
+        // Columns with an entry in BOUNDS, null if there is none
+        private boolean[] bounded;
+        private boolean hasIntegers = false;
+        private IntBuffer starts;
+        private IntBuffer indices;
+        private DoubleBuffer values;
+        private DoubleBuffer colCosts;
+        private DoubleBuffer colLower;
+        private DoubleBuffer colUpper;
+
+        Parser(FileChannel channel, ProgressListener listener, int chunkBytes) throws IOException {
+            this.channel = channel;
+            this.listener = listener;
+            this.chunkBytes = chunkBytes;
+            this.fileSize = channel.size();
+        }
+
+        HighsStatus load(HiGHS solver) throws IOException {
+            List<Section> sections = scanSections();
+            for (int s = 0; s < sections.size(); s++) {
+                Section section = sections.get(s);
+                long end = s + 1 < sections.size() ? sections.get(s + 1).headerStart : fileSize;
+                switch (section.keyword) {
+                    case "NAME", "OBJNAME" -> {
+                    }
+                    case "OBJSENSE" -> parseObjectiveSense(section, end);
+                    case "ROWS" -> parseRows(section.bodyStart, end);
+                    case "COLUMNS" -> parseColumns(section.bodyStart, end);
+                    case "RHS" -> parseRhs(section.bodyStart, end, false);
+                    case "RANGES" -> parseRhs(section.bodyStart, end, true);
+                    case "BOUNDS" -> parseBounds(section.bodyStart, end);
+                    case "ENDATA" -> {
+                        return loadInto(solver);
+                    }
+                    default -> throw new IOException("Unsupported MPS section " + section.keyword);
+                }
+            }
+            return loadInto(solver);
+        }
+
+        // ===== Sections =====
+
+        private List<Section> scanSections() throws IOException {
+            long[] bounds = split(0, fileSize);
+            AtomicLong done = new AtomicLong();
+            List<List<Section>> found = parallel(bounds, (chunk, buffer) -> {
+                List<Section> headers = new ArrayList<>();
+                Line line = new Line();
+                int limit = buffer.limit();
+                int pos = 0;
+                while (pos < limit) {
+                    int next = line.read(buffer, pos, limit);
+                    if (line.count > 0 && !line.indented && !line.isComment() && isSectionKeyword(line)) {
+                        headers.add(new Section(line.text(0).toUpperCase(), bounds[chunk] + pos,
+                                bounds[chunk] + next, line.count > 1 ? line.text(1) : null));
+                    }
+                    pos = next;
+                }
+                report(Phase.SCAN, done.addAndGet(limit), fileSize);
+                return headers;
+            });
+            List<Section> sections = new ArrayList<>();
+            for (List<Section> headers : found) {
+                sections.addAll(headers);
+            }
+            return sections;
+        }
+
+        private void parseObjectiveSense(Section section, long end) throws IOException {
+            if (section.argument != null) {
+                minimize = parseSense(section.argument);
+                return;
+            }
+            forEachLine(section.bodyStart, end, (line, offset) -> minimize = parseSense(line.text(0)));
+        }
+
+        private static boolean parseSense(String sense) throws IOException {
+            return switch (sense.toUpperCase()) {
+                case "MIN", "MINIMIZE" -> true;
+                case "MAX", "MAXIMIZE" -> false;
+                default -> throw new IOException("Unknown objective sense " + sense);
+            };
+        }
+
+        private void parseRows(long start, long end) throws IOException {
+            forEachLine(start, end, (line, offset) -> {
+                if (line.count != 2 || line.length(0) != 1) {
+                    throw malformed(offset);
+                }
+                byte type = (byte) Character.toUpperCase(line.buffer.get(line.start[0]));
+                int value;
+                if (type == 'N') {
+                    value = hasObjective ? DROPPED : OBJECTIVE;
+                    hasObjective = true;
+                } else if (type == 'L' || type == 'G' || type == 'E') {
+                    if (numRow == rowTypes.length) {
+                        rowTypes = Arrays.copyOf(rowTypes, numRow * 2);
+                    }
+                    rowTypes[numRow] = type;
+                    value = numRow++;
+                } else {
+                    throw new IOException("Unknown row type at byte offset " + offset);
+                }
+                if (rowTable.put(line.bytes(1), value) != NameTable.MISSING) {
+                    throw new IOException("Duplicate row " + line.text(1) + " at byte offset " + offset);
+                }
+            });
+            rhs = new double[numRow];
+            ranges = new double[numRow];
+            Arrays.fill(ranges, Double.NaN);
+        }
+
+        private void parseColumns(long start, long end) throws IOException {
+            if (rhs == null) {
+                throw new IOException("COLUMNS section before ROWS section");
+            }
+            long[] bounds = split(start, end);
+            long total = end - start;
+
+            // Pass 1: column names, marker states and nonzero counts per chunk
+            AtomicLong counted = new AtomicLong();
+            List<ColumnChunk> chunks = parallel(bounds, (chunk, buffer) -> {
+                ColumnChunk result = new ColumnChunk();
+                Line line = new Line();
+                int limit = buffer.limit();
+                int pos = 0;
+                int nameStart = -1;
+                int nameEnd = -1;
+                while (pos < limit) {
+                    int lineStart = pos;
+                    pos = line.read(buffer, pos, limit);
+                    if (line.count == 0 || line.isComment()) continue;
+                    long offset = bounds[chunk] + lineStart;
+                    if (line.isMarker()) {
+                        result.endState = line.markerState(offset);
+                        continue;
+                    }
+                    if (line.count != 3 && line.count != 5) {
+                        throw malformed(offset);
+                    }
+                    if (nameStart < 0 || !line.equals(0, buffer, nameStart, nameEnd)) {
+                        nameStart = line.start[0];
+                        nameEnd = line.end[0];
+                        result.addColumn(line.bytes(0));
+                    }
+                    for (int k = 1; k < line.count; k += 2) {
+                        int row = rowTable.get(buffer, line.start[k], line.end[k]);
+                        if (row == NameTable.MISSING) {
+                            throw new IOException("Unknown row " + line.text(k) + " at byte offset " + offset);
+                        }
+                        if (row >= 0) result.numNz++;
+                    }
+                }
+                report(Phase.COUNT, counted.addAndGet(limit), total);
+                return result;
+            });
+
+            // Assign global column indices and nonzero offsets, resolving columns and integer
+            // markers that continue across chunk boundaries
+            colTable = new NameTable();
+            byte markerState = 0;
+            int[] nzOffsets = new int[chunks.size()];
+            long nzTotal = 0;
+            numCol = 0;
+            ByteList integer = new ByteList();
+            for (int c = 0; c < chunks.size(); c++) {
+                ColumnChunk chunk = chunks.get(c);
+                nzOffsets[c] = (int) nzTotal;
+                nzTotal += chunk.numNz;
+                if (nzTotal > Integer.MAX_VALUE - 8) {
+                    throw new IOException("Model has too many nonzeros");
+                }
+                for (int j = 0; j < chunk.names.size(); j++) {
+                    byte[] name = chunk.names.get(j);
+                    byte state = chunk.states.get(j) < 0 ? markerState : chunk.states.get(j);
+                    if (j == 0 && numCol > 0 && colTable.get(name) == numCol - 1) {
+                        chunk.firstCol = numCol - 1;
+                        chunk.continues = true;
+                        continue;
+                    }
+                    if (j == 0) chunk.firstCol = numCol;
+                    if (colTable.put(name, numCol) != NameTable.MISSING) {
+                        throw new IOException("Column " + new String(name, StandardCharsets.US_ASCII)
+                                + " is not contiguous in the COLUMNS section");
+                    }
+                    integer.add(state);
+                    hasIntegers |= state != 0;
+                    numCol++;
+                }
+                if (chunk.endState >= 0) markerState = chunk.endState;
+            }
+            numNz = (int) nzTotal;
+            integrality = integer.toArray();
+
+            starts = directInts(numCol + 1);
+            indices = directInts(numNz);
+            values = directDoubles(numNz);
+            colCosts = directDoubles(numCol);
+            colLower = directDoubles(numCol);
+            colUpper = directDoubles(numCol);
+            for (int j = 0; j < numCol; j++) {
+                colUpper.put(j, Double.POSITIVE_INFINITY);
+            }
+
+            // Pass 2: write every chunk's entries at its own offset
+            AtomicLong parsed = new AtomicLong();
+            parallel(bounds, (chunk, buffer) -> {
+                ColumnChunk info = chunks.get(chunk);
+                Line line = new Line();
+                int limit = buffer.limit();
+                int pos = 0;
+                int nz = nzOffsets[chunk];
+                int col = info.firstCol - 1;
+                int nameStart = -1;
+                int nameEnd = -1;
+                while (pos < limit) {
+                    int lineStart = pos;
+                    pos = line.read(buffer, pos, limit);
+                    if (line.count == 0 || line.isComment() || line.isMarker()) continue;
+                    long offset = bounds[chunk] + lineStart;
+                    if (nameStart < 0 || !line.equals(0, buffer, nameStart, nameEnd)) {
+                        col++;
+                        if (nameStart >= 0 || !info.continues) {
+                            starts.put(col, nz);
+                        }
+                        nameStart = line.start[0];
+                        nameEnd = line.end[0];
+                    }
+                    for (int k = 1; k < line.count; k += 2) {
+                        int row = rowTable.get(buffer, line.start[k], line.end[k]);
+                        double value = line.number(k + 1, offset);
+                        if (row >= 0) {
+                            indices.put(nz, row);
+                            values.put(nz, value);
+                            nz++;
+                        } else if (row == OBJECTIVE) {
+                            colCosts.put(col, value);
+                        }
+                    }
+                }
+                report(Phase.PARSE, parsed.addAndGet(limit), total);
+                return null;
+            });
+            starts.put(numCol, numNz);
+        }
+
+        private void parseRhs(long start, long end, boolean isRanges) throws IOException {
+            if (numCol < 0) {
+                throw new IOException((isRanges ? "RANGES" : "RHS") + " section before COLUMNS section");
+            }
+            forEachLine(start, end, (line, offset) -> {
+                // An odd token count means the line starts with a set name
+                int first = line.count % 2;
+                if (line.count < 2 || line.count > 5) {
+                    throw malformed(offset);
+                }
+                for (int k = first; k < line.count; k += 2) {
+                    int row = rowTable.get(line.buffer, line.start[k], line.end[k]);
+                    double value = line.number(k + 1, offset);
+                    if (row == NameTable.MISSING) {
+                        throw new IOException("Unknown row " + line.text(k) + " at byte offset " + offset);
+                    } else if (row >= 0) {
+                        if (isRanges) ranges[row] = value;
+                        else rhs[row] = value;
+                    } else if (row == OBJECTIVE && !isRanges) {
+                        objectiveOffset = -value;
+                    }
+                }
+            });
+        }
+
+        private void parseBounds(long start, long end) throws IOException {
+            if (numCol < 0) {
+                throw new IOException("BOUNDS section before COLUMNS section");
+            }
+            if (bounded == null) bounded = new boolean[numCol];
+            forEachLine(start, end, (line, offset) -> {
+                if (line.count < 2 || line.count > 4) {
+                    throw malformed(offset);
+                }
+                String type = line.text(0).toUpperCase();
+                boolean needsValue = switch (type) {
+                    case "UP", "LO", "FX", "LI", "UI" -> true;
+                    case "FR", "MI", "PL", "BV" -> false;
+                    default -> throw new IOException("Unsupported bound type " + type + " at byte offset " + offset);
+                };
+                int nameToken;
+                if (needsValue) {
+                    if (line.count < 3) throw malformed(offset);
+                    nameToken = line.count - 2;
+                } else if (line.count == 4) {
+                    nameToken = 2;
+                } else if (line.count == 3) {
+                    // Either "set name" or "name value"
+                    nameToken = colTable.get(line.buffer, line.start[2], line.end[2]) != NameTable.MISSING ? 2 : 1;
+                } else {
+                    nameToken = 1;
+                }
+                int col = colTable.get(line.buffer, line.start[nameToken], line.end[nameToken]);
+                if (col == NameTable.MISSING) {
+                    throw new IOException("Unknown column " + line.text(nameToken) + " at byte offset " + offset);
+                }
+                double value = needsValue ? line.number(line.count - 1, offset) : 0.0;
+                bounded[col] = true;
+                switch (type) {
+                    case "UP" -> {
+                        colUpper.put(col, value);
+                        if (value < 0 && colLower.get(col) == 0.0) {
+                            colLower.put(col, Double.NEGATIVE_INFINITY);
+                        }
+                    }
+                    case "LO" -> colLower.put(col, value);
+                    case "FX" -> {
+                        colLower.put(col, value);
+                        colUpper.put(col, value);
+                    }
+                    case "FR" -> {
+                        colLower.put(col, Double.NEGATIVE_INFINITY);
+                        colUpper.put(col, Double.POSITIVE_INFINITY);
+                    }
+                    case "MI" -> colLower.put(col, Double.NEGATIVE_INFINITY);
+                    case "PL" -> colUpper.put(col, Double.POSITIVE_INFINITY);
+                    case "BV" -> {
+                        colLower.put(col, 0.0);
+                        colUpper.put(col, 1.0);
+                        markInteger(col);
+                    }
+                    case "LI" -> {
+                        colLower.put(col, value);
+                        markInteger(col);
+                    }
+                    default -> {
+                        colUpper.put(col, value);
+                        markInteger(col);
+                    }
+                }
+            });
+        }
+
+        private void markInteger(int col) {
+            integrality[col] = (byte) VarType.kInteger.getValue();
+            hasIntegers = true;
+        }
+
+        private HighsStatus loadInto(HiGHS solver) throws IOException {
+            if (numCol < 0) {
+                throw new IOException("MPS file has no COLUMNS section");
+            }
+            report(Phase.LOAD, 0, 1);
+            if (hasIntegers) {
+                for (int j = 0; j < numCol; j++) {
+                    if (integrality[j] != 0 && (bounded == null || !bounded[j])) colUpper.put(j, 1.0);
+                }
+            }
+            DoubleBuffer rowLower = directDoubles(numRow);
+            DoubleBuffer rowUpper = directDoubles(numRow);
+            for (int i = 0; i < numRow; i++) {
+                double lower = Double.NEGATIVE_INFINITY;
+                double upper = Double.POSITIVE_INFINITY;
+                double range = ranges[i];
+                switch (rowTypes[i]) {
+                    case 'L' -> {
+                        upper = rhs[i];
+                        if (!Double.isNaN(range)) lower = rhs[i] - Math.abs(range);
+                    }
+                    case 'G' -> {
+                        lower = rhs[i];
+                        if (!Double.isNaN(range)) upper = rhs[i] + Math.abs(range);
+                    }
+                    default -> {
+                        lower = rhs[i];
+                        upper = rhs[i];
+                        if (range > 0) upper = rhs[i] + range;
+                        else if (range < 0) lower = rhs[i] + range;
+                    }
+                }
+                rowLower.put(i, lower);
+                rowUpper.put(i, upper);
+            }
+
+            HighsStatus status = solver.loadModel(numCol, numRow, MatrixFormat.kColwise, starts, indices, values,
+                    colCosts, colLower, colUpper, rowLower, rowUpper, minimize, objectiveOffset);
+            if (status != HighsStatus.kError && hasIntegers && numCol > 0) {
+                HighsStatus integralityStatus = solver.changeColsIntegrality(0, numCol - 1, integrality);
+                if (integralityStatus != HighsStatus.kOk) status = integralityStatus;
+            }
+            report(Phase.LOAD, 1, 1);
+            return status;
+        }
+
+        // ===== Chunked file access =====
+
+        // Splits [start, end) into line-aligned chunks of about chunkBytes
+        private long[] split(long start, long end) throws IOException {
+            List<Long> bounds = new ArrayList<>();
+            bounds.add(start);
+            long pos = start;
+            while (end - pos > chunkBytes) {
+                long next = nextLineStart(pos + chunkBytes, end);
+                if (next >= end) break;
+                bounds.add(next);
+                pos = next;
+            }
+            bounds.add(end);
+            long[] result = new long[bounds.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = bounds.get(i);
+            }
+            return result;
+        }
+
+        private long nextLineStart(long from, long end) throws IOException {
+            ByteBuffer window = ByteBuffer.allocate(64 * 1024);
+            long pos = from;
+            while (pos < end) {
+                window.clear();
+                int read = channel.read(window, pos);
+                if (read <= 0) break;
+                for (int i = 0; i < read; i++) {
+                    if (window.get(i) == '\n') return pos + i + 1;
+                }
+                pos += read;
+            }
+            return end;
+        }
+
+        private ByteBuffer map(long start, long end) throws IOException {
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Line too long at byte offset " + start);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        }
+
+        // Runs task on every chunk in parallel and returns the results in chunk order
+        private <T> List<T> parallel(long[] bounds, ChunkTask<T> task) throws IOException {
+            try {
+                return IntStream.range(0, bounds.length - 1).parallel().mapToObj(chunk -> {
+                    try {
+                        return task.run(chunk, map(bounds[chunk], bounds[chunk + 1]));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }).toList();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void forEachLine(long start, long end, LineHandler handler) throws IOException {
+            long[] bounds = split(start, end);
+            Line line = new Line();
+            for (int c = 0; c + 1 < bounds.length; c++) {
+                ByteBuffer buffer = map(bounds[c], bounds[c + 1]);
+                int limit = buffer.limit();
+                int pos = 0;
+                while (pos < limit) {
+                    int lineStart = pos;
+                    pos = line.read(buffer, pos, limit);
+                    if (line.count == 0 || line.isComment()) continue;
+                    handler.accept(line, bounds[c] + lineStart);
+                }
+            }
+        }
+
+        private void report(Phase phase, long done, long total) {
+            if (listener != null) {
+                synchronized (listener) {
+                    listener.onProgress(phase, done, total);
+                }
+            }
+        }
+
+        private static boolean isSectionKeyword(Line line) {
+            for (String keyword : SECTIONS) {
+                if (line.equalsIgnoreCase(0, keyword)) return true;
+            }
+            return false;
+        }
+
+        private static IOException malformed(long offset) {
+            return new IOException("Malformed MPS line at byte offset " + offset);
+        }
+
+        private static IntBuffer directInts(int length) throws IOException {
+            return directBuffer(length, Integer.BYTES).asIntBuffer();
+        }
+
+        private static DoubleBuffer directDoubles(int length) throws IOException {
+            return directBuffer(length, Double.BYTES).asDoubleBuffer();
+        }
+
+        private static ByteBuffer directBuffer(int length, int elementBytes) throws IOException {
+            if ((long) length * elementBytes > Integer.MAX_VALUE) {
+                throw new IOException("Model too large: " + length + " entries do not fit in one direct buffer");
+            }
+            return ByteBuffer.allocateDirect(length * elementBytes).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask<T> {
+        T run(int chunk, ByteBuffer buffer) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface LineHandler {
+        void accept(Line line, long offset) throws IOException;
+    }
+
+    private static final class Section {
+        final String keyword;
+        final long headerStart;
+        final long bodyStart;
+        // Second token of the header line, e.g. the sense in "OBJSENSE MAX"
+        final String argument;
+
+        Section(String keyword, long headerStart, long bodyStart, String argument) {
+            this.keyword = keyword;
+            this.headerStart = headerStart;
+            this.bodyStart = bodyStart;
+            this.argument = argument;
+        }
+    }
+
+    // Columns started in one chunk of the COLUMNS section
+    private static final class ColumnChunk {
+        final List<byte[]> names = new ArrayList<>();
+        // Integer marker state at the start of each column; -1 if no marker was seen yet in this chunk
+        final ByteList states = new ByteList();
+        byte endState = -1;
+        int numNz;
+        int firstCol;
+        // Whether the first column continues the last column of the previous chunk
+        boolean continues;
+
+        void addColumn(byte[] name) {
+            names.add(name);
+            states.add(endState);
+        }
+    }
+
+    private static final class ByteList {
+        private byte[] data = new byte[64];
+        private int size;
+
+        void add(byte value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        byte get(int index) {
+            return data[index];
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    // Whitespace-separated tokens of one line in a mapped buffer
+    private static final class Line {
+        ByteBuffer buffer;
+        int[] start = new int[8];
+        int[] end = new int[8];
+        int count;
+        int lineStart;
+        boolean indented;
+
+        // Tokenizes the line starting at pos and returns the start of the next line
+        int read(ByteBuffer buffer, int pos, int limit) {
+            this.buffer = buffer;
+            lineStart = pos;
+            count = 0;
+            int i = pos;
+            indented = i < limit && isBlank(buffer.get(i));
+            while (i < limit) {
+                byte b = buffer.get(i);
+                if (b == '\n') {
+                    i++;
+                    break;
+                }
+                if (isBlank(b)) {
+                    i++;
+                    continue;
+                }
+                int tokenStart = i;
+                while (i < limit && !isBlank(b = buffer.get(i)) && b != '\n') {
+                    i++;
+                }
+                if (count == start.length) {
+                    start = Arrays.copyOf(start, count * 2);
+                    end = Arrays.copyOf(end, count * 2);
+                }
+                start[count] = tokenStart;
+                end[count] = i;
+                count++;
+            }
+            return i;
+        }
+
+        boolean isComment() {
+            return buffer.get(lineStart) == '*';
+        }
+
+        boolean isMarker() {
+            return count >= 3 && equalsIgnoreCase(1, "'MARKER'");
+        }
+
+        byte markerState(long offset) throws IOException {
+            if (equalsIgnoreCase(2, "'INTORG'")) return 1;
+            if (equalsIgnoreCase(2, "'INTEND'")) return 0;
+            throw new IOException("Unknown marker at byte offset " + offset);
+        }
+
+        int length(int k) {
+            return end[k] - start[k];
+        }
+
+        boolean equals(int k, ByteBuffer other, int from, int to) {
+            if (to - from != length(k)) return false;
+            for (int i = 0; i < to - from; i++) {
+                if (buffer.get(start[k] + i) != other.get(from + i)) return false;
+            }
+            return true;
+        }
+
+        boolean equalsIgnoreCase(int k, String keyword) {
+            if (length(k) != keyword.length()) return false;
+            for (int i = 0; i < keyword.length(); i++) {
+                if (Character.toUpperCase(buffer.get(start[k] + i)) != keyword.charAt(i)) return false;
+            }
+            return true;
+        }
+
+        byte[] bytes(int k) {
+            byte[] bytes = new byte[length(k)];
+            buffer.get(start[k], bytes);
+            return bytes;
+        }
+
+        String text(int k) {
+            return new String(bytes(k), StandardCharsets.US_ASCII);
+        }
+
+        double number(int k, long offset) throws IOException {
+            try {
+                return parseNumber(buffer, start[k], end[k]);
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid number " + text(k) + " at byte offset " + offset);
+            }
+        }
+
+        private static boolean isBlank(byte b) {
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+    }
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    /**
+     * Parses a decimal number from ASCII bytes. Numbers with at most 15 significant digits and a
+     * decimal exponent within +-22 are converted with a single exact multiplication or division,
+     * which gives the correctly rounded result; anything else falls back to
+     * {@link Double#parseDouble(String)}.
+     */
+    static double parseNumber(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significant = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        byte b;
+        while (i < to && (b = buffer.get(i)) >= '0' && b <= '9') {
+            mantissa = mantissa * 10 + (b - '0');
+            if (mantissa != 0) significant++;
+            anyDigit = true;
+            i++;
+            if (significant > 15) return parseSlow(buffer, from, to);
+        }
+        if (i < to && buffer.get(i) == '.') {
+            i++;
+            while (i < to && (b = buffer.get(i)) >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa != 0) significant++;
+                exponent--;
+                anyDigit = true;
+                i++;
+                if (significant > 15) return parseSlow(buffer, from, to);
+            }
+        }
+        if (anyDigit && i < to && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negativeExponent = buffer.get(i) == '-';
+                i++;
+            }
+            int explicit = 0;
+            int digits = 0;
+            while (i < to && (b = buffer.get(i)) >= '0' && b <= '9') {
+                explicit = explicit * 10 + (b - '0');
+                i++;
+                if (++digits > 4) return parseSlow(buffer, from, to);
+            }
+            if (digits == 0) return parseSlow(buffer, from, to);
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+        if (!anyDigit || i != to || exponent > 22 || exponent < -22) {
+            return parseSlow(buffer, from, to);
+        }
+        double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        return negative ? -value : value;
+    }
+
+    private static double parseSlow(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        String text = new String(bytes, StandardCharsets.US_ASCII);
+        String unsigned = text.startsWith("-") || text.startsWith("+") ? text.substring(1) : text;
+        if (unsigned.equalsIgnoreCase("inf") || unsigned.equalsIgnoreCase("infinity")) {
+            return text.startsWith("-") ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        return Double.parseDouble(text);
+    }
+
+    // Open-addressing hash table from names, looked up straight from mapped bytes, to int values
+    private static final class NameTable {
+        static final int MISSING = Integer.MIN_VALUE;
+
+        // Entry index + 1 per slot, 0 for empty
+        private int[] slots = new int[1024];
+        private byte[][] names = new byte[512][];
+        private int[] values = new int[512];
+        private int size;
+
+        // Adds name unless present; returns the existing value or MISSING
+        int put(byte[] name, int value) {
+            int existing = get(name);
+            if (existing != MISSING) return existing;
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            names[size] = name;
+            values[size] = value;
+            size++;
+            if (size * 2 > slots.length) {
+                rehash(slots.length * 2);
+            } else {
+                insert(size - 1);
+            }
+            return MISSING;
+        }
+
+        int get(byte[] name) {
+            return get(ByteBuffer.wrap(name), 0, name.length);
+        }
+
+        int get(ByteBuffer buffer, int from, int to) {
+            int mask = slots.length - 1;
+            for (int slot = hash(buffer, from, to) & mask; ; slot = (slot + 1) & mask) {
+                int entry = slots[slot];
+                if (entry == 0) return MISSING;
+                byte[] name = names[entry - 1];
+                if (matches(name, buffer, from, to)) return values[entry - 1];
+            }
+        }
+
+        private void rehash(int capacity) {
+            slots = new int[capacity];
+            for (int i = 0; i < size; i++) {
+                insert(i);
+            }
+        }
+
+        private void insert(int entry) {
+            byte[] name = names[entry];
+            int mask = slots.length - 1;
+            int slot = hash(ByteBuffer.wrap(name), 0, name.length) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = entry + 1;
+        }
+
+        private static boolean matches(byte[] name, ByteBuffer buffer, int from, int to) {
+            if (name.length != to - from) return false;
+            for (int i = 0; i < name.length; i++) {
+                if (name[i] != buffer.get(from + i)) return false;
+            }
+            return true;
+        }
+
+        private static int hash(ByteBuffer buffer, int from, int to) {
+            int hash = 0x811C9DC5;
+            for (int i = from; i < to; i++) {
+                hash = (hash ^ buffer.get(i)) * 0x01000193;
+            }
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
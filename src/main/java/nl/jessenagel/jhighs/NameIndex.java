@@ -0,0 +1,82 @@
+package nl.jessenagel.jhighs;
+
+import java.util.Arrays;
+
+/**
+ * Names of the variables or constraints of a {@link Model}, mapped to their dense indices. The
+ * lookup table is open-addressing over parallel {@code String[]}/{@code int[]} arrays, so a
+ * model with millions of names holds no boxed map entries; each name is stored once and shared
+ * by the table and the reverse lookup.
+ */
+final class NameIndex {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private String[] keys = new String[INITIAL_CAPACITY];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int size;
+    // Name of every index, null where none was given
+    private String[] names = new String[0];
+
+    /**
+     * Registers {@code name} for {@code id}; names must be unique.
+     */
+    void add(String name, int id) {
+        if (get(name) >= 0) {
+            throw new IllegalArgumentException("Duplicate name: " + name);
+        }
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        insert(name, id);
+        size++;
+        if (id >= names.length) {
+            names = Arrays.copyOf(names, Math.max(id + 1, Math.max(INITIAL_CAPACITY, names.length * 2)));
+        }
+        names[id] = name;
+    }
+
+    /**
+     * Index registered for {@code name}, or -1.
+     */
+    int get(String name) {
+        int mask = keys.length - 1;
+        for (int slot = hash(name) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot].equals(name)) {
+                return ids[slot];
+            }
+        }
+        return -1;
+    }
+
+    String nameOf(int id) {
+        return id < names.length ? names[id] : null;
+    }
+
+    private void insert(String name, int id) {
+        int mask = keys.length - 1;
+        int slot = hash(name) & mask;
+        while (keys[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = name;
+        ids[slot] = id;
+    }
+
+    private void rehash(int capacity) {
+        String[] oldKeys = keys;
+        int[] oldIds = ids;
+        keys = new String[capacity];
+        ids = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                insert(oldKeys[i], oldIds[i]);
+            }
+        }
+    }
+
+    // Spread the String hash so generated names such as x1, x2, ... do not cluster
+    private static int hash(String name) {
+        int h = name.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -2,9 +2,36 @@ package nl.jessenagel.jhighs;
 
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
 import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
 
+/**
+ * Loads the HiGHS and JNI libraries, either from {@code java.library.path} or from the jar. Libraries
+ * from the jar are extracted once into a persistent cache directory named after the library version,
+ * the platform and a SHA-256 hash of the library contents, so later JVMs load the extracted files
+ * directly. The SHA-256 digests are computed at build time and packaged next to the libraries as
+ * {@code checksums.sha256}, so a start only hashes the cached files, which are used only if every
+ * digest matches; jars built without that file fall back to hashing the libraries in the jar.
+ * Concurrent JVMs extract under a file lock into a staging directory that is atomically renamed into
+ * place, so no JVM ever loads a partially written library.
+ *
+ * <p>The cache root is {@code $XDG_CACHE_HOME/jhighs} or {@code ~/.cache/jhighs}, and can be set with
+ * the {@code jhighs.native.cache} system property. If it cannot be written, the libraries are
+ * extracted into a temporary directory that is deleted on exit.
+ */
 public class NativeLibraryLoader {
+    private static final System.Logger LOGGER = System.getLogger(NativeLibraryLoader.class.getName());
+    private static final String CACHE_PROPERTY = "jhighs.native.cache";
+    private static final String CHECKSUMS = "checksums.sha256";
+
     private static boolean librariesLoaded = false;
     private static Path tempDir = null;
 
@@ -14,21 +41,36 @@ public class NativeLibraryLoader {
         }
         try{
             System.loadLibrary("jhighs");
+            librariesLoaded = true;
         }catch(UnsatisfiedLinkError error) {
             try {
                 String platform = getPlatform();
+                String resourceDir = "/natives/" + platform + "/";
                 String[] libraryNames = getLibraryNames(platform);
+                byte[][] digests = readDigests(resourceDir, libraryNames);
+                byte[][] contents = null;
+                if (digests == null) {
+                    // Built without packaged digests, so hash the libraries in the jar instead
+                    contents = readLibraries(resourceDir, libraryNames);
+                    digests = new byte[libraryNames.length][];
+                    for (int i = 0; i < libraryNames.length; i++) {
+                        digests[i] = sha256(contents[i]);
+                    }
+                }
 
-                // Create temporary directory for extracted libraries
-                tempDir = Files.createTempDirectory("jhighs_natives");
-
-                // Register shutdown hook to clean up
-                Runtime.getRuntime().addShutdownHook(new Thread(NativeLibraryLoader::cleanupTempDirectory));
+                Path libraryDir;
+                try {
+                    libraryDir = extractToCache(platform, resourceDir, libraryNames, contents, digests);
+                } catch (IOException e) {
+                    LOGGER.log(System.Logger.Level.WARNING,
+                            "Native library cache unavailable, extracting to a temporary directory", e);
+                    libraryDir = extractToTempDirectory(libraryNames,
+                            contents != null ? contents : readLibraries(resourceDir, libraryNames));
+                }
 
-                // Extract and load libraries in correct order
+                // Load in dependency order, so the JNI library finds HiGHS already loaded
                 for (String libName : libraryNames) {
-                    String resourcePath = "/natives/" + platform + "/" + libName;
-                    extractAndLoadLibrary(resourcePath, tempDir, libName);
+                    System.load(libraryDir.resolve(libName).toAbsolutePath().toString());
                 }
 
                 librariesLoaded = true;
@@ -79,50 +121,187 @@ public class NativeLibraryLoader {
         };
     }
 
-    private static void cleanupTempDirectory() {
-        if (tempDir != null) {
+    /**
+     * Returns the cache directory holding verified copies of the libraries, extracting them first
+     * if no other JVM has done so yet. {@code contents} may be null, in which case the libraries are
+     * only read from the jar when they have to be extracted.
+     */
+    private static Path extractToCache(String platform, String resourceDir, String[] libraryNames,
+                                       byte[][] contents, byte[][] digests) throws IOException {
+        Path root = getCacheRoot();
+        Files.createDirectories(root);
+        String version = NativeLibraryLoader.class.getPackage().getImplementationVersion();
+        String name = (version != null ? version : "dev") + "-" + platform + "-" + combinedHash(digests);
+        Path libraryDir = root.resolve(name);
+        if (isValid(libraryDir, libraryNames, digests)) {
+            return libraryDir;
+        }
+
+        // Only one JVM extracts; the others wait here and then find the finished directory
+        try (FileChannel channel = FileChannel.open(root.resolve(name + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
             try {
-                Files.walk(tempDir)
-                        .sorted((p1, p2) -> -p1.compareTo(p2)) // Reverse order to delete files before directories
-                        .forEach(path -> {
-                            try {
-                                Files.delete(path);
-                            } catch (IOException e) {
-                                System.err.println("Failed to delete: " + path + ": " + e.getMessage());
-                            }
-                        });
-                System.out.println("Cleaned up temporary directory: " + tempDir);
-            } catch (IOException e) {
-                System.err.println("Failed to clean up temporary directory: " + e.getMessage());
+                return extractLocked(root, name, libraryDir, resourceDir, libraryNames, contents, digests);
+            } finally {
+                lock.release();
             }
         }
     }
 
-    private static void extractAndLoadLibrary(String resourcePath, Path tempDir, String libName) throws IOException {
-        try (InputStream is = NativeLibraryLoader.class.getResourceAsStream(resourcePath)) {
-            if (is == null) {
-                throw new RuntimeException("Native library not found: " + resourcePath);
+    // Extracts into a staging directory and renames it into place; runs under the cache file lock
+    private static Path extractLocked(Path root, String name, Path libraryDir, String resourceDir,
+                                      String[] libraryNames, byte[][] contents, byte[][] digests)
+            throws IOException {
+        if (isValid(libraryDir, libraryNames, digests)) {
+            return libraryDir;
+        }
+        Path staging = Files.createTempDirectory(root, name + ".tmp");
+        try {
+            writeLibraries(staging, libraryNames,
+                    contents != null ? contents : readLibraries(resourceDir, libraryNames));
+            if (!isValid(staging, libraryNames, digests)) {
+                throw new IOException("Checksum mismatch after extracting to " + staging);
+            }
+            // A directory that failed verification is replaced rather than repaired in place
+            if (Files.exists(libraryDir)) {
+                deleteRecursively(libraryDir);
             }
+            Files.move(staging, libraryDir, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            if (Files.exists(staging)) {
+                deleteRecursively(staging);
+            }
+        }
+        LOGGER.log(System.Logger.Level.DEBUG, "Extracted native libraries to {0}", libraryDir);
+        return libraryDir;
+    }
+
+    private static Path getCacheRoot() {
+        String configured = System.getProperty(CACHE_PROPERTY);
+        if (configured != null && !configured.isEmpty()) {
+            return Paths.get(configured);
+        }
+        String xdgCache = System.getenv("XDG_CACHE_HOME");
+        if (xdgCache != null && !xdgCache.isEmpty()) {
+            return Paths.get(xdgCache, "jhighs");
+        }
+        return Paths.get(System.getProperty("user.home"), ".cache", "jhighs");
+    }
 
-            Path libFile = tempDir.resolve(libName);
-            Files.copy(is, libFile, StandardCopyOption.REPLACE_EXISTING);
+    // Whether every library in dir exists and has the expected SHA-256
+    private static boolean isValid(Path dir, String[] libraryNames, byte[][] digests) throws IOException {
+        for (int i = 0; i < libraryNames.length; i++) {
+            Path libFile = dir.resolve(libraryNames[i]);
+            if (!Files.isRegularFile(libFile) || !Arrays.equals(sha256(Files.readAllBytes(libFile)), digests[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Path extractToTempDirectory(String[] libraryNames, byte[][] contents) throws IOException {
+        tempDir = Files.createTempDirectory("jhighs_natives");
+        Runtime.getRuntime().addShutdownHook(new Thread(NativeLibraryLoader::cleanupTempDirectory));
+        writeLibraries(tempDir, libraryNames, contents);
+        return tempDir;
+    }
+
+    private static void writeLibraries(Path dir, String[] libraryNames, byte[][] contents) throws IOException {
+        for (int i = 0; i < libraryNames.length; i++) {
+            Path libFile = dir.resolve(libraryNames[i]);
+            Files.write(libFile, contents[i]);
 
             // Make executable on Unix systems
             if (!System.getProperty("os.name").toLowerCase().contains("win")) {
                 libFile.toFile().setExecutable(true);
             }
+        }
+    }
 
-            System.out.println("Extracting " + libName + " to " + libFile);
+    private static void cleanupTempDirectory() {
+        if (tempDir != null) {
+            try {
+                deleteRecursively(tempDir);
+            } catch (IOException e) {
+                LOGGER.log(System.Logger.Level.DEBUG, "Failed to clean up temporary directory " + tempDir, e);
+            }
+        }
+    }
 
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (var paths = Files.walk(dir)) {
+            // Reverse order to delete files before directories
+            for (Path path : paths.sorted((p1, p2) -> -p1.compareTo(p2)).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static byte[][] readLibraries(String resourceDir, String[] libraryNames) throws IOException {
+        byte[][] contents = new byte[libraryNames.length][];
+        for (int i = 0; i < libraryNames.length; i++) {
+            contents[i] = readResource(resourceDir + libraryNames[i]);
+        }
+        return contents;
+    }
+
+    // Digests from the sha256sum-style checksum file written by build-native.sh, or null if the
+    // file is missing or does not cover every library
+    private static byte[][] readDigests(String resourceDir, String[] libraryNames) throws IOException {
+        Map<String, byte[]> byName = new HashMap<>();
+        try (InputStream is = NativeLibraryLoader.class.getResourceAsStream(resourceDir + CHECKSUMS)) {
+            if (is == null) {
+                return null;
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.trim().split("\\s+", 2);
+                if (fields.length == 2) {
+                    // sha256sum marks files hashed in binary mode with a leading '*'
+                    String file = fields[1].startsWith("*") ? fields[1].substring(1) : fields[1];
+                    byName.put(file, HexFormat.of().parseHex(fields[0]));
+                }
+            }
+        }
+        byte[][] digests = new byte[libraryNames.length][];
+        for (int i = 0; i < libraryNames.length; i++) {
+            digests[i] = byName.get(libraryNames[i]);
+            if (digests[i] == null) {
+                return null;
+            }
+        }
+        return digests;
+    }
 
-            // If this is the first library (libhighs.so), set LD_LIBRARY_PATH to include temp directory
-            if (libName.equals("libhighs.so")) {
-                System.setProperty("java.library.path", tempDir +
-                        ":" + System.getProperty("java.library.path"));
+    private static byte[] readResource(String resourcePath) throws IOException {
+        try (InputStream is = NativeLibraryLoader.class.getResourceAsStream(resourcePath)) {
+            if (is == null) {
+                throw new RuntimeException("Native library not found: " + resourcePath);
             }
+            return is.readAllBytes();
+        }
+    }
+
+    // First 16 bytes of the SHA-256 over the per-library digests, as hex
+    private static String combinedHash(byte[][] digests) {
+        MessageDigest digest = newSha256();
+        for (byte[] libraryDigest : digests) {
+            digest.update(libraryDigest);
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    private static byte[] sha256(byte[] data) {
+        return newSha256().digest(data);
+    }
 
-            // Load the library using absolute path
-            System.load(libFile.toAbsolutePath().toString());
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
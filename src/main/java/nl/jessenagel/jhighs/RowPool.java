@@ -0,0 +1,140 @@
+package nl.jessenagel.jhighs;
+
+import java.util.Arrays;
+
+/**
+ * Candidate rows of a {@link CutLoop}, stored row-wise in growable CSR arrays. Rows stay in the
+ * pool for the whole loop: the loop adds a row to the model while it is violated and deletes it
+ * again once it has been slack for a number of rounds, after which it can be added back if it
+ * becomes violated later.
+ */
+public class RowPool {
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Entries of row r are at positions starts[r] .. starts[r + 1] - 1
+    private int[] starts = new int[INITIAL_CAPACITY + 1];
+    private int[] indices = new int[4 * INITIAL_CAPACITY];
+    private double[] values = new double[4 * INITIAL_CAPACITY];
+    private double[] lower = new double[INITIAL_CAPACITY];
+    private double[] upper = new double[INITIAL_CAPACITY];
+    // Model row of every pool row, -1 while it is not in the model
+    private int[] modelRow = new int[INITIAL_CAPACITY];
+    // Consecutive rounds a model row has been slack
+    private int[] age = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Adds the row {@code lower <= sum(values[k] * x[indices[k]]) <= upper} and returns its pool
+     * index. The arrays are copied.
+     */
+    public int addRow(double lower, double upper, int[] indices, double[] values) {
+        if (indices.length != values.length) {
+            throw new IllegalArgumentException("Index and value arrays must have the same length");
+        }
+        if (size == this.lower.length) {
+            int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity + 1);
+            this.lower = Arrays.copyOf(this.lower, capacity);
+            this.upper = Arrays.copyOf(this.upper, capacity);
+            modelRow = Arrays.copyOf(modelRow, capacity);
+            age = Arrays.copyOf(age, capacity);
+        }
+        int numNz = starts[size];
+        if (numNz + indices.length > this.indices.length) {
+            int capacity = Math.max(numNz + indices.length, this.indices.length * 2);
+            this.indices = Arrays.copyOf(this.indices, capacity);
+            this.values = Arrays.copyOf(this.values, capacity);
+        }
+        System.arraycopy(indices, 0, this.indices, numNz, indices.length);
+        System.arraycopy(values, 0, this.values, numNz, values.length);
+        this.lower[size] = lower;
+        this.upper[size] = upper;
+        modelRow[size] = -1;
+        age[size] = 0;
+        starts[size + 1] = numNz + indices.length;
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getNumNz() {
+        return starts[size];
+    }
+
+    public double getLower(int row) {
+        return lower[checkRow(row)];
+    }
+
+    public double getUpper(int row) {
+        return upper[checkRow(row)];
+    }
+
+    /**
+     * Returns the model row that currently holds pool row {@code row}, or -1.
+     */
+    public int getModelRow(int row) {
+        return modelRow[checkRow(row)];
+    }
+
+    /**
+     * Returns the number of consecutive rounds pool row {@code row} has been slack in the model.
+     */
+    public int getAge(int row) {
+        return age[checkRow(row)];
+    }
+
+    /**
+     * Amount by which {@code solution} violates pool row {@code row}; zero or negative when the
+     * row is satisfied.
+     */
+    public double violation(int row, Solution solution) {
+        checkRow(row);
+        double activity = activity(row, solution);
+        return Math.max(lower[row] - activity, activity - upper[row]);
+    }
+
+    double activity(int row, Solution solution) {
+        double activity = 0.0;
+        for (int k = starts[row]; k < starts[row + 1]; k++) {
+            activity += values[k] * solution.getVariableValue(indices[k]);
+        }
+        return activity;
+    }
+
+    int[] starts() {
+        return starts;
+    }
+
+    int[] indices() {
+        return indices;
+    }
+
+    double[] values() {
+        return values;
+    }
+
+    double[] lower() {
+        return lower;
+    }
+
+    double[] upper() {
+        return upper;
+    }
+
+    int[] modelRow() {
+        return modelRow;
+    }
+
+    int[] age() {
+        return age;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IllegalArgumentException("Pool row out of range: " + row);
+        }
+        return row;
+    }
+}
@@ -0,0 +1,70 @@
+package nl.jessenagel.jhighs;
+
+/**
+ * Outcome of {@link HiGHS#solveScenarios(ScenarioSet, int[], int[])}: per scenario the model
+ * status, the objective value and the values of the selected columns and row duals. The values are
+ * kept in one flat array with {@link #getStride()} entries per scenario: the objective first, then
+ * the selected primal values, then the selected duals. Entries are {@code NaN} when the solver had
+ * no valid primal or dual solution for the scenario.
+ */
+public class ScenarioResults {
+    private final HighsStatus status;
+    private final int[] modelStatuses;
+    private final double[] values;
+    private final int numPrimal;
+    private final int numDual;
+
+    ScenarioResults(HighsStatus status, int[] modelStatuses, double[] values, int numPrimal, int numDual) {
+        this.status = status;
+        this.modelStatuses = modelStatuses;
+        this.values = values;
+        this.numPrimal = numPrimal;
+        this.numDual = numDual;
+    }
+
+    /**
+     * Returns the worst status of all scenario solves.
+     */
+    public HighsStatus getStatus() {
+        return status;
+    }
+
+    public int getNumScenarios() {
+        return modelStatuses.length;
+    }
+
+    public int getStride() {
+        return 1 + numPrimal + numDual;
+    }
+
+    public ModelStatus getModelStatus(int scenario) {
+        return ModelStatus.fromInt(modelStatuses[scenario]);
+    }
+
+    public double getObjectiveValue(int scenario) {
+        return values[scenario * getStride()];
+    }
+
+    /**
+     * Returns the value of the {@code k}-th selected column in the given scenario.
+     */
+    public double getPrimalValue(int scenario, int k) {
+        if (k < 0 || k >= numPrimal) throw new IndexOutOfBoundsException(k);
+        return values[scenario * getStride() + 1 + k];
+    }
+
+    /**
+     * Returns the dual of the {@code k}-th selected row in the given scenario.
+     */
+    public double getDualValue(int scenario, int k) {
+        if (k < 0 || k >= numDual) throw new IndexOutOfBoundsException(k);
+        return values[scenario * getStride() + 1 + numPrimal + k];
+    }
+
+    /**
+     * Returns the flat value array; see the class documentation for its layout.
+     */
+    public double[] getValues() {
+        return values;
+    }
+}
@@ -0,0 +1,154 @@
+package nl.jessenagel.jhighs;
+
+import java.util.Arrays;
+
+/**
+ * A packed list of scenarios for {@link HiGHS#solveScenarios}. Every scenario is a set of changes
+ * to the loaded model: new row bounds, new column bounds or new column costs. Changes are relative
+ * to the loaded model, not to the previous scenario; the solver undoes a scenario's changes before
+ * applying the next one.
+ *
+ * <pre>{@code
+ * ScenarioSet scenarios = ScenarioSet.builder()
+ *         .scenario().rowBounds(1, 5.0, 12.0)
+ *         .scenario().rowBounds(1, 5.0, 9.0).cost(0, 2.0)
+ *         .build();
+ * }</pre>
+ */
+public class ScenarioSet {
+    static final byte KIND_ROW_BOUNDS = 0;
+    static final byte KIND_COL_BOUNDS = 1;
+    static final byte KIND_COST = 2;
+
+    // Changes of scenario s are at positions starts[s] .. starts[s + 1] - 1
+    private final int[] starts;
+    private final byte[] kinds;
+    private final int[] indices;
+    // New lower bound or cost
+    private final double[] lower;
+    // New upper bound; unused for costs
+    private final double[] upper;
+
+    private ScenarioSet(int[] starts, byte[] kinds, int[] indices, double[] lower, double[] upper) {
+        this.starts = starts;
+        this.kinds = kinds;
+        this.indices = indices;
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getNumScenarios() {
+        return starts.length - 1;
+    }
+
+    public int getNumChanges() {
+        return kinds.length;
+    }
+
+    int[] starts() {
+        return starts;
+    }
+
+    byte[] kinds() {
+        return kinds;
+    }
+
+    int[] indices() {
+        return indices;
+    }
+
+    double[] lower() {
+        return lower;
+    }
+
+    double[] upper() {
+        return upper;
+    }
+
+    // Largest column and row index referenced by any change, for validation against the model
+    int maxColIndex() {
+        int max = -1;
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] != KIND_ROW_BOUNDS) max = Math.max(max, indices[i]);
+        }
+        return max;
+    }
+
+    int maxRowIndex() {
+        int max = -1;
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] == KIND_ROW_BOUNDS) max = Math.max(max, indices[i]);
+        }
+        return max;
+    }
+
+    public static class Builder {
+        private int[] starts = new int[]{0};
+        private int numScenarios = 0;
+        private byte[] kinds = new byte[16];
+        private int[] indices = new int[16];
+        private double[] lower = new double[16];
+        private double[] upper = new double[16];
+        private int size = 0;
+
+        private Builder() {
+        }
+
+        /**
+         * Starts a new scenario; subsequent changes belong to it. A scenario without changes
+         * solves the loaded model as is.
+         */
+        public Builder scenario() {
+            if (numScenarios + 2 > starts.length) {
+                starts = Arrays.copyOf(starts, Math.max(4, starts.length * 2));
+            }
+            numScenarios++;
+            starts[numScenarios] = size;
+            return this;
+        }
+
+        public Builder rowBounds(int row, double rowLower, double rowUpper) {
+            return add(KIND_ROW_BOUNDS, row, rowLower, rowUpper);
+        }
+
+        public Builder colBounds(int col, double colLower, double colUpper) {
+            return add(KIND_COL_BOUNDS, col, colLower, colUpper);
+        }
+
+        public Builder cost(int col, double cost) {
+            return add(KIND_COST, col, cost, 0.0);
+        }
+
+        public ScenarioSet build() {
+            return new ScenarioSet(Arrays.copyOf(starts, numScenarios + 1), Arrays.copyOf(kinds, size),
+                    Arrays.copyOf(indices, size), Arrays.copyOf(lower, size), Arrays.copyOf(upper, size));
+        }
+
+        private Builder add(byte kind, int index, double value, double upperValue) {
+            if (numScenarios == 0) {
+                throw new IllegalStateException("Call scenario() before adding changes");
+            }
+            if (index < 0) {
+                throw new IllegalArgumentException("Index cannot be negative");
+            }
+            if (size == kinds.length) {
+                int capacity = size * 2;
+                kinds = Arrays.copyOf(kinds, capacity);
+                indices = Arrays.copyOf(indices, capacity);
+                lower = Arrays.copyOf(lower, capacity);
+                upper = Arrays.copyOf(upper, capacity);
+            }
+            kinds[size] = kind;
+            indices[size] = index;
+            lower[size] = value;
+            upper[size] = upperValue;
+            size++;
+            starts[numScenarios] = size;
+            return this;
+        }
+    }
+}
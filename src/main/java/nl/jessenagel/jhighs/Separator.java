@@ -0,0 +1,11 @@
+package nl.jessenagel.jhighs;
+
+/**
+ * Finds rows violated by the current solution of a {@link CutLoop} and adds them to its
+ * {@link RowPool}. Rows that are not violated may be added as well; the loop only moves violated
+ * rows into the model. The solution instance is reused by the loop and must not be kept.
+ */
+@FunctionalInterface
+public interface Separator {
+    void separate(Solution solution, RowPool pool);
+}
@@ -1,14 +1,38 @@
 package nl.jessenagel.jhighs;
 
+import java.nio.DoubleBuffer;
+
+/**
+ * Primal and dual solution of a solve. Instances filled by {@link HiGHS#getSolution(Solution)}
+ * are reused between solves, so the array views handed out here are read-only and reflect the
+ * latest fill rather than being copied.
+ */
 public class Solution {
-    private final double[] variableValues;
-    private final double objectiveValue;
+    // Written by the native layer in HiGHS.getSolution
+    private double[] variableValues;
+    private double[] reducedCosts;
+    private double[] rowValues;
+    private double[] dualValues;
+    private double objectiveValue;
+    private boolean primalValid;
+    private boolean dualValid;
+
+    public Solution() {
+        this(new double[0], 0.0);
+    }
 
     public Solution(double[] variableValues, double objectiveValue) {
         this.variableValues = variableValues.clone();
+        this.reducedCosts = new double[0];
+        this.rowValues = new double[0];
+        this.dualValues = new double[0];
         this.objectiveValue = objectiveValue;
+        this.primalValid = true;
     }
 
+    /**
+     * Returns a copy of the primal column values; see {@link #variableValues()} for a view.
+     */
     public double[] getVariableValues() {
         return variableValues.clone();
     }
@@ -17,11 +41,71 @@ public class Solution {
         return variableValues[index];
     }
 
+    public double getReducedCost(int index) {
+        return reducedCosts[index];
+    }
+
+    public double getRowValue(int index) {
+        return rowValues[index];
+    }
+
+    public double getDualValue(int index) {
+        return dualValues[index];
+    }
+
+    public DoubleBuffer variableValues() {
+        return DoubleBuffer.wrap(variableValues).asReadOnlyBuffer();
+    }
+
+    public DoubleBuffer reducedCosts() {
+        return DoubleBuffer.wrap(reducedCosts).asReadOnlyBuffer();
+    }
+
+    public DoubleBuffer rowValues() {
+        return DoubleBuffer.wrap(rowValues).asReadOnlyBuffer();
+    }
+
+    public DoubleBuffer dualValues() {
+        return DoubleBuffer.wrap(dualValues).asReadOnlyBuffer();
+    }
+
     public double getObjectiveValue() {
         return objectiveValue;
     }
 
+    public boolean isPrimalValid() {
+        return primalValid;
+    }
+
+    public boolean isDualValid() {
+        return dualValid;
+    }
+
     public int getNumVariables() {
         return variableValues.length;
     }
+
+    public int getNumConstraints() {
+        return rowValues.length;
+    }
+
+    /**
+     * Deep copy, so a cached solution cannot be changed through a later fill of the copy.
+     */
+    Solution copy() {
+        Solution copy = new Solution();
+        copy.variableValues = variableValues.clone();
+        copy.reducedCosts = reducedCosts.clone();
+        copy.rowValues = rowValues.clone();
+        copy.dualValues = dualValues.clone();
+        copy.objectiveValue = objectiveValue;
+        copy.primalValid = primalValid;
+        copy.dualValid = dualValid;
+        return copy;
+    }
+
+    // Heap bytes held by the value arrays
+    long estimateBytes() {
+        return 8L * (variableValues.length + reducedCosts.length + rowValues.length + dualValues.length);
+    }
 }
@@ -0,0 +1,213 @@
+package nl.jessenagel.jhighs;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Result cache in front of {@link HiGHS#solve()} for workloads that submit the same model
+ * repeatedly. Results are keyed by {@link HiGHS#getModelFingerprint()}, so a lookup costs one
+ * native pass over the model arrays instead of a solve. Entries hold the solution and statuses and
+ * are evicted least recently used first once their estimated size exceeds the memory budget.
+ *
+ * <p>With bases kept, every entry also stores the final simplex basis, and a miss on a model with
+ * the same dimensions and matrix as a cached one, differing only in costs, bounds or integrality,
+ * starts from that basis.
+ *
+ * <p>Only results that do not depend on limits or timing are cached: optimal, infeasible,
+ * unbounded and empty models. The key does not cover options, so solvers sharing a cache should be
+ * configured alike. A cache may be shared between threads.
+ *
+ * <pre>{@code
+ * SolutionCache cache = new SolutionCache(64L << 20, true);
+ * SolveResult result = cache.solve(solver);
+ * double[] x = result.getSolution().getVariableValues();
+ * }</pre>
+ */
+public class SolutionCache {
+    // Rough size of an entry apart from its arrays: entry, boxed key and map node
+    private static final long ENTRY_OVERHEAD = 160;
+
+    private final long maxBytes;
+    private final boolean keepBases;
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Most recent entry with a basis for every structure hash
+    private final Map<Long, Entry> bases = new HashMap<>();
+    private long bytesUsed;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long warmStarts;
+
+    private static final class Entry {
+        final long key;
+        final long structure;
+        final HighsStatus status;
+        final ModelStatus modelStatus;
+        final double objectiveValue;
+        final Solution solution;
+        final Basis basis;
+        final long bytes;
+
+        Entry(long key, long structure, HighsStatus status, ModelStatus modelStatus, double objectiveValue,
+              Solution solution, Basis basis) {
+            this.key = key;
+            this.structure = structure;
+            this.status = status;
+            this.modelStatus = modelStatus;
+            this.objectiveValue = objectiveValue;
+            this.solution = solution;
+            this.basis = basis;
+            long basisBytes = basis == null ? 0 : basis.getNumCols() + basis.getNumRows();
+            this.bytes = ENTRY_OVERHEAD + solution.estimateBytes() + basisBytes;
+        }
+    }
+
+    public SolutionCache(long maxBytes) {
+        this(maxBytes, false);
+    }
+
+    /**
+     * @param maxBytes  memory budget for the cached solutions and bases
+     * @param keepBases whether to store bases and warm-start misses on models with a cached
+     *                  structure
+     */
+    public SolutionCache(long maxBytes, boolean keepBases) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive");
+        }
+        this.maxBytes = maxBytes;
+        this.keepBases = keepBases;
+    }
+
+    /**
+     * Returns the cached result for the model loaded in {@code solver}, or solves it and caches
+     * the result. On a hit the solver is left untouched, so the solution must be read from the
+     * returned result rather than from the solver; the returned solution is a copy that the caller
+     * owns.
+     */
+    public SolveResult solve(HiGHS solver) {
+        long[] fingerprints = solver.getFingerprints();
+        long key = fingerprints[0];
+        long structure = fingerprints[1];
+        int numCol = solver.getNumVars();
+        int numRow = solver.getNumConstraints();
+
+        Basis warmStart = null;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.solution.getNumVariables() == numCol
+                    && entry.solution.getNumConstraints() == numRow) {
+                hits++;
+                return new SolveResult(entry.status, entry.modelStatus, entry.objectiveValue,
+                        entry.solution.copy(), true);
+            }
+            misses++;
+            Entry similar = keepBases ? bases.get(structure) : null;
+            if (similar != null && similar.basis.getNumCols() == numCol && similar.basis.getNumRows() == numRow) {
+                warmStart = similar.basis;
+                warmStarts++;
+            }
+        }
+
+        if (warmStart != null) {
+            solver.setBasis(warmStart);
+        }
+        HighsStatus status = solver.solve();
+        ModelStatus modelStatus = solver.getModelStatus();
+        double objectiveValue = solver.getObjectiveValue();
+        Solution solution = solver.getSolution();
+        if (status != HighsStatus.kError && isCacheable(modelStatus)) {
+            Basis basis = keepBases ? solver.getBasis() : null;
+            put(new Entry(key, structure, status, modelStatus, objectiveValue, solution.copy(), basis));
+        }
+        return new SolveResult(status, modelStatus, objectiveValue, solution, false);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bases.clear();
+        bytesUsed = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the estimated heap bytes held by the cached solutions and bases.
+     */
+    public synchronized long getBytesUsed() {
+        return bytesUsed;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the fraction of lookups served from the cache, or 0 before the first lookup.
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of misses that started from the basis of a cached model with the same
+     * structure.
+     */
+    public synchronized long getWarmStarts() {
+        return warmStarts;
+    }
+
+    private synchronized void put(Entry entry) {
+        if (entry.bytes > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(entry.key, entry);
+        if (previous != null) {
+            remove(previous);
+        }
+        bytesUsed += entry.bytes;
+        if (entry.basis != null) {
+            bases.put(entry.structure, entry);
+        }
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytesUsed > maxBytes && eldest.hasNext()) {
+            Entry evicted = eldest.next();
+            eldest.remove();
+            remove(evicted);
+            evictions++;
+        }
+    }
+
+    // Releases the accounting and basis index of an entry already taken out of the map
+    private void remove(Entry entry) {
+        bytesUsed -= entry.bytes;
+        if (entry.basis != null && bases.get(entry.structure) == entry) {
+            bases.remove(entry.structure);
+        }
+    }
+
+    private static boolean isCacheable(ModelStatus modelStatus) {
+        return switch (modelStatus) {
+            case kOptimal, kInfeasible, kUnboundedOrInfeasible, kUnbounded, kModelEmpty -> true;
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package nl.jessenagel.jhighs;
+
+/**
+ * Progress data of one HiGHS callback. A solver passes the same instance to every callback and
+ * native code fills it in place, so delivering an event does not allocate; listeners must copy
+ * any values they want to keep after {@link SolveListener#onEvent} returns.
+ */
+public class SolveEvent {
+    // Slots of data, in the order native code writes them
+    static final int RUNNING_TIME = 0;
+    static final int SIMPLEX_ITERATIONS = 1;
+    static final int IPM_ITERATIONS = 2;
+    static final int OBJECTIVE_VALUE = 3;
+    static final int MIP_NODE_COUNT = 4;
+    static final int MIP_TOTAL_LP_ITERATIONS = 5;
+    static final int MIP_PRIMAL_BOUND = 6;
+    static final int MIP_DUAL_BOUND = 7;
+    static final int MIP_GAP = 8;
+    static final int NUM_SLOTS = 9;
+
+    private static final CallbackType[] TYPES = CallbackType.values();
+
+    private final double[] data = new double[NUM_SLOTS];
+    private int type;
+    private String message;
+    private double[] mipSolution;
+    private boolean interruptRequested;
+
+    SolveEvent() {
+    }
+
+    public CallbackType getType() {
+        return TYPES[type];
+    }
+
+    /**
+     * Returns the log line for {@link CallbackType#kLogging} events, or {@code null}.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    public double getRunningTime() {
+        return data[RUNNING_TIME];
+    }
+
+    public long getSimplexIterations() {
+        return (long) data[SIMPLEX_ITERATIONS];
+    }
+
+    public long getIpmIterations() {
+        return (long) data[IPM_ITERATIONS];
+    }
+
+    public double getObjectiveValue() {
+        return data[OBJECTIVE_VALUE];
+    }
+
+    public long getMipNodeCount() {
+        return (long) data[MIP_NODE_COUNT];
+    }
+
+    public long getMipTotalLpIterations() {
+        return (long) data[MIP_TOTAL_LP_ITERATIONS];
+    }
+
+    public double getMipPrimalBound() {
+        return data[MIP_PRIMAL_BOUND];
+    }
+
+    public double getMipDualBound() {
+        return data[MIP_DUAL_BOUND];
+    }
+
+    public double getMipGap() {
+        return data[MIP_GAP];
+    }
+
+    /**
+     * Returns the new incumbent for {@link CallbackType#kMipSolution} and
+     * {@link CallbackType#kMipImprovingSolution} events. The array is reused across events.
+     */
+    public double[] getMipSolution() {
+        return mipSolution;
+    }
+
+    /**
+     * Asks the solver to stop at its next interrupt check, e.g. once the gap is small enough.
+     * The solve finishes with {@link ModelStatus#kInterrupt}.
+     */
+    public void interrupt() {
+        interruptRequested = true;
+    }
+}
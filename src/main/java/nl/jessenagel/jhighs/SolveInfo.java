@@ -0,0 +1,159 @@
+package nl.jessenagel.jhighs;
+
+/**
+ * Statistics of the last solve, read from the HiGHS {@code HighsInfo} in one native call by
+ * {@link HiGHS#getSolveInfo()}.
+ */
+public class SolveInfo {
+    // Slots of the array filled by native code, in the order it writes them
+    static final int VALID = 0;
+    static final int SIMPLEX_ITERATIONS = 1;
+    static final int IPM_ITERATIONS = 2;
+    static final int CROSSOVER_ITERATIONS = 3;
+    static final int PDLP_ITERATIONS = 4;
+    static final int QP_ITERATIONS = 5;
+    static final int MIP_NODE_COUNT = 6;
+    static final int OBJECTIVE_VALUE = 7;
+    static final int MIP_DUAL_BOUND = 8;
+    static final int MIP_GAP = 9;
+    static final int MAX_INTEGRALITY_VIOLATION = 10;
+    static final int PRIMAL_SOLUTION_STATUS = 11;
+    static final int DUAL_SOLUTION_STATUS = 12;
+    static final int BASIS_VALIDITY = 13;
+    static final int NUM_PRIMAL_INFEASIBILITIES = 14;
+    static final int MAX_PRIMAL_INFEASIBILITY = 15;
+    static final int SUM_PRIMAL_INFEASIBILITIES = 16;
+    static final int NUM_DUAL_INFEASIBILITIES = 17;
+    static final int MAX_DUAL_INFEASIBILITY = 18;
+    static final int SUM_DUAL_INFEASIBILITIES = 19;
+    static final int RUN_TIME = 20;
+    static final int PRESOLVE_COLS_REMOVED = 21;
+    static final int PRESOLVE_ROWS_REMOVED = 22;
+    static final int NUM_SLOTS = 23;
+
+    private final double[] values;
+    private final ModelStatus modelStatus;
+    private final long wallTimeNanos;
+
+    SolveInfo(double[] values, ModelStatus modelStatus, long wallTimeNanos) {
+        this.values = values;
+        this.modelStatus = modelStatus;
+        this.wallTimeNanos = wallTimeNanos;
+    }
+
+    /**
+     * Returns whether HiGHS considers the info values valid, which is the case after a solve.
+     */
+    public boolean isValid() {
+        return values[VALID] != 0.0;
+    }
+
+    public ModelStatus getModelStatus() {
+        return modelStatus;
+    }
+
+    public long getSimplexIterations() {
+        return (long) values[SIMPLEX_ITERATIONS];
+    }
+
+    public long getIpmIterations() {
+        return (long) values[IPM_ITERATIONS];
+    }
+
+    public long getCrossoverIterations() {
+        return (long) values[CROSSOVER_ITERATIONS];
+    }
+
+    public long getPdlpIterations() {
+        return (long) values[PDLP_ITERATIONS];
+    }
+
+    public long getQpIterations() {
+        return (long) values[QP_ITERATIONS];
+    }
+
+    public long getMipNodeCount() {
+        return (long) values[MIP_NODE_COUNT];
+    }
+
+    public double getObjectiveValue() {
+        return values[OBJECTIVE_VALUE];
+    }
+
+    public double getMipDualBound() {
+        return values[MIP_DUAL_BOUND];
+    }
+
+    public double getMipGap() {
+        return values[MIP_GAP];
+    }
+
+    public double getMaxIntegralityViolation() {
+        return values[MAX_INTEGRALITY_VIOLATION];
+    }
+
+    /**
+     * Returns the HiGHS solution status code: 0 none, 1 infeasible, 2 feasible.
+     */
+    public int getPrimalSolutionStatus() {
+        return (int) values[PRIMAL_SOLUTION_STATUS];
+    }
+
+    public int getDualSolutionStatus() {
+        return (int) values[DUAL_SOLUTION_STATUS];
+    }
+
+    /**
+     * Returns the HiGHS basis validity code: 0 invalid, 1 valid.
+     */
+    public int getBasisValidity() {
+        return (int) values[BASIS_VALIDITY];
+    }
+
+    public long getNumPrimalInfeasibilities() {
+        return (long) values[NUM_PRIMAL_INFEASIBILITIES];
+    }
+
+    public double getMaxPrimalInfeasibility() {
+        return values[MAX_PRIMAL_INFEASIBILITY];
+    }
+
+    public double getSumPrimalInfeasibilities() {
+        return values[SUM_PRIMAL_INFEASIBILITIES];
+    }
+
+    public long getNumDualInfeasibilities() {
+        return (long) values[NUM_DUAL_INFEASIBILITIES];
+    }
+
+    public double getMaxDualInfeasibility() {
+        return values[MAX_DUAL_INFEASIBILITY];
+    }
+
+    public double getSumDualInfeasibilities() {
+        return values[SUM_DUAL_INFEASIBILITIES];
+    }
+
+    /**
+     * Returns the HiGHS run clock in seconds.
+     */
+    public double getRunTime() {
+        return values[RUN_TIME];
+    }
+
+    /**
+     * Returns the wall-clock time of the last {@code solve()} call as seen from Java, including the
+     * JNI transition.
+     */
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+
+    public long getPresolveColsRemoved() {
+        return (long) values[PRESOLVE_COLS_REMOVED];
+    }
+
+    public long getPresolveRowsRemoved() {
+        return (long) values[PRESOLVE_ROWS_REMOVED];
+    }
+}
@@ -0,0 +1,44 @@
+package nl.jessenagel.jhighs;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted for every {@link HiGHS#solve()} when a recording has it enabled;
+ * when JFR is off the event is never filled or committed.
+ */
+@Name("nl.jessenagel.jhighs.Solve")
+@Label("HiGHS Solve")
+@Category("jhighs")
+@Description("One HiGHS solve with its outcome and iteration counts")
+final class SolveJfrEvent extends Event {
+    @Label("Model Status")
+    String modelStatus;
+
+    @Label("Objective Value")
+    double objectiveValue;
+
+    @Label("Simplex Iterations")
+    long simplexIterations;
+
+    @Label("IPM Iterations")
+    long ipmIterations;
+
+    @Label("MIP Nodes")
+    long mipNodeCount;
+
+    @Label("MIP Gap")
+    double mipGap;
+
+    void fill(SolveInfo info) {
+        modelStatus = info.getModelStatus().name();
+        objectiveValue = info.getObjectiveValue();
+        simplexIterations = info.getSimplexIterations();
+        ipmIterations = info.getIpmIterations();
+        mipNodeCount = info.getMipNodeCount();
+        mipGap = info.getMipGap();
+    }
+}
@@ -0,0 +1,12 @@
+package nl.jessenagel.jhighs;
+
+/**
+ * Receives progress events from a running solve; see {@link HiGHS#setSolveListener}.
+ * The listener runs on the solving thread inside the HiGHS callback, so it should return quickly.
+ * An exception thrown by the listener interrupts the solve and is rethrown from
+ * {@link HiGHS#solve()}.
+ */
+@FunctionalInterface
+public interface SolveListener {
+    void onEvent(SolveEvent event);
+}
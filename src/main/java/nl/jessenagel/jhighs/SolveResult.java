@@ -0,0 +1,53 @@
+package nl.jessenagel.jhighs;
+
+/**
+ * Outcome of a solve started with {@link HiGHS#solveAsync(java.util.concurrent.Executor)} or
+ * {@link SolutionCache#solve(HiGHS)}.
+ */
+public class SolveResult {
+    private final HighsStatus status;
+    private final ModelStatus modelStatus;
+    private final double objectiveValue;
+    private final Solution solution;
+    private final boolean cached;
+
+    public SolveResult(HighsStatus status, ModelStatus modelStatus, double objectiveValue) {
+        this(status, modelStatus, objectiveValue, null, false);
+    }
+
+    SolveResult(HighsStatus status, ModelStatus modelStatus, double objectiveValue, Solution solution,
+                boolean cached) {
+        this.status = status;
+        this.modelStatus = modelStatus;
+        this.objectiveValue = objectiveValue;
+        this.solution = solution;
+        this.cached = cached;
+    }
+
+    public HighsStatus getStatus() {
+        return status;
+    }
+
+    public ModelStatus getModelStatus() {
+        return modelStatus;
+    }
+
+    public double getObjectiveValue() {
+        return objectiveValue;
+    }
+
+    /**
+     * Returns the solution, or {@code null} for results of {@link HiGHS#solveAsync}, which leave
+     * the solution in the solver.
+     */
+    public Solution getSolution() {
+        return solution;
+    }
+
+    /**
+     * Returns whether the result was served from a {@link SolutionCache} without solving.
+     */
+    public boolean isCached() {
+        return cached;
+    }
+}
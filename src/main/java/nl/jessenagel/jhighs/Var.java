@@ -0,0 +1,49 @@
+package nl.jessenagel.jhighs;
+
+/**
+ * Column of a {@link Model}. Instances are lightweight handles: two handles of the same model
+ * and index are equal.
+ */
+public final class Var {
+    private final Model model;
+    private final int index;
+
+    Var(Model model, int index) {
+        this.model = model;
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Name given when the variable was added, or {@code null}.
+     */
+    public String getName() {
+        return model.getVarName(index);
+    }
+
+    /**
+     * Value of this variable in the last solution of its model.
+     */
+    public double getValue() {
+        return model.getValue(this);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Var var && var.model == model && var.index == index;
+    }
+
+    @Override
+    public int hashCode() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        String name = getName();
+        return name != null ? name : "x" + index;
+    }
+}
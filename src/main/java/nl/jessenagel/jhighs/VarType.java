@@ -7,13 +7,15 @@ public enum VarType {
     kSemiInteger(3),
     kSemiSemiInteger(4);
     private final int value;
+    // values() copies the array on every call
+    private static final VarType[] VALUES = values();
 
     VarType(int value) {
         this.value = value;
     }
 
     public static VarType fromInt(int value) {
-        for (VarType type : values()) {
+        for (VarType type : VALUES) {
             if (type.value == value) return type;
         }
         throw new IllegalArgumentException("Unknown variable type: " + value);
@@ -1,29 +1,232 @@
 // highs_jni.cpp - JNI bridge between Java and HiGHS C++ library
 #include <jni.h>
 #include "Highs.h"  // HiGHS C++ header
+#include "jni_utils.h"
 #include <memory>
 #include <vector>
+#include <algorithm>
+#include <atomic>
+#include <limits>
+#include <cstdint>
+#include <cstring>
 
-// Helper function to convert Java array to C++ vector
-std::vector<double> jdoubleArrayToVector(JNIEnv* env, jdoubleArray jarray) {
-    jsize length = env->GetArrayLength(jarray);
-    jdouble* elements = env->GetDoubleArrayElements(jarray, nullptr);
-    std::vector<double> result(elements, elements + length);
-    env->ReleaseDoubleArrayElements(jarray, elements, JNI_ABORT);
-    return result;
+using jni_utils::CriticalArray;
+using jni_utils::StringChars;
+using jni_utils::cache;
+using jni_utils::jdoubleArrayToVector;
+using jni_utils::jintArrayToVector;
+
+// Map the Java VarType value onto the HiGHS variable type
+bool toHighsVarType(jint varTypeInt, HighsVarType& varType) {
+    switch (varTypeInt) {
+        case 0: varType = HighsVarType::kContinuous; break;
+        case 1: varType = HighsVarType::kInteger; break;
+        case 2: varType = HighsVarType::kSemiContinuous; break;
+        case 3: varType = HighsVarType::kSemiInteger; break;
+        case 4: varType = HighsVarType::kImplicitInteger; break;
+        default: return false;
+    }
+    return true;
+}
+
+// Report a failed option lookup as an IllegalArgumentException
+void throwUnknownOption(JNIEnv* env, const char* paramName) {
+    std::string message = std::string("Unknown option or wrong option type: ") + paramName;
+    jni_utils::throwIllegalArgumentException(env, message.c_str());
+}
+
+// Address of a direct buffer, or nullptr for heap buffers
+template <typename T>
+T* directBufferAddress(JNIEnv* env, jobject buffer) {
+    if (buffer == nullptr) return nullptr;
+    return static_cast<T*>(env->GetDirectBufferAddress(buffer));
+}
+
+// Combine two statuses, keeping the worse one
+HighsStatus worseStatus(HighsStatus a, HighsStatus b) {
+    if (a == HighsStatus::kError || b == HighsStatus::kError) return HighsStatus::kError;
+    if (a == HighsStatus::kWarning || b == HighsStatus::kWarning) return HighsStatus::kWarning;
+    return HighsStatus::kOk;
+}
+
+// Apply one packed scenario change; kinds match the constants in ScenarioSet
+HighsStatus applyScenarioChange(Highs* solver, jbyte kind, HighsInt index, double lower, double upper) {
+    switch (kind) {
+        case 0: return solver->changeRowBounds(index, lower, upper);
+        case 1: return solver->changeColBounds(index, lower, upper);
+        case 2: return solver->changeColCost(index, lower);
+        default: return HighsStatus::kError;
+    }
+}
+
+// Streaming 64-bit hash over the model arrays, mixing one 64-bit word at a time
+struct ModelHash {
+    uint64_t h = 0x9E3779B97F4A7C15ULL;
+
+    void add(uint64_t word) {
+        word *= 0xBF58476D1CE4E5B9ULL;
+        word ^= word >> 31;
+        h = (h ^ word) * 0x94D049BB133111EBULL;
+        h ^= h >> 29;
+    }
+
+    void add(double value) {
+        // Adding 0.0 maps -0.0 onto 0.0 so equal bounds hash equally
+        value += 0.0;
+        uint64_t bits;
+        std::memcpy(&bits, &value, sizeof(bits));
+        add(bits);
+    }
+
+    void add(const std::vector<double>& values, size_t count) {
+        add(static_cast<uint64_t>(count));
+        for (size_t i = 0; i < count; i++) {
+            add(values[i]);
+        }
+    }
+
+    void add(const std::vector<HighsInt>& values, size_t count) {
+        add(static_cast<uint64_t>(count));
+        for (size_t i = 0; i < count; i++) {
+            add(static_cast<uint64_t>(static_cast<int64_t>(values[i])));
+        }
+    }
+};
+
+// Per-solver state shared with the HiGHS user callback
+struct CallbackContext {
+    std::atomic<bool> interruptRequested{false};
+    Highs* solver = nullptr;
+
+    // Java listener; only changed while no solve is running
+    jobject listener = nullptr;   // global ref
+    jobject event = nullptr;      // global ref to the reused SolveEvent
+    jthrowable error = nullptr;   // global ref to an exception thrown by the listener
+    int listenerMask = 0;
+};
+
+void releaseListener(JNIEnv* env, CallbackContext* context) {
+    if (context->listener != nullptr) env->DeleteGlobalRef(context->listener);
+    if (context->event != nullptr) env->DeleteGlobalRef(context->event);
+    if (context->error != nullptr) env->DeleteGlobalRef(context->error);
+    context->listener = nullptr;
+    context->event = nullptr;
+    context->error = nullptr;
+    context->listenerMask = 0;
 }
 
-std::vector<int> jintArrayToVector(JNIEnv* env, jintArray jarray) {
-    jsize length = env->GetArrayLength(jarray);
-    jint* elements = env->GetIntArrayElements(jarray, nullptr);
-    std::vector<int> result(elements, elements + length);
-    env->ReleaseIntArrayElements(jarray, elements, JNI_ABORT);
-    return result;
+// Copy the callback data into the reused Java event and invoke the listener
+void deliverEvent(CallbackContext* context, int callbackType, const std::string& message,
+                  const HighsCallbackDataOut* dataOut) {
+    // Java cannot be called while this thread has an array pinned, e.g. for a log line
+    // emitted by a bulk model edit; such events are dropped
+    if (jni_utils::criticalDepth() > 0) return;
+
+    const jni_utils::JniCache& ids = cache();
+    JNIEnv* env = nullptr;
+    if (ids.vm->GetEnv(reinterpret_cast<void**>(&env), JNI_VERSION_1_6) != JNI_OK &&
+        ids.vm->AttachCurrentThreadAsDaemon(reinterpret_cast<void**>(&env), nullptr) != JNI_OK) {
+        return;
+    }
+    // Stop calling a listener that already failed during this solve
+    if (context->error != nullptr) return;
+
+    jobject event = context->event;
+    jdouble data[] = {
+        dataOut->running_time,
+        static_cast<double>(dataOut->simplex_iteration_count),
+        static_cast<double>(dataOut->ipm_iteration_count),
+        dataOut->objective_function_value,
+        static_cast<double>(dataOut->mip_node_count),
+        static_cast<double>(dataOut->mip_total_lp_iterations),
+        dataOut->mip_primal_bound,
+        dataOut->mip_dual_bound,
+        dataOut->mip_gap,
+    };
+    jdoubleArray dataArray = static_cast<jdoubleArray>(env->GetObjectField(event, ids.eventData));
+    env->SetDoubleArrayRegion(dataArray, 0, sizeof(data) / sizeof(data[0]), data);
+    env->DeleteLocalRef(dataArray);
+    env->SetIntField(event, ids.eventType, callbackType);
+
+    jstring jmessage = callbackType == kCallbackLogging ? env->NewStringUTF(message.c_str()) : nullptr;
+    env->SetObjectField(event, ids.eventMessage, jmessage);
+
+    if ((callbackType == kCallbackMipSolution || callbackType == kCallbackMipImprovingSolution) &&
+        dataOut->mip_solution != nullptr) {
+        jsize numCol = static_cast<jsize>(context->solver->getNumCol());
+        // The incumbent array is only reallocated when the column count changes
+        jdoubleArray solution = static_cast<jdoubleArray>(env->GetObjectField(event, ids.eventMipSolution));
+        if (solution == nullptr || env->GetArrayLength(solution) != numCol) {
+            if (solution != nullptr) env->DeleteLocalRef(solution);
+            solution = env->NewDoubleArray(numCol);
+            env->SetObjectField(event, ids.eventMipSolution, solution);
+        }
+        if (solution != nullptr) {
+            env->SetDoubleArrayRegion(solution, 0, numCol, dataOut->mip_solution);
+            env->DeleteLocalRef(solution);
+        }
+    }
+
+    if (!env->ExceptionCheck()) {
+        env->CallVoidMethod(context->listener, ids.listenerOnEvent, event);
+    }
+    if (env->ExceptionCheck()) {
+        jthrowable thrown = env->ExceptionOccurred();
+        env->ExceptionClear();
+        context->error = static_cast<jthrowable>(env->NewGlobalRef(thrown));
+        env->DeleteLocalRef(thrown);
+        context->interruptRequested.store(true, std::memory_order_relaxed);
+    } else if (env->GetBooleanField(event, ids.eventInterruptRequested)) {
+        env->SetBooleanField(event, ids.eventInterruptRequested, JNI_FALSE);
+        context->interruptRequested.store(true, std::memory_order_relaxed);
+    }
+    if (jmessage != nullptr) env->DeleteLocalRef(jmessage);
+}
+
+void highsCallback(int callbackType, const std::string& message,
+                   const HighsCallbackDataOut* dataOut, HighsCallbackDataIn* dataIn,
+                   void* userData) {
+    CallbackContext* context = static_cast<CallbackContext*>(userData);
+    if (context->listener != nullptr && dataOut != nullptr && callbackType >= 0 && callbackType < 32 &&
+        ((context->listenerMask >> callbackType) & 1)) {
+        deliverEvent(context, callbackType, message, dataOut);
+    }
+    if (dataIn != nullptr && context->interruptRequested.load(std::memory_order_relaxed)) {
+        dataIn->user_interrupt = 1;
+    }
 }
 
 // JNI function implementations
 extern "C" {
+// Library Lifecycle Functions
+
+JNIEXPORT jint JNICALL
+JNI_OnLoad(JavaVM* vm, void* reserved) {
+    JNIEnv* env = nullptr;
+    if (vm->GetEnv(reinterpret_cast<void**>(&env), JNI_VERSION_1_6) != JNI_OK) return JNI_ERR;
+
+    // Resolve classes and member IDs once instead of on every call
+    if (!jni_utils::initCache(env, vm)) return JNI_ERR;
+    return JNI_VERSION_1_6;
+}
+
+JNIEXPORT void JNICALL
+JNI_OnUnload(JavaVM* vm, void* reserved) {
+    JNIEnv* env = nullptr;
+    if (vm->GetEnv(reinterpret_cast<void**>(&env), JNI_VERSION_1_6) != JNI_OK) return;
+    jni_utils::releaseCache(env);
+}
+
 // Model Management Functions
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_resetOptions(JNIEnv* env, jobject obj, jlong solverPtr) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    HighsStatus status = solver->resetOptions();
+    return static_cast<jint>(status);
+}
+
 JNIEXPORT jint JNICALL
 Java_nl_jessenagel_jhighs_HiGHS_clearModel(JNIEnv* env, jobject obj, jlong solverPtr) {
     if (solverPtr == 0) return -1;
@@ -48,9 +251,8 @@ Java_nl_jessenagel_jhighs_HiGHS_writeModel(JNIEnv* env, jobject obj, jlong solve
     if (solverPtr == 0) return -1;
 
     Highs* solver = reinterpret_cast<Highs*>(solverPtr);
-    const char* cFilename = env->GetStringUTFChars(filename, NULL);
-    HighsStatus status = solver->writeModel(cFilename);
-    env->ReleaseStringUTFChars(filename, cFilename);
+    StringChars cFilename(env, filename);
+    HighsStatus status = solver->writeModel(cFilename.c_str());
     return static_cast<jint>(status);
 }
 
@@ -59,9 +261,18 @@ Java_nl_jessenagel_jhighs_HiGHS_writeSolution(JNIEnv* env, jobject obj, jlong so
     if (solverPtr == 0) return -1;
 
     Highs* solver = reinterpret_cast<Highs*>(solverPtr);
-    const char* cFilename = env->GetStringUTFChars(filename, NULL);
-    HighsStatus status = solver->writeSolution(cFilename);
-    env->ReleaseStringUTFChars(filename, cFilename);
+    StringChars cFilename(env, filename);
+    HighsStatus status = solver->writeSolution(cFilename.c_str());
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_readSolution(JNIEnv* env, jobject obj, jlong solverPtr, jstring filename) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    StringChars cFilename(env, filename);
+    HighsStatus status = solver->readSolution(cFilename.c_str());
     return static_cast<jint>(status);
 }
 
@@ -71,31 +282,230 @@ Java_nl_jessenagel_jhighs_HiGHS_createSolver(JNIEnv* env, jobject obj) {
         Highs* solver = new Highs();
         return reinterpret_cast<jlong>(solver);
     } catch (const std::exception& e) {
-        // Throw Java exception
-        jclass exceptionClass = env->FindClass("java/lang/RuntimeException");
-        env->ThrowNew(exceptionClass, e.what());
+        jni_utils::throwRuntimeException(env, e.what());
         return 0;
     }
 }
 
 JNIEXPORT void JNICALL
-Java_nl_jessenagel_jhighs_HiGHS_destroySolver(JNIEnv* env, jobject obj, jlong solverPtr) {
+Java_nl_jessenagel_jhighs_HiGHS_destroySolver(JNIEnv* env, jclass cls, jlong solverPtr) {
     if (solverPtr != 0) {
         Highs* solver = reinterpret_cast<Highs*>(solverPtr);
         delete solver;
     }
 }
 
+JNIEXPORT jlong JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_estimateNativeBytes(JNIEnv* env, jclass cls, jlong solverPtr) {
+    if (solverPtr == 0) return 0;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    jlong numCol = solver->getNumCol();
+    jlong numRow = solver->getNumRow();
+    jlong numNz = solver->getNumNz();
+
+    // Model: costs, bounds and integrality per column, bounds per row, packed matrix
+    jlong model = numCol * (3 * sizeof(double) + sizeof(HighsVarType) + sizeof(HighsInt))
+                + numRow * 2 * sizeof(double)
+                + numNz * (sizeof(double) + sizeof(HighsInt));
+    // Solution, basis and the solver's own copy of the matrix
+    jlong solve = (numCol + numRow) * (2 * sizeof(double) + sizeof(HighsBasisStatus))
+                + numNz * (sizeof(double) + sizeof(HighsInt));
+    return static_cast<jlong>(sizeof(Highs)) + model + solve;
+}
+
 JNIEXPORT jint JNICALL
 Java_nl_jessenagel_jhighs_HiGHS_readModel(JNIEnv* env, jobject obj, jlong solverPtr, jstring filename) {
     if (solverPtr == 0) return -1;
     
     Highs* solver = reinterpret_cast<Highs*>(solverPtr);
-    const char* filenameStr = env->GetStringUTFChars(filename, nullptr);
-    
-    HighsStatus status = solver->readModel(std::string(filenameStr));
-    
-    env->ReleaseStringUTFChars(filename, filenameStr);
+    StringChars cFilename(env, filename);
+    HighsStatus status = solver->readModel(std::string(cFilename.c_str()));
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_getModel(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jdoubleArray colCosts, jdoubleArray colLower, jdoubleArray colUpper,
+                        jdoubleArray rowLower, jdoubleArray rowUpper,
+                        jintArray starts, jintArray indices, jdoubleArray values,
+                        jbyteArray integrality, jdoubleArray objective) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    const HighsLp& lp = solver->getLp();
+    HighsSparseMatrix matrix = lp.a_matrix_;
+    matrix.ensureColwise();
+
+    jsize numCol = static_cast<jsize>(lp.num_col_);
+    jsize numRow = static_cast<jsize>(lp.num_row_);
+    jsize numNz = static_cast<jsize>(matrix.numNz());
+    if (env->GetArrayLength(colCosts) != numCol || env->GetArrayLength(rowLower) != numRow
+            || env->GetArrayLength(starts) != numCol + 1 || env->GetArrayLength(indices) != numNz) {
+        return -1; // Error: model changed size since the arrays were allocated
+    }
+
+    env->SetDoubleArrayRegion(colCosts, 0, numCol, lp.col_cost_.data());
+    env->SetDoubleArrayRegion(colLower, 0, numCol, lp.col_lower_.data());
+    env->SetDoubleArrayRegion(colUpper, 0, numCol, lp.col_upper_.data());
+    env->SetDoubleArrayRegion(rowLower, 0, numRow, lp.row_lower_.data());
+    env->SetDoubleArrayRegion(rowUpper, 0, numRow, lp.row_upper_.data());
+    std::vector<jint> start(matrix.start_.begin(), matrix.start_.begin() + numCol + 1);
+    env->SetIntArrayRegion(starts, 0, numCol + 1, start.data());
+    if (numNz > 0) {
+        std::vector<jint> index(matrix.index_.begin(), matrix.index_.begin() + numNz);
+        env->SetIntArrayRegion(indices, 0, numNz, index.data());
+        env->SetDoubleArrayRegion(values, 0, numNz, matrix.value_.data());
+    }
+    if (!lp.integrality_.empty()) {
+        std::vector<jbyte> types(numCol);
+        for (jsize i = 0; i < numCol; i++) {
+            types[i] = static_cast<jbyte>(lp.integrality_[i]);
+        }
+        env->SetByteArrayRegion(integrality, 0, numCol, types.data());
+    }
+
+    jdouble objectiveData[] = {lp.sense_ == ObjSense::kMinimize ? 1.0 : -1.0, lp.offset_};
+    env->SetDoubleArrayRegion(objective, 0, 2, objectiveData);
+    return static_cast<jint>(HighsStatus::kOk);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_fingerprint(JNIEnv* env, jobject obj, jlong solverPtr, jlongArray result) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    const HighsLp& lp = solver->getLp();
+    // Hash the matrix column-wise whatever its storage, so loading row-wise or a solve that
+    // converts the matrix does not change the key; only a row-wise matrix is copied
+    const HighsSparseMatrix* matrix = &lp.a_matrix_;
+    HighsSparseMatrix colwise;
+    if (!matrix->isColwise()) {
+        colwise = lp.a_matrix_;
+        colwise.ensureColwise();
+        matrix = &colwise;
+    }
+    size_t numCol = static_cast<size_t>(lp.num_col_);
+    size_t numRow = static_cast<size_t>(lp.num_row_);
+    size_t numNz = static_cast<size_t>(matrix->numNz());
+
+    // The structure hash covers the dimensions and the matrix, so models that differ only in
+    // costs, bounds or integrality share it and can share a basis
+    ModelHash hash;
+    hash.add(static_cast<uint64_t>(numCol));
+    hash.add(static_cast<uint64_t>(numRow));
+    hash.add(matrix->start_, numCol + 1);
+    hash.add(matrix->index_, numNz);
+    hash.add(matrix->value_, numNz);
+    jlong structure = static_cast<jlong>(hash.h);
+
+    hash.add(static_cast<uint64_t>(static_cast<int64_t>(lp.sense_)));
+    hash.add(lp.offset_);
+    hash.add(lp.col_cost_, numCol);
+    hash.add(lp.col_lower_, numCol);
+    hash.add(lp.col_upper_, numCol);
+    hash.add(lp.row_lower_, numRow);
+    hash.add(lp.row_upper_, numRow);
+    // Only integer-like columns count, so no integrality and all-continuous integrality agree
+    for (size_t col = 0; col < lp.integrality_.size(); col++) {
+        if (lp.integrality_[col] != HighsVarType::kContinuous) {
+            hash.add(static_cast<uint64_t>(col));
+            hash.add(static_cast<uint64_t>(lp.integrality_[col]));
+        }
+    }
+
+    jlong hashes[] = {static_cast<jlong>(hash.h), structure};
+    env->SetLongArrayRegion(result, 0, 2, hashes);
+    return static_cast<jint>(HighsStatus::kOk);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_passModel(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jint numCol, jint numRow, jint format,
+                        jintArray starts, jintArray indices, jdoubleArray values,
+                        jdoubleArray colCosts, jdoubleArray colLower, jdoubleArray colUpper,
+                        jdoubleArray rowLower, jdoubleArray rowUpper,
+                        jboolean minimize, jdouble offset, jbyteArray integrality) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+
+    jsize numNz = env->GetArrayLength(indices);
+    if (env->GetArrayLength(values) != numNz) {
+        return -1; // Error: mismatched array sizes
+    }
+
+    // passModel takes integrality as HighsInt codes of HighsVarType
+    std::vector<HighsInt> types;
+    if (integrality != nullptr) {
+        jsize len = env->GetArrayLength(integrality);
+        CriticalArray<const jbyte> elements(env, integrality);
+        if (elements.failed()) return -1;
+        types.resize(len);
+        bool valid = true;
+        for (jsize i = 0; i < len && valid; i++) {
+            HighsVarType varType = HighsVarType::kContinuous;
+            valid = toHighsVarType(elements[i], varType);
+            types[i] = static_cast<HighsInt>(varType);
+        }
+        if (!valid) return -1; // Invalid type
+    }
+
+    // passModel copies everything into its own HighsLp, so the arrays are pinned rather
+    // than copied twice
+    CriticalArray<const HighsInt> aStart(env, starts);
+    CriticalArray<const HighsInt> aIndex(env, indices);
+    CriticalArray<const double> aValue(env, values);
+    CriticalArray<const double> cost(env, colCosts);
+    CriticalArray<const double> colLo(env, colLower);
+    CriticalArray<const double> colUp(env, colUpper);
+    CriticalArray<const double> rowLo(env, rowLower);
+    CriticalArray<const double> rowUp(env, rowUpper);
+    if (aStart.failed() || aIndex.failed() || aValue.failed() || cost.failed() ||
+        colLo.failed() || colUp.failed() || rowLo.failed() || rowUp.failed()) {
+        return -1;
+    }
+
+    HighsInt sense = static_cast<HighsInt>(minimize ? ObjSense::kMinimize : ObjSense::kMaximize);
+    HighsStatus status = solver->passModel(numCol, numRow, numNz, format,
+                                           sense, offset, cost.get(), colLo.get(), colUp.get(),
+                                           rowLo.get(), rowUp.get(),
+                                           aStart.get(), aIndex.get(), aValue.get(),
+                                           types.empty() ? nullptr : types.data());
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_passModelDirect(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jint numCol, jint numRow, jint format, jint numNz,
+                        jobject starts, jobject indices, jobject values,
+                        jobject colCosts, jobject colLower, jobject colUpper,
+                        jobject rowLower, jobject rowUpper,
+                        jboolean minimize, jdouble offset) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+
+    // Read straight from the caller's off-heap memory
+    const HighsInt* aStart = directBufferAddress<HighsInt>(env, starts);
+    const HighsInt* aIndex = directBufferAddress<HighsInt>(env, indices);
+    const double* aValue = directBufferAddress<double>(env, values);
+    const double* cost = directBufferAddress<double>(env, colCosts);
+    const double* colLo = directBufferAddress<double>(env, colLower);
+    const double* colUp = directBufferAddress<double>(env, colUpper);
+    const double* rowLo = directBufferAddress<double>(env, rowLower);
+    const double* rowUp = directBufferAddress<double>(env, rowUpper);
+
+    if ((numCol > 0 && (cost == nullptr || colLo == nullptr || colUp == nullptr)) ||
+        (numRow > 0 && (rowLo == nullptr || rowUp == nullptr)) ||
+        (numNz > 0 && (aStart == nullptr || aIndex == nullptr || aValue == nullptr))) {
+        return -1; // Error: not a direct buffer
+    }
+
+    HighsInt sense = static_cast<HighsInt>(minimize ? ObjSense::kMinimize : ObjSense::kMaximize);
+    HighsStatus status = solver->passModel(numCol, numRow, numNz, format, sense, offset,
+                                           cost, colLo, colUp, rowLo, rowUp,
+                                           aStart, aIndex, aValue);
     return static_cast<jint>(status);
 }
 
@@ -109,7 +519,7 @@ Java_nl_jessenagel_jhighs_HiGHS_run(JNIEnv* env, jobject obj, jlong solverPtr) {
 }
 
 JNIEXPORT jint JNICALL
-Java_nl_jessenagel_jhighs_HiGHS_getModelStatus(JNIEnv* env, jobject obj, jlong solverPtr) {
+Java_nl_jessenagel_jhighs_HiGHS_getModelStatus(JNIEnv* env, jclass cls, jlong solverPtr) {
     if (solverPtr == 0) return -1;
     
     Highs* solver = reinterpret_cast<Highs*>(solverPtr);
@@ -117,11 +527,159 @@ Java_nl_jessenagel_jhighs_HiGHS_getModelStatus(JNIEnv* env, jobject obj, jlong s
     return static_cast<jint>(status);
 }
 
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_getInfo(JNIEnv* env, jobject obj, jlong solverPtr, jdoubleArray values) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    const HighsInfo& info = solver->getInfo();
+    double colsRemoved = 0;
+    double rowsRemoved = 0;
+    for (const HighsPresolveRuleLog& rule : solver->getPresolveLog().rule) {
+        colsRemoved += rule.col_removed;
+        rowsRemoved += rule.row_removed;
+    }
+
+    // Same slot order as the constants in SolveInfo
+    jdouble data[] = {
+        static_cast<double>(info.valid),
+        static_cast<double>(info.simplex_iteration_count),
+        static_cast<double>(info.ipm_iteration_count),
+        static_cast<double>(info.crossover_iteration_count),
+        static_cast<double>(info.pdlp_iteration_count),
+        static_cast<double>(info.qp_iteration_count),
+        static_cast<double>(info.mip_node_count),
+        info.objective_function_value,
+        info.mip_dual_bound,
+        info.mip_gap,
+        info.max_integrality_violation,
+        static_cast<double>(info.primal_solution_status),
+        static_cast<double>(info.dual_solution_status),
+        static_cast<double>(info.basis_validity),
+        static_cast<double>(info.num_primal_infeasibilities),
+        info.max_primal_infeasibility,
+        info.sum_primal_infeasibilities,
+        static_cast<double>(info.num_dual_infeasibilities),
+        info.max_dual_infeasibility,
+        info.sum_dual_infeasibilities,
+        solver->getRunTime(),
+        colsRemoved,
+        rowsRemoved,
+    };
+    jsize length = static_cast<jsize>(sizeof(data) / sizeof(data[0]));
+    if (env->GetArrayLength(values) < length) {
+        return -1; // Error: array too small
+    }
+    env->SetDoubleArrayRegion(values, 0, length, data);
+    return static_cast<jint>(HighsStatus::kOk);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_getNumCol(JNIEnv* env, jclass cls, jlong solverPtr) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    return static_cast<jint>(solver->getNumCol());
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_getNumRow(JNIEnv* env, jclass cls, jlong solverPtr) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    return static_cast<jint>(solver->getNumRow());
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_getNumNz(JNIEnv* env, jobject obj, jlong solverPtr) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    return static_cast<jint>(solver->getNumNz());
+}
+
+// Callback Functions
+
+JNIEXPORT jlong JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_createCallbackContext(JNIEnv* env, jobject obj, jlong solverPtr) {
+    if (solverPtr == 0) return 0;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    CallbackContext* context = new CallbackContext();
+    context->solver = solver;
+    solver->setCallback(HighsCallbackFunctionType(highsCallback), context);
+    solver->startCallback(kCallbackSimplexInterrupt);
+    solver->startCallback(kCallbackIpmInterrupt);
+    solver->startCallback(kCallbackMipInterrupt);
+    return reinterpret_cast<jlong>(context);
+}
+
+JNIEXPORT void JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_destroyCallbackContext(JNIEnv* env, jclass cls, jlong solverPtr, jlong contextPtr) {
+    if (contextPtr == 0) return;
+
+    if (solverPtr != 0) {
+        Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+        solver->setCallback(HighsCallbackFunctionType(), nullptr);
+    }
+    CallbackContext* context = reinterpret_cast<CallbackContext*>(contextPtr);
+    releaseListener(env, context);
+    delete context;
+}
+
+JNIEXPORT void JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_setInterrupt(JNIEnv* env, jclass cls, jlong contextPtr, jboolean requested) {
+    if (contextPtr == 0) return;
+
+    CallbackContext* context = reinterpret_cast<CallbackContext*>(contextPtr);
+    context->interruptRequested.store(requested == JNI_TRUE, std::memory_order_relaxed);
+}
+
+JNIEXPORT void JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_setListener(JNIEnv* env, jobject obj, jlong solverPtr, jlong contextPtr,
+                        jobject listener, jobject event, jint typeMask) {
+    if (solverPtr == 0 || contextPtr == 0) return;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    CallbackContext* context = reinterpret_cast<CallbackContext*>(contextPtr);
+    releaseListener(env, context);
+
+    if (listener != nullptr) {
+        // Method and field IDs come from the cache filled in JNI_OnLoad
+        context->listener = env->NewGlobalRef(listener);
+        context->event = env->NewGlobalRef(event);
+        context->listenerMask = typeMask;
+    }
+
+    // Interrupt callbacks stay active for interrupt(); the others follow the listener
+    for (int type = kCallbackLogging; type <= kCallbackMipInterrupt; type++) {
+        bool interruptType = type == kCallbackSimplexInterrupt || type == kCallbackIpmInterrupt ||
+                             type == kCallbackMipInterrupt;
+        if (interruptType || ((context->listenerMask >> type) & 1)) {
+            solver->startCallback(type);
+        } else {
+            solver->stopCallback(type);
+        }
+    }
+}
+
+JNIEXPORT jthrowable JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_takeListenerError(JNIEnv* env, jobject obj, jlong contextPtr) {
+    if (contextPtr == 0) return nullptr;
+
+    CallbackContext* context = reinterpret_cast<CallbackContext*>(contextPtr);
+    if (context->error == nullptr) return nullptr;
+    jthrowable error = static_cast<jthrowable>(env->NewLocalRef(context->error));
+    env->DeleteGlobalRef(context->error);
+    context->error = nullptr;
+    return error;
+}
+
 // Variable Manipulation Functions
 
 
 JNIEXPORT jint JNICALL
-Java_nl_jessenagel_jhighs_HiGHS_addVariable(JNIEnv* env, jobject obj, jlong solverPtr, 
+Java_nl_jessenagel_jhighs_HiGHS_addVariable(JNIEnv* env, jclass cls, jlong solverPtr, 
                       jdouble lowerBound, jdouble upperBound) {
     if (solverPtr == 0) return -1;
     
@@ -131,29 +689,83 @@ Java_nl_jessenagel_jhighs_HiGHS_addVariable(JNIEnv* env, jobject obj, jlong solv
 }
 
 JNIEXPORT jint JNICALL
-Java_nl_jessenagel_jhighs_HiGHS_addVariables(JNIEnv* env, jobject obj, jlong solverPtr,
-                        jdoubleArray lowerBounds, jdoubleArray upperBounds) {
+Java_nl_jessenagel_jhighs_HiGHS_addVariables(JNIEnv* env, jobject obj, jlong solverPtr, jint count,
+                        jdoubleArray lowerBounds, jdoubleArray upperBounds, jdoubleArray costs) {
     if (solverPtr == 0) return -1;
 
     Highs* solver = reinterpret_cast<Highs*>(solverPtr);
 
-    // Convert Java arrays to C++ vectors
-    std::vector<double> lower = jdoubleArrayToVector(env, lowerBounds);
-    std::vector<double> upper = jdoubleArrayToVector(env, upperBounds);
+    if (env->GetArrayLength(lowerBounds) != count || env->GetArrayLength(upperBounds) != count ||
+        env->GetArrayLength(costs) != count) {
+        return -1; // Error: mismatched array sizes
+    }
+
+    CriticalArray<const double> lower(env, lowerBounds);
+    CriticalArray<const double> upper(env, upperBounds);
+    CriticalArray<const double> cost(env, costs);
+    if (lower.failed() || upper.failed() || cost.failed()) return -1;
+    HighsStatus status = solver->addCols(count, cost.get(), lower.get(), upper.get(),
+                                        0, nullptr, nullptr, nullptr);
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_addColumns(JNIEnv* env, jobject obj, jlong solverPtr, jint count,
+                        jdoubleArray costs, jdoubleArray lowerBounds, jdoubleArray upperBounds,
+                        jbyteArray integrality, jintArray starts, jintArray indices, jdoubleArray values) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
 
-    if (lower.size() != upper.size()) {
+    jsize numNz = indices != nullptr ? env->GetArrayLength(indices) : 0;
+    if ((values != nullptr ? env->GetArrayLength(values) : 0) != numNz) {
         return -1; // Error: mismatched array sizes
     }
 
-    // Convert lower.size() to HighsInt
-    HighsInt numVars = static_cast<HighsInt>(lower.size());
+    // Translate integrality up front so a bad type leaves the model untouched
+    std::vector<HighsVarType> types;
+    if (integrality != nullptr) {
+        jsize len = env->GetArrayLength(integrality);
+        CriticalArray<const jbyte> elements(env, integrality);
+        if (elements.failed()) return -1;
+        types.resize(len);
+        bool valid = true;
+        for (jsize i = 0; i < len && valid; i++) {
+            valid = toHighsVarType(elements[i], types[i]);
+        }
+        if (!valid) return -1; // Invalid type
+    }
+
+    HighsInt firstCol = solver->getNumCol();
+    HighsStatus status;
+    {
+        // HiGHS copies the columns, so the arrays are only pinned for the call
+        CriticalArray<const double> cost(env, costs);
+        CriticalArray<const double> lower(env, lowerBounds);
+        CriticalArray<const double> upper(env, upperBounds);
+        CriticalArray<const HighsInt> aStart(env, starts);
+        CriticalArray<const HighsInt> aIndex(env, indices);
+        CriticalArray<const double> aValue(env, values);
+        if (cost.failed() || lower.failed() || upper.failed() ||
+            aStart.failed() || aIndex.failed() || aValue.failed()) {
+            return -1;
+        }
+        status = solver->addCols(count, cost.get(), lower.get(), upper.get(), numNz,
+                                 aStart.get(), aIndex.get(), aValue.get());
+    }
+    if (status == HighsStatus::kError || types.empty() || count == 0) {
+        return static_cast<jint>(status);
+    }
 
-    HighsStatus status = solver->addVars(numVars, lower.data(), upper.data());
+    HighsStatus typeStatus = solver->changeColsIntegrality(firstCol, firstCol + count - 1, types.data());
+    if (typeStatus != HighsStatus::kOk) {
+        return static_cast<jint>(typeStatus);
+    }
     return static_cast<jint>(status);
 }
 
 JNIEXPORT jint JNICALL
-Java_nl_jessenagel_jhighs_HiGHS_deleteVariable(JNIEnv* env, jobject obj, jlong solverPtr, jint variableIndex) {
+Java_nl_jessenagel_jhighs_HiGHS_deleteVariable(JNIEnv* env, jclass cls, jlong solverPtr, jint variableIndex) {
     if (solverPtr == 0) return -1;
 
     Highs* solver = reinterpret_cast<Highs*>(solverPtr);
@@ -162,7 +774,7 @@ Java_nl_jessenagel_jhighs_HiGHS_deleteVariable(JNIEnv* env, jobject obj, jlong s
 }
 
 JNIEXPORT jint JNICALL
-Java_nl_jessenagel_jhighs_HiGHS_changeVariableBounds(JNIEnv* env, jobject obj, jlong solverPtr,
+Java_nl_jessenagel_jhighs_HiGHS_changeVariableBounds(JNIEnv* env, jclass cls, jlong solverPtr,
                         jint variableIndex, jdouble lowerBound, jdouble upperBound) {
     if (solverPtr == 0) return -1;
 
@@ -172,182 +784,435 @@ Java_nl_jessenagel_jhighs_HiGHS_changeVariableBounds(JNIEnv* env, jobject obj, j
 }
 
 JNIEXPORT jint JNICALL
-Java_nl_jessenagel_jhighs_HiGHS_changeColIntegrality(JNIEnv* env, jobject obj, jlong solverPtr,
+Java_nl_jessenagel_jhighs_HiGHS_changeColIntegrality(JNIEnv* env, jclass cls, jlong solverPtr,
                         jint variableIndex, jint varTypeInt) {
     if (solverPtr == 0) return -1;
     HighsVarType varType = HighsVarType::kContinuous;
-    switch (varTypeInt) {
-        case 0: varType = HighsVarType::kContinuous; break;
-        case 1: varType = HighsVarType::kInteger; break;
-        case 2: varType = HighsVarType::kSemiContinuous; break;
-        case 3: varType = HighsVarType::kSemiInteger; break;
-        case 4: varType = HighsVarType::kImplicitInteger; break;
-        default: return -1; // Invalid type
+    if (!toHighsVarType(varTypeInt, varType)) {
+        return -1; // Invalid type
     }
     Highs* solver = reinterpret_cast<Highs*>(solverPtr);
     HighsStatus status = solver->changeColIntegrality(variableIndex, varType);
     return static_cast<jint>(status);
 }
 
-// Constraint Manipulation Functions
-
 JNIEXPORT jint JNICALL
-Java_nl_jessenagel_jhighs_HiGHS_addConstraint(JNIEnv* env, jobject obj, jlong solverPtr,
-                        jdoubleArray coefficients, jintArray variableIndices,
-                        jdouble lowerBound, jdouble upperBound) {
+Java_nl_jessenagel_jhighs_HiGHS_changeColsIntegralityByRange(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jint from, jint to, jbyteArray types) {
     if (solverPtr == 0) return -1;
-    
+
     Highs* solver = reinterpret_cast<Highs*>(solverPtr);
-    
-    // Convert Java arrays to C++ vectors
-    std::vector<double> coeffs = jdoubleArrayToVector(env, coefficients);
-    std::vector<int> indices = jintArrayToVector(env, variableIndices);
-    
-    if (coeffs.size() != indices.size()) {
-        return -1; // Error: mismatched array sizes
+    jsize length = env->GetArrayLength(types);
+    if (length != to - from + 1) {
+        return -1; // Error: mismatched array size
     }
-    
-    HighsStatus status = solver->addRow(lowerBound, upperBound, 
-                                       coeffs.size(), indices.data(), coeffs.data());
+    std::vector<jbyte> typeValues(length);
+    env->GetByteArrayRegion(types, 0, length, typeValues.data());
+    std::vector<HighsVarType> integrality(length);
+    for (jsize i = 0; i < length; i++) {
+        if (!toHighsVarType(typeValues[i], integrality[i])) {
+            return -1; // Invalid type
+        }
+    }
+
+    HighsStatus status = solver->changeColsIntegrality(from, to, integrality.data());
     return static_cast<jint>(status);
 }
 
 JNIEXPORT jint JNICALL
-Java_nl_jessenagel_jhighs_HiGHS_deleteConstraint(JNIEnv* env, jobject obj, jlong solverPtr, jint constraintIndex) {
+Java_nl_jessenagel_jhighs_HiGHS_changeColsIntegralityBySet(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jintArray indices, jbyteArray types) {
     if (solverPtr == 0) return -1;
 
     Highs* solver = reinterpret_cast<Highs*>(solverPtr);
-    HighsStatus status = solver->deleteRows(constraintIndex,constraintIndex);
+    jsize length = env->GetArrayLength(indices);
+    if (env->GetArrayLength(types) != length) {
+        return -1; // Error: mismatched array sizes
+    }
+    if (length == 0) return static_cast<jint>(HighsStatus::kOk);
+
+    std::vector<jbyte> typeValues(length);
+    env->GetByteArrayRegion(types, 0, length, typeValues.data());
+    std::vector<HighsVarType> integrality(length);
+    for (jsize i = 0; i < length; i++) {
+        if (!toHighsVarType(typeValues[i], integrality[i])) {
+            return -1; // Invalid type
+        }
+    }
+
+    CriticalArray<const HighsInt> set(env, indices);
+    if (set.failed()) return -1;
+    HighsStatus status = solver->changeColsIntegrality(length, set.get(), integrality.data());
     return static_cast<jint>(status);
 }
 
 JNIEXPORT jint JNICALL
-Java_nl_jessenagel_jhighs_HiGHS_changeConstraintBounds(JNIEnv* env, jobject obj, jlong solverPtr,
-                        jint constraintIndex, jdouble lowerBound, jdouble upperBound) {
+Java_nl_jessenagel_jhighs_HiGHS_deleteColsByRange(JNIEnv* env, jobject obj, jlong solverPtr, jint from, jint to) {
     if (solverPtr == 0) return -1;
 
     Highs* solver = reinterpret_cast<Highs*>(solverPtr);
-    HighsStatus status = solver->changeRowBounds(constraintIndex, lowerBound, upperBound);
+    HighsStatus status = solver->deleteCols(from, to);
     return static_cast<jint>(status);
 }
 
-// Objective Function Manipulation Functions
-
-JNIEXPORT jint JNICALL Java_nl_jessenagel_jhighs_HiGHS_setObjective
-  (JNIEnv *env, jobject obj, jlong solverPtr, jdoubleArray coeffs, jintArray indices, jboolean minimize, jdouble offset) {
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_deleteColsBySet(JNIEnv* env, jobject obj, jlong solverPtr, jintArray indices) {
+    if (solverPtr == 0) return -1;
 
-  // Convert solver pointer
-  Highs *highs = (Highs *)(intptr_t)solverPtr;
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
 
-  // Get arrays from Java
-  jsize len = env->GetArrayLength(coeffs);
-  jdouble *coefficients = env->GetDoubleArrayElements(coeffs, nullptr);
-  jint *varIndices = env->GetIntArrayElements(indices, nullptr);
+    // HiGHS expects a strictly increasing set
+    std::vector<int> set = jintArrayToVector(env, indices);
+    std::sort(set.begin(), set.end());
+    set.erase(std::unique(set.begin(), set.end()), set.end());
+    if (set.empty()) return static_cast<jint>(HighsStatus::kOk);
 
-  // Set objective sense
-  if (highs->changeObjectiveSense(minimize ? ObjSense::kMinimize : ObjSense::kMaximize) != HighsStatus::kOk) {
-    env->ReleaseDoubleArrayElements(coeffs, coefficients, JNI_ABORT);
-    env->ReleaseIntArrayElements(indices, varIndices, JNI_ABORT);
-    return (jint)HighsStatus::kError;
-  }
+    HighsStatus status = solver->deleteCols(static_cast<HighsInt>(set.size()), set.data());
+    return static_cast<jint>(status);
+}
 
-  // Set objective offset
-  if (highs->changeObjectiveOffset(offset) != HighsStatus::kOk) {
-    env->ReleaseDoubleArrayElements(coeffs, coefficients, JNI_ABORT);
-    env->ReleaseIntArrayElements(indices, varIndices, JNI_ABORT);
-    return (jint)HighsStatus::kError;
-  }
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_deleteColsByMask(JNIEnv* env, jobject obj, jlong solverPtr, jintArray mask) {
+    if (solverPtr == 0) return -1;
 
-  // Set coefficients one by one
-  for (jsize i = 0; i < len; i++) {
-    int col = varIndices[i];
-    double cost = coefficients[i];
-    if (highs->changeColCost(col, cost) != HighsStatus::kOk) {
-      env->ReleaseDoubleArrayElements(coeffs, coefficients, JNI_ABORT);
-      env->ReleaseIntArrayElements(indices, varIndices, JNI_ABORT);
-      return (jint)HighsStatus::kError;
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    if (env->GetArrayLength(mask) != solver->getNumCol()) {
+        return -1; // Error: mask must cover every column
     }
-  }
-
-  // Release Java arrays
-  env->ReleaseDoubleArrayElements(coeffs, coefficients, JNI_ABORT);
-  env->ReleaseIntArrayElements(indices, varIndices, JNI_ABORT);
 
-  return (jint)HighsStatus::kOk;
+    // HiGHS rewrites the mask with the new indices, so copy it back to Java
+    CriticalArray<HighsInt> elements(env, mask, 0);
+    if (elements.failed()) return -1;
+    HighsStatus status = solver->deleteCols(elements.get());
+    return static_cast<jint>(status);
 }
 
-// Solution Management Functions
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_changeColsBoundsByRange(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jint from, jint to, jdoubleArray lowerBounds, jdoubleArray upperBounds) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    CriticalArray<const double> lower(env, lowerBounds);
+    CriticalArray<const double> upper(env, upperBounds);
+    if (lower.failed() || upper.failed()) return -1;
+    HighsStatus status = solver->changeColsBounds(from, to, lower.get(), upper.get());
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_changeColsBoundsBySet(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jintArray indices, jdoubleArray lowerBounds, jdoubleArray upperBounds) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    jsize len = env->GetArrayLength(indices);
+    if (len == 0) return static_cast<jint>(HighsStatus::kOk);
+
+    CriticalArray<const HighsInt> set(env, indices);
+    CriticalArray<const double> lower(env, lowerBounds);
+    CriticalArray<const double> upper(env, upperBounds);
+    if (set.failed() || lower.failed() || upper.failed()) return -1;
+    HighsStatus status = solver->changeColsBounds(len, set.get(), lower.get(), upper.get());
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_changeColsBoundsByMask(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jintArray mask, jdoubleArray lowerBounds, jdoubleArray upperBounds) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    if (env->GetArrayLength(mask) != solver->getNumCol()) {
+        return -1; // Error: mask must cover every column
+    }
+
+    CriticalArray<const HighsInt> elements(env, mask);
+    CriticalArray<const double> lower(env, lowerBounds);
+    CriticalArray<const double> upper(env, upperBounds);
+    if (elements.failed() || lower.failed() || upper.failed()) return -1;
+    HighsStatus status = solver->changeColsBounds(elements.get(), lower.get(), upper.get());
+    return static_cast<jint>(status);
+}
+
+// Constraint Manipulation Functions
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_addConstraint(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jdoubleArray coefficients, jintArray variableIndices,
+                        jdouble lowerBound, jdouble upperBound) {
+    if (solverPtr == 0) return -1;
+    
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    
+    jsize numNz = env->GetArrayLength(coefficients);
+    if (env->GetArrayLength(variableIndices) != numNz) {
+        return -1; // Error: mismatched array sizes
+    }
+
+    // HiGHS copies the row, so the arrays are only pinned for the call
+    CriticalArray<const double> coeffs(env, coefficients);
+    CriticalArray<const HighsInt> indices(env, variableIndices);
+    if (coeffs.failed() || indices.failed()) return -1;
+    HighsStatus status = solver->addRow(lowerBound, upperBound, numNz, indices.get(), coeffs.get());
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_addConstraints(JNIEnv* env, jobject obj, jlong solverPtr, jint count, jint numNz,
+                        jdoubleArray lowerBounds, jdoubleArray upperBounds,
+                        jintArray starts, jintArray indices, jdoubleArray values) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+
+    // The arrays may be longer than the rows they hold; only numNz entries are read
+    if (env->GetArrayLength(indices) < numNz || env->GetArrayLength(values) < numNz) {
+        return -1; // Error: arrays too short
+    }
+
+    // HiGHS copies the rows, so the arrays are only pinned for the call
+    CriticalArray<const double> lower(env, lowerBounds);
+    CriticalArray<const double> upper(env, upperBounds);
+    CriticalArray<const HighsInt> aStart(env, starts);
+    CriticalArray<const HighsInt> aIndex(env, indices);
+    CriticalArray<const double> aValue(env, values);
+    if (lower.failed() || upper.failed() || aStart.failed() || aIndex.failed() || aValue.failed()) {
+        return -1;
+    }
+
+    HighsStatus status = solver->addRows(count, lower.get(), upper.get(), numNz,
+                                        aStart.get(), aIndex.get(), aValue.get());
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_addConstraintsDirect(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jint count, jint numNz, jobject lowerBounds, jobject upperBounds,
+                        jobject starts, jobject indices, jobject values) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+
+    const double* lower = directBufferAddress<double>(env, lowerBounds);
+    const double* upper = directBufferAddress<double>(env, upperBounds);
+    const HighsInt* aStart = directBufferAddress<HighsInt>(env, starts);
+    const HighsInt* aIndex = directBufferAddress<HighsInt>(env, indices);
+    const double* aValue = directBufferAddress<double>(env, values);
+
+    if ((count > 0 && (lower == nullptr || upper == nullptr)) ||
+        (numNz > 0 && (aStart == nullptr || aIndex == nullptr || aValue == nullptr))) {
+        return -1; // Error: not a direct buffer
+    }
+
+    HighsStatus status = solver->addRows(count, lower, upper, numNz, aStart, aIndex, aValue);
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_deleteConstraint(JNIEnv* env, jclass cls, jlong solverPtr, jint constraintIndex) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    HighsStatus status = solver->deleteRows(constraintIndex,constraintIndex);
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_changeConstraintBounds(JNIEnv* env, jclass cls, jlong solverPtr,
+                        jint constraintIndex, jdouble lowerBound, jdouble upperBound) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    HighsStatus status = solver->changeRowBounds(constraintIndex, lowerBound, upperBound);
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_deleteRowsByRange(JNIEnv* env, jobject obj, jlong solverPtr, jint from, jint to) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    HighsStatus status = solver->deleteRows(from, to);
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_deleteRowsBySet(JNIEnv* env, jobject obj, jlong solverPtr, jintArray indices) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+
+    // HiGHS expects a strictly increasing set
+    std::vector<int> set = jintArrayToVector(env, indices);
+    std::sort(set.begin(), set.end());
+    set.erase(std::unique(set.begin(), set.end()), set.end());
+    if (set.empty()) return static_cast<jint>(HighsStatus::kOk);
+
+    HighsStatus status = solver->deleteRows(static_cast<HighsInt>(set.size()), set.data());
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_deleteRowsByMask(JNIEnv* env, jobject obj, jlong solverPtr, jintArray mask) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    if (env->GetArrayLength(mask) != solver->getNumRow()) {
+        return -1; // Error: mask must cover every row
+    }
+
+    // HiGHS rewrites the mask with the new indices, so copy it back to Java
+    CriticalArray<HighsInt> elements(env, mask, 0);
+    if (elements.failed()) return -1;
+    HighsStatus status = solver->deleteRows(elements.get());
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_changeRowsBoundsByRange(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jint from, jint to, jdoubleArray lowerBounds, jdoubleArray upperBounds) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    CriticalArray<const double> lower(env, lowerBounds);
+    CriticalArray<const double> upper(env, upperBounds);
+    if (lower.failed() || upper.failed()) return -1;
+    HighsStatus status = solver->changeRowsBounds(from, to, lower.get(), upper.get());
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_changeRowsBoundsBySet(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jintArray indices, jdoubleArray lowerBounds, jdoubleArray upperBounds) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    jsize len = env->GetArrayLength(indices);
+    if (len == 0) return static_cast<jint>(HighsStatus::kOk);
+
+    CriticalArray<const HighsInt> set(env, indices);
+    CriticalArray<const double> lower(env, lowerBounds);
+    CriticalArray<const double> upper(env, upperBounds);
+    if (set.failed() || lower.failed() || upper.failed()) return -1;
+    HighsStatus status = solver->changeRowsBounds(len, set.get(), lower.get(), upper.get());
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_changeRowsBoundsByMask(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jintArray mask, jdoubleArray lowerBounds, jdoubleArray upperBounds) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    if (env->GetArrayLength(mask) != solver->getNumRow()) {
+        return -1; // Error: mask must cover every row
+    }
 
-//
-//JNIEXPORT jdouble JNICALL
-//Java_nl_jessenagel_jhighs_HiGHS_getReducedCosts(JNIEnv* env, jobject obj, jlong solverPtr) {
-//    if (solverPtr == 0) return 0.0;
-//
-//    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
-//    const HighsSolution& solution = solver->getSolution();
-//
-//    jsize numVars = solution.col_value.size();
-//    jdoubleArray result = env->NewDoubleArray(numVars);
-//
-//    if (result != nullptr) {
-//        jdouble* reducedCosts = new jdouble[numVars];
-//        for (jsize i = 0; i < numVars; i++) {
-//            reducedCosts[i] = solution.col_dual[i];
-//        }
-//        env->SetDoubleArrayRegion(result, 0, numVars, reducedCosts);
-//        delete[] reducedCosts;
-//    }
-//
-//    return result;
-//}
-//
-//JNIEXPORT jdouble JNICALL
-//Java_nl_jessenagel_jhighs_HiGHS_getDualSolution(JNIEnv* env, jobject obj, jlong solverPtr) {
-//    if (solverPtr == 0) return 0.0;
-//
-//    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
-//    const HighsSolution& solution = solver->getSolution();
-//
-//    jsize numCons = solution.row_dual.size();
-//    jdoubleArray result = env->NewDoubleArray(numCons);
-//
-//    if (result != nullptr) {
-//        jdouble* dualValues = new jdouble[numCons];
-//        for (jsize i = 0; i < numCons; i++) {
-//            dualValues[i] = solution.row_dual[i];
-//        }
-//        env->SetDoubleArrayRegion(result, 0, numCons, dualValues);
-//        delete[] dualValues;
-//    }
-//
-//    return result;
-//}
-//
-//JNIEXPORT jdouble JNICALL
-//Java_nl_jessenagel_jhighs_HiGHS_getRowValues(JNIEnv* env, jobject obj, jlong solverPtr) {
-//    if (solverPtr == 0) return 0.0;
-//
-//    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
-//    const HighsSolution& solution = solver->getSolution();
-//
-//    jsize numCons = solution.row_value.size();
-//    jdoubleArray result = env->NewDoubleArray(numCons);
-//
-//    if (result != nullptr) {
-//        jdouble* rowValues = new jdouble[numCons];
-//        for (jsize i = 0; i < numCons; i++) {
-//            rowValues[i] = solution.row_value[i];
-//        }
-//        env->SetDoubleArrayRegion(result, 0, numCons, rowValues);
-//        delete[] rowValues;
-//    }
-//
-//    return result;
-//}
-//
+    CriticalArray<const HighsInt> elements(env, mask);
+    CriticalArray<const double> lower(env, lowerBounds);
+    CriticalArray<const double> upper(env, upperBounds);
+    if (elements.failed() || lower.failed() || upper.failed()) return -1;
+    HighsStatus status = solver->changeRowsBounds(elements.get(), lower.get(), upper.get());
+    return static_cast<jint>(status);
+}
+
+// Objective Function Manipulation Functions
+
+JNIEXPORT jint JNICALL Java_nl_jessenagel_jhighs_HiGHS_setObjective
+  (JNIEnv *env, jobject obj, jlong solverPtr, jdoubleArray coeffs, jintArray indices, jboolean minimize, jdouble offset) {
+
+  // Convert solver pointer
+  Highs *highs = (Highs *)(intptr_t)solverPtr;
+
+  // Only touch sense and offset when they actually change
+  ObjSense sense = minimize ? ObjSense::kMinimize : ObjSense::kMaximize;
+  ObjSense currentSense;
+  if (highs->getObjectiveSense(currentSense) != HighsStatus::kOk || currentSense != sense) {
+    if (highs->changeObjectiveSense(sense) != HighsStatus::kOk) {
+      return (jint)HighsStatus::kError;
+    }
+  }
+
+  double currentOffset;
+  if (highs->getObjectiveOffset(currentOffset) != HighsStatus::kOk || currentOffset != offset) {
+    if (highs->changeObjectiveOffset(offset) != HighsStatus::kOk) {
+      return (jint)HighsStatus::kError;
+    }
+  }
+
+  // Get arrays from Java
+  jsize len = env->GetArrayLength(coeffs);
+  if (len == 0) {
+    return (jint)HighsStatus::kOk;
+  }
+  CriticalArray<const double> coefficients(env, coeffs);
+  CriticalArray<const HighsInt> varIndices(env, indices);
+  if (coefficients.failed() || varIndices.failed()) {
+    return (jint)HighsStatus::kError;
+  }
+
+  // HiGHS rejects repeated indices in a set, so keep the last coefficient of each column as
+  // the per-column calls this replaced did
+  const HighsInt* set = varIndices.get();
+  const double* cost = coefficients.get();
+  bool increasing = true;
+  for (jsize i = 1; i < len && increasing; i++) {
+    increasing = set[i - 1] < set[i];
+  }
+  if (increasing) {
+    return (jint)highs->changeColsCost(len, set, cost);
+  }
+  std::vector<jsize> order(len);
+  for (jsize i = 0; i < len; i++) order[i] = i;
+  std::stable_sort(order.begin(), order.end(), [set](jsize a, jsize b) { return set[a] < set[b]; });
+  std::vector<HighsInt> mergedSet;
+  std::vector<double> mergedCost;
+  mergedSet.reserve(len);
+  mergedCost.reserve(len);
+  for (jsize i : order) {
+    if (!mergedSet.empty() && mergedSet.back() == set[i]) {
+      mergedCost.back() = cost[i];
+    } else {
+      mergedSet.push_back(set[i]);
+      mergedCost.push_back(cost[i]);
+    }
+  }
+  return (jint)highs->changeColsCost((HighsInt)mergedSet.size(), mergedSet.data(), mergedCost.data());
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_changeColsCostByRange(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jint fromCol, jint toCol, jdoubleArray costs) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    CriticalArray<const double> cost(env, costs);
+    if (cost.failed()) return -1;
+    HighsStatus status = solver->changeColsCost(fromCol, toCol, cost.get());
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_changeColsCostBySet(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jintArray colIndices, jdoubleArray costs) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    jsize len = env->GetArrayLength(colIndices);
+    if (len == 0) return static_cast<jint>(HighsStatus::kOk);
+
+    CriticalArray<const HighsInt> set(env, colIndices);
+    CriticalArray<const double> cost(env, costs);
+    if (set.failed() || cost.failed()) return -1;
+    HighsStatus status = solver->changeColsCost(len, set.get(), cost.get());
+    return static_cast<jint>(status);
+}
+
+// Solution Management Functions
 
 JNIEXPORT jdouble JNICALL
-Java_nl_jessenagel_jhighs_HiGHS_getObjectiveValue(JNIEnv* env, jobject obj, jlong solverPtr) {
+Java_nl_jessenagel_jhighs_HiGHS_getObjectiveValue(JNIEnv* env, jclass cls, jlong solverPtr) {
     if (solverPtr == 0) return 0.0;
 
     Highs* solver = reinterpret_cast<Highs*>(solverPtr);
@@ -355,107 +1220,377 @@ Java_nl_jessenagel_jhighs_HiGHS_getObjectiveValue(JNIEnv* env, jobject obj, jlon
     return info.objective_function_value;
 }
 
-JNIEXPORT jdoubleArray JNICALL
-Java_nl_jessenagel_jhighs_HiGHS_getSolutionValues(JNIEnv* env, jobject obj, jlong solverPtr) {
-    if (solverPtr == 0) return nullptr;
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_fillSolution(JNIEnv* env, jobject obj, jlong solverPtr, jobject target) {
+    if (solverPtr == 0 || target == nullptr) return -1;
 
     Highs* solver = reinterpret_cast<Highs*>(solverPtr);
     const HighsSolution& solution = solver->getSolution();
 
-    jsize numVars = solution.col_value.size();
-    jdoubleArray result = env->NewDoubleArray(numVars);
+    const jni_utils::JniCache& ids = cache();
+    const jfieldID arrayFields[] = {
+        ids.solutionVariableValues, ids.solutionReducedCosts, ids.solutionRowValues, ids.solutionDualValues,
+    };
+
+    const std::vector<double>* sources[] = {
+        &solution.col_value, &solution.col_dual, &solution.row_value, &solution.row_dual,
+    };
+    for (int i = 0; i < 4; i++) {
+        const std::vector<double>& source = *sources[i];
+        jsize length = static_cast<jsize>(source.size());
+
+        // Reuse the caller's array when it still has the right size
+        jdoubleArray array = static_cast<jdoubleArray>(env->GetObjectField(target, arrayFields[i]));
+        if (array == nullptr || env->GetArrayLength(array) != length) {
+            if (array != nullptr) env->DeleteLocalRef(array);
+            array = env->NewDoubleArray(length);
+            if (array == nullptr) return -1; // OutOfMemoryError pending
+            env->SetObjectField(target, arrayFields[i], array);
+        }
+        if (length > 0) {
+            env->SetDoubleArrayRegion(array, 0, length, source.data());
+        }
+        env->DeleteLocalRef(array);
+    }
+
+    env->SetDoubleField(target, ids.solutionObjectiveValue, solver->getInfo().objective_function_value);
+    env->SetBooleanField(target, ids.solutionPrimalValid, solution.value_valid ? JNI_TRUE : JNI_FALSE);
+    env->SetBooleanField(target, ids.solutionDualValid, solution.dual_valid ? JNI_TRUE : JNI_FALSE);
+    return static_cast<jint>(HighsStatus::kOk);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_getSolutionValuesDirect(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jobject values, jint capacity) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    const HighsSolution& solution = solver->getSolution();
+
+    jint numVars = static_cast<jint>(solution.col_value.size());
+    double* target = directBufferAddress<double>(env, values);
+    if (numVars > capacity || (numVars > 0 && target == nullptr)) {
+        return -1; // Error: buffer too small or not direct
+    }
+
+    std::copy(solution.col_value.begin(), solution.col_value.end(), target);
+    return numVars;
+}
+
+// Warm Start Functions
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_getBasis(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jbyteArray colStatus, jbyteArray rowStatus) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    const HighsBasis& basis = solver->getBasis();
+    if (!basis.valid ||
+        basis.col_status.size() != static_cast<size_t>(env->GetArrayLength(colStatus)) ||
+        basis.row_status.size() != static_cast<size_t>(env->GetArrayLength(rowStatus))) {
+        return static_cast<jint>(HighsStatus::kError);
+    }
+
+    // HighsBasisStatus is a uint8_t enum, so the statuses copy straight into the byte arrays
+    if (!basis.col_status.empty()) {
+        env->SetByteArrayRegion(colStatus, 0, static_cast<jsize>(basis.col_status.size()),
+                                reinterpret_cast<const jbyte*>(basis.col_status.data()));
+    }
+    if (!basis.row_status.empty()) {
+        env->SetByteArrayRegion(rowStatus, 0, static_cast<jsize>(basis.row_status.size()),
+                                reinterpret_cast<const jbyte*>(basis.row_status.data()));
+    }
+    return static_cast<jint>(HighsStatus::kOk);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_setBasis(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jbyteArray colStatus, jbyteArray rowStatus) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
 
-    if (result != nullptr) {
-        jdouble* values = new jdouble[numVars];
-        for (jsize i = 0; i < numVars; i++) {
-            values[i] = solution.col_value[i];
+    HighsBasis basis;
+    basis.valid = true;
+    basis.alien = false;
+    jsize numCol = env->GetArrayLength(colStatus);
+    jsize numRow = env->GetArrayLength(rowStatus);
+    basis.col_status.resize(numCol);
+    basis.row_status.resize(numRow);
+    if (numCol > 0) {
+        env->GetByteArrayRegion(colStatus, 0, numCol, reinterpret_cast<jbyte*>(basis.col_status.data()));
+    }
+    if (numRow > 0) {
+        env->GetByteArrayRegion(rowStatus, 0, numRow, reinterpret_cast<jbyte*>(basis.row_status.data()));
+    }
+
+    HighsStatus status = solver->setBasis(basis);
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_setSolution(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jdoubleArray colValues, jdoubleArray colDuals,
+                        jdoubleArray rowValues, jdoubleArray rowDuals) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+
+    HighsSolution solution;
+    // Only the column values are required; rows and duals may be null, e.g. for a MIP start
+    if (colValues != nullptr) solution.col_value = jdoubleArrayToVector(env, colValues);
+    if (rowValues != nullptr) solution.row_value = jdoubleArrayToVector(env, rowValues);
+    solution.value_valid = colValues != nullptr;
+    if (colDuals != nullptr && rowDuals != nullptr) {
+        solution.col_dual = jdoubleArrayToVector(env, colDuals);
+        solution.row_dual = jdoubleArrayToVector(env, rowDuals);
+        solution.dual_valid = true;
+    } else {
+        solution.dual_valid = false;
+    }
+
+    HighsStatus status = solver->setSolution(solution);
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_setSparseSolution(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jintArray colIndices, jdoubleArray colValues) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    std::vector<int> index = jintArrayToVector(env, colIndices);
+    std::vector<double> value = jdoubleArrayToVector(env, colValues);
+
+    if (index.size() != value.size()) {
+        return -1; // Error: mismatched array sizes
+    }
+
+    HighsStatus status = solver->setSolution(static_cast<HighsInt>(index.size()), index.data(), value.data());
+    return static_cast<jint>(status);
+}
+
+// Scenario Sweep Functions
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_solveScenarios(JNIEnv* env, jobject obj, jlong solverPtr,
+                        jintArray starts, jbyteArray kinds, jintArray indices,
+                        jdoubleArray lower, jdoubleArray upper,
+                        jintArray primalCols, jintArray dualRows,
+                        jintArray modelStatuses, jdoubleArray results) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    std::vector<int> start = jintArrayToVector(env, starts);
+    std::vector<int> index = jintArrayToVector(env, indices);
+    std::vector<double> newLower = jdoubleArrayToVector(env, lower);
+    std::vector<double> newUpper = jdoubleArrayToVector(env, upper);
+    std::vector<int> primal = jintArrayToVector(env, primalCols);
+    std::vector<int> dual = jintArrayToVector(env, dualRows);
+    std::vector<jbyte> kind(index.size());
+    if (!kind.empty()) {
+        env->GetByteArrayRegion(kinds, 0, static_cast<jsize>(kind.size()), kind.data());
+    }
+
+    const size_t numScenarios = start.empty() ? 0 : start.size() - 1;
+    const size_t stride = 1 + primal.size() + dual.size();
+    const double nan = std::numeric_limits<double>::quiet_NaN();
+    std::vector<double> row(stride);
+    std::vector<jint> statuses(numScenarios);
+    // Model values overwritten by the current scenario, restored before the next one
+    std::vector<double> savedLower(index.size());
+    std::vector<double> savedUpper(index.size());
+
+    HighsStatus worst = HighsStatus::kOk;
+    for (size_t s = 0; s < numScenarios; s++) {
+        const HighsLp& lp = solver->getLp();
+        for (int k = start[s]; k < start[s + 1]; k++) {
+            switch (kind[k]) {
+                case 0: savedLower[k] = lp.row_lower_[index[k]]; savedUpper[k] = lp.row_upper_[index[k]]; break;
+                case 1: savedLower[k] = lp.col_lower_[index[k]]; savedUpper[k] = lp.col_upper_[index[k]]; break;
+                default: savedLower[k] = lp.col_cost_[index[k]]; break;
+            }
         }
-        env->SetDoubleArrayRegion(result, 0, numVars, values);
-        delete[] values;
-    }
-
-    return result;
-}
-
-//// Parameter Management Functions
-//JNIEXPORT jdouble JNICALL
-//Java_nl_jessenagel_jhighs_HiGHS_getIntegerParameter(JNIEnv* env, jobject obj, jlong solverPtr, jstring paramName) {
-//    if (solverPtr == 0) return -1.0;
-//
-//    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
-//    const char* cParamName = env->GetStringUTFChars(paramName, NULL);
-//
-//    int value = solver->getIntParam(cParamName);
-//
-//    env->ReleaseStringUTFChars(paramName, cParamName);
-//    return static_cast<jdouble>(value);
-//}
-//
-//JNIEXPORT jdouble JNICALL
-//Java_nl_jessenagel_jhighs_HiGHS_getDoubleParameter(JNIEnv* env, jobject obj, jlong solverPtr, jstring paramName) {
-//    if (solverPtr == 0) return -1.0;
-//
-//    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
-//    const char* cParamName = env->GetStringUTFChars(paramName, NULL);
-//
-//    double value = solver->getDoubleParam(cParamName);
-//
-//    env->ReleaseStringUTFChars(paramName, cParamName);
-//    return value;
-//}
-//
-//JNIEXPORT jdouble JNICALL
-//Java_nl_jessenagel_jhighs_HiGHS_getStringParameter(JNIEnv* env, jobject obj, jlong solverPtr, jstring paramName) {
-//    if (solverPtr == 0) return -1.0;
-//
-//    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
-//    const char* cParamName = env->GetStringUTFChars(paramName, NULL);
-//
-//    std::string value = solver->getStringParam(cParamName);
-//
-//    env->ReleaseStringUTFChars(paramName, cParamName);
-//    return env->NewStringUTF(value.c_str());
-//}
-//
-//JNIEXPORT jdouble JNICALL
-//Java_nl_jessenagel_jhighs_HiGHS_setIntegerParameter(JNIEnv* env, jobject obj, jlong solverPtr, jstring paramName, jint value) {
-//    if (solverPtr == 0) return -1.0;
-//
-//    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
-//    const char* cParamName = env->GetStringUTFChars(paramName, NULL);
-//
-//    HighsStatus status = solver->setIntParam(cParamName, value);
-//
-//    env->ReleaseStringUTFChars(paramName, cParamName);
-//    return static_cast<jdouble>(status);
-//}
-//
-//JNIEXPORT jdouble JNICALL
-//Java_nl_jessenagel_jhighs_HiGHS_setDoubleParameter(JNIEnv* env, jobject obj, jlong solverPtr, jstring paramName, jdouble value) {
-//    if (solverPtr == 0) return -1.0;
-//
-//    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
-//    const char* cParamName = env->GetStringUTFChars(paramName, NULL);
-//
-//    HighsStatus status = solver->setDoubleParam(cParamName, value);
-//
-//    env->ReleaseStringUTFChars(paramName, cParamName);
-//    return static_cast<jdouble>(status);
-//}
-//
-//JNIEXPORT jdouble JNICALL
-//Java_nl_jessenagel_jhighs_HiGHS_setStringParameter(JNIEnv* env, jobject obj, jlong solverPtr, jstring paramName, jstring value) {
-//    if (solverPtr == 0) return -1.0;
-//
-//    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
-//    const char* cParamName = env->GetStringUTFChars(paramName, NULL);
-//    const char* cValue = env->GetStringUTFChars(value, NULL);
-//
-//    HighsStatus status = solver->setStringParam(cParamName, cValue);
-//
-//    env->ReleaseStringUTFChars(paramName, cParamName);
-//    env->ReleaseStringUTFChars(value, cValue);
-//    return static_cast<jdouble>(status);
-//}
+        HighsStatus status = HighsStatus::kOk;
+        for (int k = start[s]; k < start[s + 1]; k++) {
+            status = worseStatus(status, applyScenarioChange(solver, kind[k], index[k], newLower[k], newUpper[k]));
+        }
+
+        // The basis of the previous scenario is kept, so run() warm starts from it
+        if (status != HighsStatus::kError) {
+            status = worseStatus(status, solver->run());
+        }
+        worst = worseStatus(worst, status);
+
+        const HighsSolution& solution = solver->getSolution();
+        bool solved = status != HighsStatus::kError;
+        statuses[s] = static_cast<jint>(solved ? solver->getModelStatus() : HighsModelStatus::kSolveError);
+        row[0] = solved ? solver->getInfo().objective_function_value : nan;
+        for (size_t j = 0; j < primal.size(); j++) {
+            row[1 + j] = solved && solution.value_valid ? solution.col_value[primal[j]] : nan;
+        }
+        for (size_t j = 0; j < dual.size(); j++) {
+            row[1 + primal.size() + j] = solved && solution.dual_valid ? solution.row_dual[dual[j]] : nan;
+        }
+        env->SetDoubleArrayRegion(results, static_cast<jsize>(s * stride), static_cast<jsize>(stride), row.data());
+
+        // Undo in reverse order so repeated changes of one entity restore the original value
+        for (int k = start[s + 1] - 1; k >= start[s]; k--) {
+            applyScenarioChange(solver, kind[k], index[k], savedLower[k], savedUpper[k]);
+        }
+    }
+
+    if (numScenarios > 0) {
+        env->SetIntArrayRegion(modelStatuses, 0, static_cast<jsize>(numScenarios), statuses.data());
+    }
+    return static_cast<jint>(worst);
+}
+
+// Parameter Management Functions
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_getIntegerParameter(JNIEnv* env, jobject obj, jlong solverPtr, jstring paramName) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    StringChars name(env, paramName);
+
+    HighsInt value = 0;
+    HighsStatus status = solver->getOptionValue(name.c_str(), value);
+    if (status != HighsStatus::kOk) throwUnknownOption(env, name.c_str());
+    return static_cast<jint>(value);
+}
+
+JNIEXPORT jdouble JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_getDoubleParameter(JNIEnv* env, jobject obj, jlong solverPtr, jstring paramName) {
+    if (solverPtr == 0) return -1.0;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    StringChars name(env, paramName);
+
+    double value = 0.0;
+    HighsStatus status = solver->getOptionValue(name.c_str(), value);
+    if (status != HighsStatus::kOk) throwUnknownOption(env, name.c_str());
+    return value;
+}
+
+JNIEXPORT jboolean JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_getBooleanParameter(JNIEnv* env, jobject obj, jlong solverPtr, jstring paramName) {
+    if (solverPtr == 0) return JNI_FALSE;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    StringChars name(env, paramName);
+
+    bool value = false;
+    HighsStatus status = solver->getOptionValue(name.c_str(), value);
+    if (status != HighsStatus::kOk) throwUnknownOption(env, name.c_str());
+    return value ? JNI_TRUE : JNI_FALSE;
+}
+
+JNIEXPORT jstring JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_getStringParameter(JNIEnv* env, jobject obj, jlong solverPtr, jstring paramName) {
+    if (solverPtr == 0) return nullptr;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    StringChars name(env, paramName);
+
+    std::string value;
+    HighsStatus status = solver->getOptionValue(name.c_str(), value);
+    if (status != HighsStatus::kOk) {
+        throwUnknownOption(env, name.c_str());
+        return nullptr;
+    }
+    return env->NewStringUTF(value.c_str());
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_setIntegerParameter(JNIEnv* env, jobject obj, jlong solverPtr, jstring paramName, jint value) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    StringChars name(env, paramName);
+
+    HighsStatus status = solver->setOptionValue(name.c_str(), static_cast<HighsInt>(value));
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_setDoubleParameter(JNIEnv* env, jobject obj, jlong solverPtr, jstring paramName, jdouble value) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    StringChars name(env, paramName);
+
+    HighsStatus status = solver->setOptionValue(name.c_str(), static_cast<double>(value));
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_setBooleanParameter(JNIEnv* env, jobject obj, jlong solverPtr, jstring paramName, jboolean value) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    StringChars name(env, paramName);
+
+    HighsStatus status = solver->setOptionValue(name.c_str(), value == JNI_TRUE);
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_setStringParameter(JNIEnv* env, jobject obj, jlong solverPtr, jstring paramName, jstring value) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+    StringChars name(env, paramName);
+    StringChars cValue(env, value);
+
+    HighsStatus status = solver->setOptionValue(name.c_str(), std::string(cValue.c_str()));
+    return static_cast<jint>(status);
+}
+
+JNIEXPORT jint JNICALL
+Java_nl_jessenagel_jhighs_HiGHS_setOptions(JNIEnv* env, jobject obj, jlong solverPtr, jbyteArray names,
+                        jintArray types, jdoubleArray values, jobjectArray stringValues) {
+    if (solverPtr == 0) return -1;
+
+    Highs* solver = reinterpret_cast<Highs*>(solverPtr);
+
+    // Names arrive pre-encoded as NUL-terminated UTF-8, one after the other
+    jsize count = env->GetArrayLength(types);
+    jbyte* nameBytes = env->GetByteArrayElements(names, nullptr);
+    jint* optionTypes = env->GetIntArrayElements(types, nullptr);
+    jdouble* optionValues = env->GetDoubleArrayElements(values, nullptr);
+
+    HighsStatus worst = HighsStatus::kOk;
+    const char* name = reinterpret_cast<const char*>(nameBytes);
+    for (jsize i = 0; i < count; i++) {
+        std::string option(name);
+        name += option.size() + 1;
+
+        HighsStatus status = HighsStatus::kError;
+        switch (optionTypes[i]) {
+            case 0: status = solver->setOptionValue(option, optionValues[i] != 0.0); break;
+            case 1: status = solver->setOptionValue(option, static_cast<HighsInt>(optionValues[i])); break;
+            case 2: status = solver->setOptionValue(option, static_cast<double>(optionValues[i])); break;
+            case 3: {
+                jstring value = static_cast<jstring>(env->GetObjectArrayElement(stringValues, i));
+                StringChars cValue(env, value);
+                env->DeleteLocalRef(value);
+                status = solver->setOptionValue(option, std::string(cValue.c_str()));
+                break;
+            }
+            default: break;
+        }
+        if (status == HighsStatus::kError || (status == HighsStatus::kWarning && worst == HighsStatus::kOk)) {
+            worst = status;
+        }
+    }
+
+    env->ReleaseDoubleArrayElements(values, optionValues, JNI_ABORT);
+    env->ReleaseIntArrayElements(types, optionTypes, JNI_ABORT);
+    env->ReleaseByteArrayElements(names, nameBytes, JNI_ABORT);
+    return static_cast<jint>(worst);
+}
 
 } // extern "C"
@@ -6,6 +6,73 @@
 
 namespace jni_utils {
 
+// ============================================================================
+// Cached Classes and Member IDs
+// ============================================================================
+
+namespace {
+
+JniCache jniCache;
+
+jclass globalClass(JNIEnv* env, const char* name) {
+    jclass local = env->FindClass(name);
+    if (local == nullptr) return nullptr;
+    jclass global = static_cast<jclass>(env->NewGlobalRef(local));
+    env->DeleteLocalRef(local);
+    return global;
+}
+
+} // namespace
+
+bool initCache(JNIEnv* env, JavaVM* vm) {
+    JniCache& c = jniCache;
+    c.vm = vm;
+    c.illegalArgumentException = globalClass(env, "java/lang/IllegalArgumentException");
+    c.runtimeException = globalClass(env, "java/lang/RuntimeException");
+    c.outOfMemoryError = globalClass(env, "java/lang/OutOfMemoryError");
+    if (hasJavaException(env)) return false;
+
+    // Member IDs only need the class while they are resolved
+    jclass solution = env->FindClass("nl/jessenagel/jhighs/Solution");
+    if (solution == nullptr) return false;
+    c.solutionVariableValues = env->GetFieldID(solution, "variableValues", "[D");
+    c.solutionReducedCosts = env->GetFieldID(solution, "reducedCosts", "[D");
+    c.solutionRowValues = env->GetFieldID(solution, "rowValues", "[D");
+    c.solutionDualValues = env->GetFieldID(solution, "dualValues", "[D");
+    c.solutionObjectiveValue = env->GetFieldID(solution, "objectiveValue", "D");
+    c.solutionPrimalValid = env->GetFieldID(solution, "primalValid", "Z");
+    c.solutionDualValid = env->GetFieldID(solution, "dualValid", "Z");
+    env->DeleteLocalRef(solution);
+    if (hasJavaException(env)) return false;
+
+    jclass listener = env->FindClass("nl/jessenagel/jhighs/SolveListener");
+    if (listener == nullptr) return false;
+    c.listenerOnEvent = env->GetMethodID(listener, "onEvent", "(Lnl/jessenagel/jhighs/SolveEvent;)V");
+    env->DeleteLocalRef(listener);
+    if (hasJavaException(env)) return false;
+
+    jclass event = env->FindClass("nl/jessenagel/jhighs/SolveEvent");
+    if (event == nullptr) return false;
+    c.eventData = env->GetFieldID(event, "data", "[D");
+    c.eventType = env->GetFieldID(event, "type", "I");
+    c.eventMessage = env->GetFieldID(event, "message", "Ljava/lang/String;");
+    c.eventMipSolution = env->GetFieldID(event, "mipSolution", "[D");
+    c.eventInterruptRequested = env->GetFieldID(event, "interruptRequested", "Z");
+    env->DeleteLocalRef(event);
+    return !hasJavaException(env);
+}
+
+void releaseCache(JNIEnv* env) {
+    safeDeleteGlobalRef(env, jniCache.illegalArgumentException);
+    safeDeleteGlobalRef(env, jniCache.runtimeException);
+    safeDeleteGlobalRef(env, jniCache.outOfMemoryError);
+    jniCache = JniCache();
+}
+
+const JniCache& cache() {
+    return jniCache;
+}
+
 // ============================================================================
 // Exception Handling Utilities
 // ============================================================================
@@ -18,16 +85,25 @@ void throwJavaException(JNIEnv* env, const char* exceptionClass, const char* mes
     }
 }
 
+// Throw with a cached class, falling back to a lookup before JNI_OnLoad has run
+static void throwCached(JNIEnv* env, jclass cached, const char* exceptionClass, const char* message) {
+    if (cached != nullptr) {
+        env->ThrowNew(cached, message);
+    } else {
+        throwJavaException(env, exceptionClass, message);
+    }
+}
+
 void throwRuntimeException(JNIEnv* env, const char* message) {
-    throwJavaException(env, "java/lang/RuntimeException", message);
+    throwCached(env, jniCache.runtimeException, "java/lang/RuntimeException", message);
 }
 
 void throwIllegalArgumentException(JNIEnv* env, const char* message) {
-    throwJavaException(env, "java/lang/IllegalArgumentException", message);
+    throwCached(env, jniCache.illegalArgumentException, "java/lang/IllegalArgumentException", message);
 }
 
 void throwOutOfMemoryError(JNIEnv* env, const char* message) {
-    throwJavaException(env, "java/lang/OutOfMemoryError", message);
+    throwCached(env, jniCache.outOfMemoryError, "java/lang/OutOfMemoryError", message);
 }
 
 void throwHighsException(JNIEnv* env, const char* message) {
@@ -153,6 +229,23 @@ std::string jstringToString(JNIEnv* env, jstring jstr) {
     return result;
 }
 
+StringChars::StringChars(JNIEnv* env, jstring str) {
+    inline_[0] = '\0';
+    if (str == nullptr) {
+        return;
+    }
+
+    jsize length = env->GetStringLength(str);
+    jsize bytes = env->GetStringUTFLength(str);
+    char* target = inline_;
+    if (static_cast<size_t>(bytes) >= sizeof(inline_)) {
+        heap_.resize(static_cast<size_t>(bytes) + 1);
+        target = heap_.data();
+    }
+    env->GetStringUTFRegion(str, 0, length, target);
+    target[bytes] = '\0';
+}
+
 jstring stringToJstring(JNIEnv* env, const std::string& str) {
     jstring result = env->NewStringUTF(str.c_str());
     if (result == nullptr) {
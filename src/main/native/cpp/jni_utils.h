@@ -9,6 +9,58 @@
 
 namespace jni_utils {
 
+// ============================================================================
+// Cached Classes and Member IDs
+// ============================================================================
+
+/**
+ * Classes and member IDs resolved once in JNI_OnLoad instead of on every call.
+ * The classes are held as global references, so the IDs stay valid until unload.
+ */
+struct JniCache {
+    JavaVM* vm = nullptr;
+    jclass illegalArgumentException = nullptr;
+    jclass runtimeException = nullptr;
+    jclass outOfMemoryError = nullptr;
+
+    // nl.jessenagel.jhighs.Solution
+    jfieldID solutionVariableValues = nullptr;
+    jfieldID solutionReducedCosts = nullptr;
+    jfieldID solutionRowValues = nullptr;
+    jfieldID solutionDualValues = nullptr;
+    jfieldID solutionObjectiveValue = nullptr;
+    jfieldID solutionPrimalValid = nullptr;
+    jfieldID solutionDualValid = nullptr;
+
+    // nl.jessenagel.jhighs.SolveListener and SolveEvent
+    jmethodID listenerOnEvent = nullptr;
+    jfieldID eventData = nullptr;
+    jfieldID eventType = nullptr;
+    jfieldID eventMessage = nullptr;
+    jfieldID eventMipSolution = nullptr;
+    jfieldID eventInterruptRequested = nullptr;
+};
+
+/**
+ * Resolve every cached class and member; called from JNI_OnLoad
+ * @param env JNI environment
+ * @param vm Java VM the library is loaded into
+ * @return false with a Java exception pending if a class or member is missing
+ */
+bool initCache(JNIEnv* env, JavaVM* vm);
+
+/**
+ * Drop the global class references; called from JNI_OnUnload
+ * @param env JNI environment
+ */
+void releaseCache(JNIEnv* env);
+
+/**
+ * The cache filled by initCache
+ * @return Cached classes and member IDs
+ */
+const JniCache& cache();
+
 // ============================================================================
 // Exception Handling Utilities
 // ============================================================================
@@ -98,10 +150,76 @@ jdoubleArray vectorToJdoubleArray(JNIEnv* env, const std::vector<double>& vec);
  */
 jintArray vectorToJintArray(JNIEnv* env, const std::vector<int>& vec);
 
+/**
+ * Number of CriticalArray instances alive on the calling thread
+ * @return Mutable per-thread depth
+ */
+inline int& criticalDepth() {
+    static thread_local int depth = 0;
+    return depth;
+}
+
+/**
+ * Java primitive array pinned with GetPrimitiveArrayCritical for the lifetime of this object.
+ * No other JNI call may be made while it is alive, so it is only used around short native
+ * copies; a null array yields a null pointer.
+ */
+template <typename T>
+class CriticalArray {
+public:
+    CriticalArray(JNIEnv* env, jarray array, jint releaseMode = JNI_ABORT)
+        : env_(env), array_(array), releaseMode_(releaseMode),
+          data_(array != nullptr ? static_cast<T*>(env->GetPrimitiveArrayCritical(array, nullptr)) : nullptr) {
+        criticalDepth()++;
+    }
+
+    ~CriticalArray() {
+        if (data_ != nullptr) {
+            env_->ReleasePrimitiveArrayCritical(array_, const_cast<void*>(static_cast<const void*>(data_)),
+                                                releaseMode_);
+        }
+        criticalDepth()--;
+    }
+
+    CriticalArray(const CriticalArray&) = delete;
+    CriticalArray& operator=(const CriticalArray&) = delete;
+
+    T* get() const { return data_; }
+
+    T& operator[](size_t i) const { return data_[i]; }
+
+    /** True if a non-null array could not be pinned; an OutOfMemoryError is then pending */
+    bool failed() const { return array_ != nullptr && data_ == nullptr; }
+
+private:
+    JNIEnv* env_;
+    jarray array_;
+    jint releaseMode_;
+    T* data_;
+};
+
 // ============================================================================
 // String Conversion Utilities
 // ============================================================================
 
+/**
+ * Modified UTF-8 copy of a Java string taken with GetStringUTFRegion. Short strings such as
+ * option names are copied onto the stack, so the common case needs no allocation.
+ */
+class StringChars {
+public:
+    StringChars(JNIEnv* env, jstring str);
+
+    StringChars(const StringChars&) = delete;
+    StringChars& operator=(const StringChars&) = delete;
+
+    const char* c_str() const { return heap_.empty() ? inline_ : heap_.data(); }
+
+private:
+    char inline_[64];
+    std::vector<char> heap_;
+};
+
 /**
  * Convert Java string to C++ string
  * @param env JNI environment
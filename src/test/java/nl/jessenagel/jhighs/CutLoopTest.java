@@ -0,0 +1,55 @@
+package nl.jessenagel.jhighs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CutLoopTest {
+
+    @Test
+    void addsViolatedRowsAndPurgesSlackOnes() {
+        try (HiGHS solver = new HiGHS()) {
+            solver.setBoolParameter("output_flag", false);
+            // minimize -x - y over 0 <= x, y <= 10
+            solver.addVars(2, new double[]{0.0, 0.0}, new double[]{10.0, 10.0}, new double[]{-1.0, -1.0});
+
+            // x + y <= 18 is known up front; it is cut off in round 0 and slack from round 1 on
+            RowPool pool = new RowPool();
+            int known = pool.addRow(Double.NEGATIVE_INFINITY, 18.0, new int[]{0, 1}, new double[]{1.0, 1.0});
+
+            // The separator returns the first violated row of x + 2y <= 10 and 2x + y <= 10
+            double[][] cuts = {{1.0, 2.0}, {2.0, 1.0}};
+            Separator separator = (solution, rows) -> {
+                for (double[] cut : cuts) {
+                    double activity = cut[0] * solution.getVariableValue(0) + cut[1] * solution.getVariableValue(1);
+                    if (activity > 10.0 + 1e-9) {
+                        rows.addRow(Double.NEGATIVE_INFINITY, 10.0, new int[]{0, 1}, cut);
+                        return;
+                    }
+                }
+            };
+
+            CutLoop loop = new CutLoop(solver, separator, pool);
+            loop.setMaxAge(1);
+            assertEquals(HighsStatus.kOk, loop.run());
+
+            List<CutRound> rounds = loop.getRounds();
+            assertEquals(3, rounds.size());
+            assertEquals(2, rounds.get(0).getRowsAdded());
+            assertEquals(-10.0, rounds.get(1).getObjectiveValue(), 1e-9);
+            assertEquals(1, rounds.get(1).getRowsAdded());
+            assertEquals(1, rounds.get(1).getRowsPurged());
+            assertEquals(0, rounds.get(2).getRowsAdded());
+            assertEquals(-20.0 / 3.0, rounds.get(2).getObjectiveValue(), 1e-9);
+
+            assertEquals(3, pool.size());
+            assertEquals(-1, pool.getModelRow(known));
+            assertEquals(0, pool.getModelRow(1));
+            assertEquals(1, pool.getModelRow(2));
+            assertEquals(2, solver.getNumConstraints());
+            assertEquals(10.0 / 3.0, loop.getSolution().getVariableValue(0), 1e-9);
+        }
+    }
+}
@@ -2,9 +2,43 @@ package nl.jessenagel.jhighs;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import static org.junit.jupiter.api.Assertions.*;
 public class HiGHSTest {
 
+    // The LP of solveLP, row-wise; shared by the tests that need a small model
+    static LpModel exampleModel() {
+        //minimize    f  =  x0 +  x1
+        //subject to              x1 <= 7
+        //            5 <=  x0 + 2x1 <= 15
+        //            6 <= 3x0 + 2x1
+        //            0 <= x0 <= 4; 1 <= x1
+        return new LpModel(2, 3, MatrixFormat.kRowwise,
+                new int[]{0, 1, 3}, new int[]{1, 0, 1, 0, 1}, new double[]{1.0, 1.0, 2.0, 3.0, 2.0},
+                new double[]{1.0, 1.0}, new double[]{0.0, 1.0}, new double[]{4.0, Double.POSITIVE_INFINITY},
+                new double[]{Double.NEGATIVE_INFINITY, 5.0, 6.0}, new double[]{7.0, 15.0, Double.POSITIVE_INFINITY},
+                true, 0.0, null);
+    }
+
+    // Adds the three rows of exampleModel() to a solver that already has its two columns
+    private static HighsStatus addExampleRows(HiGHS solver) {
+        LpModel lp = exampleModel();
+        return solver.addConstraints(lp.getNumRow(), lp.getRowLower(), lp.getRowUpper(), lp.getStarts(),
+                lp.getIndices(), lp.getValues());
+    }
+
     @Test
     void solveLP() {
         HiGHS solver = new HiGHS();
@@ -117,4 +151,460 @@ public class HiGHSTest {
             solver.dispose();
         }
     }
+
+    @Test
+    void solveLoadedLP() {
+        HiGHS solver = new HiGHS();
+        try {
+            // Same LP as solveLP, passed row-wise in a single call
+            LpModel lp = exampleModel();
+            HighsStatus loadStatus = solver.loadModel(2, 3, MatrixFormat.kRowwise, lp.getStarts(), lp.getIndices(),
+                    lp.getValues(), lp.getColCosts(), lp.getColLower(), lp.getColUpper(), lp.getRowLower(),
+                    lp.getRowUpper(), true, 0.0);
+            assertEquals(HighsStatus.kOk, loadStatus);
+
+            assertEquals(HighsStatus.kOk, solver.solve());
+            assertEquals(ModelStatus.kOptimal, solver.getModelStatus());
+            double[] solution = solver.getSolution().getVariableValues();
+            assertEquals(0.5, solution[0], 1e-6);
+            assertEquals(2.25, solution[1], 1e-6);
+        } finally {
+            solver.dispose();
+        }
+    }
+
+    @Test
+    void addConstraintsInBulk() {
+        HiGHS solver = new HiGHS();
+        try {
+            solver.addVar(0.0, 4.0);
+            solver.addVar(1.0, Double.POSITIVE_INFINITY);
+            assertEquals(HighsStatus.kOk, addExampleRows(solver));
+            solver.setObjectiveFunction(new double[]{1.0, 1.0}, new int[]{0, 1}, true, 0.0);
+
+            assertEquals(HighsStatus.kOk, solver.solve());
+            assertEquals(ModelStatus.kOptimal, solver.getModelStatus());
+            assertEquals(2.75, solver.getSolution().getObjectiveValue(), 1e-6);
+
+            // Starts must begin at zero, not decrease, and end at the number of entries
+            double[] lower = {0.0, 0.0};
+            double[] upper = {1.0, 1.0};
+            int[] indices = {0, 1, 0};
+            double[] values = {1.0, 1.0, 1.0};
+            assertThrows(IllegalArgumentException.class,
+                    () -> solver.addConstraints(2, lower, upper, new int[]{1, 2, 3}, indices, values));
+            assertThrows(IllegalArgumentException.class,
+                    () -> solver.addConstraints(2, lower, upper, new int[]{0, 2, 1}, indices, values));
+            assertThrows(IllegalArgumentException.class,
+                    () -> solver.addConstraints(2, lower, upper, new int[]{0, 1, 2}, indices, values));
+            assertEquals(3, solver.getNumConstraints());
+        } finally {
+            solver.dispose();
+        }
+    }
+
+    @Test
+    void solveLoadedLPFromDirectBuffers() {
+        HiGHS solver = new HiGHS();
+        try {
+            LpModel lp = exampleModel();
+            HighsStatus loadStatus = solver.loadModel(2, 3, MatrixFormat.kRowwise,
+                    directInts(lp.getStarts()), directInts(lp.getIndices()), directDoubles(lp.getValues()),
+                    directDoubles(lp.getColCosts()), directDoubles(lp.getColLower()), directDoubles(lp.getColUpper()),
+                    directDoubles(lp.getRowLower()), directDoubles(lp.getRowUpper()), true, 0.0);
+            assertEquals(HighsStatus.kOk, loadStatus);
+
+            assertEquals(HighsStatus.kOk, solver.solve());
+            DoubleBuffer values = directDoubles(0.0, 0.0);
+            assertEquals(2, solver.getVariableValues(values));
+            assertEquals(0.5, values.get(0), 1e-6);
+            assertEquals(2.25, values.get(1), 1e-6);
+        } finally {
+            solver.dispose();
+        }
+    }
+
+    @Test
+    void changeCostsInBulk() {
+        HiGHS solver = new HiGHS();
+        try {
+            solver.addVar(0.0, 4.0);
+            solver.addVar(1.0, Double.POSITIVE_INFINITY);
+            addExampleRows(solver);
+
+            assertEquals(HighsStatus.kOk, solver.changeColsCost(new double[]{1.0, 1.0}));
+            solver.solve();
+            assertEquals(2.75, solver.getSolution().getObjectiveValue(), 1e-6);
+
+            assertEquals(HighsStatus.kOk, solver.changeColsCost(new int[]{0}, new double[]{2.0}));
+            solver.solve();
+            assertEquals(3.0, solver.getSolution().getObjectiveValue(), 1e-6);
+
+            assertEquals(HighsStatus.kOk, solver.changeColsCost(0, 1, new double[]{1.0, 1.0}));
+            solver.solve();
+            assertEquals(2.75, solver.getSolution().getObjectiveValue(), 1e-6);
+            assertThrows(IllegalArgumentException.class, () -> solver.changeColsCost(new double[]{1.0}));
+
+            // A repeated column takes its last coefficient
+            assertEquals(HighsStatus.kOk, solver.setObjectiveFunction(new double[]{5.0, 2.0, 1.0, 1.0},
+                    new int[]{1, 0, 0, 1}, true, 0.0));
+            solver.solve();
+            assertEquals(2.75, solver.getSolution().getObjectiveValue(), 1e-6);
+        } finally {
+            solver.dispose();
+        }
+    }
+
+    @Test
+    void addVarsWithCostsAndIntegrality() {
+        HiGHS solver = new HiGHS();
+        try {
+            // Same IP as solveIP, built column-wise without a separate objective pass
+            HighsStatus status = solver.addVars(new double[]{1.0, 1.0},
+                    new double[]{0.0, 1.0}, new double[]{4.0, Double.POSITIVE_INFINITY},
+                    new VarType[]{VarType.kInteger, VarType.kInteger});
+            assertEquals(HighsStatus.kOk, status);
+            addExampleRows(solver);
+
+            assertEquals(HighsStatus.kOk, solver.solve());
+            assertEquals(ModelStatus.kOptimal, solver.getModelStatus());
+            double[] values = solver.getSolution().getVariableValues();
+            assertEquals(0.0, values[0], 1e-6);
+            assertEquals(3.0, values[1], 1e-6);
+        } finally {
+            solver.dispose();
+        }
+    }
+
+    @Test
+    void deleteAndChangeBoundsInBulk() {
+        HiGHS solver = new HiGHS();
+        try {
+            solver.loadModel(exampleModel());
+
+            // The first row is slack at the optimum, so dropping it keeps the objective
+            int[] mask = {1, 0, 0};
+            assertEquals(HighsStatus.kOk, solver.deleteConstraintsByMask(mask));
+            assertArrayEquals(new int[]{-1, 0, 1}, mask);
+            solver.solve();
+            assertEquals(2.75, solver.getSolution().getObjectiveValue(), 1e-6);
+
+            // Fixing x0 = 0 forces x1 = 3
+            assertEquals(HighsStatus.kOk, solver.changeVarsBounds(new int[]{0}, new double[]{0.0}, new double[]{0.0}));
+            solver.solve();
+            assertEquals(3.0, solver.getSolution().getObjectiveValue(), 1e-6);
+
+            assertEquals(HighsStatus.kOk, solver.deleteConstraints(new int[]{1, 0}));
+            solver.solve();
+            assertEquals(1.0, solver.getSolution().getObjectiveValue(), 1e-6);
+        } finally {
+            solver.dispose();
+        }
+    }
+
+    @Test
+    void restoreBasisAfterClearSolver() {
+        HiGHS solver = new HiGHS();
+        try {
+            solver.loadModel(exampleModel());
+            solver.solve();
+
+            Basis basis = solver.getBasis();
+            assertNotNull(basis);
+            assertEquals(2, basis.getNumCols());
+            assertEquals(3, basis.getNumRows());
+            assertEquals(BasisStatus.kBasic, basis.getColStatus(0));
+
+            solver.clearSolver();
+            assertEquals(HighsStatus.kOk, solver.setBasis(basis));
+            assertEquals(HighsStatus.kOk, solver.setSolution(new double[]{0.5, 2.25}));
+            solver.solve();
+            assertEquals(ModelStatus.kOptimal, solver.getModelStatus());
+            assertEquals(2.75, solver.getSolution().getObjectiveValue(), 1e-6);
+        } finally {
+            solver.dispose();
+        }
+    }
+
+    @Test
+    void extractFullSolutionIntoReusedTarget() {
+        HiGHS solver = new HiGHS();
+        try {
+            solver.loadModel(exampleModel());
+            solver.solve();
+
+            Solution solution = solver.getSolution(new Solution());
+            assertTrue(solution.isPrimalValid());
+            assertTrue(solution.isDualValid());
+            assertEquals(2, solution.getNumVariables());
+            assertEquals(3, solution.getNumConstraints());
+            assertEquals(2.25, solution.getRowValue(0), 1e-6);
+            assertEquals(5.0, solution.getRowValue(1), 1e-6);
+            assertEquals(6.0, solution.getRowValue(2), 1e-6);
+            assertEquals(0.0, solution.getDualValue(0), 1e-6);
+            assertEquals(0.0, solution.getReducedCost(0), 1e-6);
+            assertTrue(solution.rowValues().isReadOnly());
+
+            solver.changeColsCost(new int[]{0}, new double[]{2.0});
+            solver.solve();
+            assertSame(solution, solver.getSolution(solution));
+            assertEquals(3.0, solution.getObjectiveValue(), 1e-6);
+        } finally {
+            solver.dispose();
+        }
+    }
+
+    @Test
+    void setAndGetOptions() {
+        HiGHS solver = new HiGHS();
+        try {
+            assertEquals(HighsStatus.kOk, solver.setIntParameter("simplex_strategy", 1));
+            assertEquals(1, solver.getIntParameter("simplex_strategy"));
+
+            HighsOptions options = HighsOptions.builder()
+                    .timeLimit(30.0)
+                    .mipRelGap(1e-3)
+                    .presolve("off")
+                    .outputFlag(false)
+                    .randomSeed(7)
+                    .build();
+            assertEquals(5, options.size());
+            assertEquals(HighsStatus.kOk, solver.setOptions(options));
+            assertEquals(30.0, solver.getDoubleParameter("time_limit"));
+            assertEquals(1e-3, solver.getDoubleParameter("mip_rel_gap"));
+            assertEquals("off", solver.getStringParameter("presolve"));
+            assertFalse(solver.getBoolParameter("output_flag"));
+            assertEquals(7, solver.getIntParameter("random_seed"));
+
+            assertEquals(HighsStatus.kError, solver.setOptions(HighsOptions.builder().set("no_such_option", 1).build()));
+            assertThrows(IllegalArgumentException.class, () -> solver.getIntParameter("no_such_option"));
+        } finally {
+            solver.dispose();
+        }
+    }
+
+    @Test
+    void solveAsyncAndCancel() throws Exception {
+        HiGHS solver = new HiGHS();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            solver.loadModel(exampleModel());
+
+            SolveResult result = solver.solveAsync(executor).get();
+            assertEquals(HighsStatus.kOk, result.getStatus());
+            assertEquals(ModelStatus.kOptimal, result.getModelStatus());
+            assertEquals(2.75, result.getObjectiveValue(), 1e-6);
+
+            // Block the executor so the cancel lands before the solve starts
+            CompletableFuture<Void> gate = new CompletableFuture<>();
+            executor.execute(gate::join);
+            solver.clearSolver();
+            CompletableFuture<SolveResult> cancelled = solver.solveAsync(executor);
+            assertTrue(cancelled.cancel(true));
+            gate.complete(null);
+            assertTrue(cancelled.isCancelled());
+
+            // The interrupt of the cancel predates this call and must not stop it
+            assertEquals(ModelStatus.kOptimal, solver.solveAsync(executor).get().getModelStatus());
+        } finally {
+            executor.shutdownNow();
+            solver.dispose();
+        }
+    }
+
+    @Test
+    void closeFreesNativeSolver() {
+        int liveBefore = HiGHS.getLiveNativeSolvers();
+        HiGHS solver = new HiGHS();
+        try (solver) {
+            assertEquals(liveBefore + 1, HiGHS.getLiveNativeSolvers());
+            solver.addVars(new double[]{1.0, 1.0}, new double[]{0.0, 1.0},
+                    new double[]{4.0, Double.POSITIVE_INFINITY}, null);
+            solver.solve();
+            assertTrue(HiGHS.getEstimatedNativeBytes() > 0);
+        }
+        assertEquals(liveBefore, HiGHS.getLiveNativeSolvers());
+        assertThrows(IllegalStateException.class, solver::solve);
+        solver.close();
+        solver.dispose();
+        assertEquals(liveBefore, HiGHS.getLiveNativeSolvers());
+    }
+
+    @Test
+    void solveScenarioSweep() {
+        try (HiGHS solver = new HiGHS()) {
+            solver.setBoolParameter("output_flag", false);
+            solver.loadModel(exampleModel());
+            ScenarioSet scenarios = ScenarioSet.builder()
+                    .scenario()
+                    .scenario().cost(0, 2.0)
+                    .scenario()
+                    .build();
+
+            ScenarioResults results = solver.solveScenarios(scenarios, new int[]{0, 1}, new int[]{1});
+            assertEquals(HighsStatus.kOk, results.getStatus());
+            assertEquals(3, results.getNumScenarios());
+            assertEquals(2.75, results.getObjectiveValue(0), 1e-6);
+            assertEquals(0.5, results.getPrimalValue(0, 0), 1e-6);
+            assertEquals(3.0, results.getObjectiveValue(1), 1e-6);
+            assertEquals(ModelStatus.kOptimal, results.getModelStatus(1));
+            assertEquals(3.0, results.getPrimalValue(1, 1), 1e-6);
+            // The cost change is undone before the next scenario
+            assertEquals(2.75, results.getObjectiveValue(2), 1e-6);
+
+            assertThrows(IllegalArgumentException.class, () -> solver.solveScenarios(
+                    ScenarioSet.builder().scenario().rowBounds(3, 0.0, 1.0).build(), new int[0], new int[0]));
+        }
+    }
+
+    @Test
+    void roundTripModelWithoutFiles() throws Exception {
+        try (HiGHS solver = new HiGHS(); HiGHS copy = new HiGHS()) {
+            solver.setBoolParameter("output_flag", false);
+            copy.setBoolParameter("output_flag", false);
+            solver.loadModel(exampleModel());
+            solver.changeColIntegrality(1, VarType.kInteger);
+
+            LpModel exported = solver.getModel();
+            assertTrue(exported.isMip());
+            assertEquals(MatrixFormat.kColwise, exported.getFormat());
+            LpModel decoded = LpModel.fromByteArray(exported.toByteArray());
+            assertArrayEquals(exported.getValues(), decoded.getValues());
+            assertArrayEquals(exported.getColUpper(), decoded.getColUpper());
+            assertArrayEquals(exported.getIntegrality(), decoded.getIntegrality());
+
+            copy.loadModel(decoded);
+            copy.solve();
+            assertEquals(ModelStatus.kOptimal, copy.getModelStatus());
+            assertEquals(3.0, copy.getObjectiveValue(), 1e-6);
+
+            ByteArrayOutputStream mps = new ByteArrayOutputStream();
+            assertNotEquals(HighsStatus.kError, solver.writeModel(mps, "mps"));
+            assertNotEquals(HighsStatus.kError, copy.readModel(new ByteArrayInputStream(mps.toByteArray()), "mps"));
+            assertEquals(2, copy.getNumVars());
+            assertEquals(3, copy.getNumConstraints());
+
+            ByteArrayOutputStream sol = new ByteArrayOutputStream();
+            assertNotEquals(HighsStatus.kError, solver.writeSolution(sol));
+            assertNotEquals(HighsStatus.kError, copy.readSolution(new ByteArrayInputStream(sol.toByteArray())));
+            assertArrayEquals(solver.getSolution().getVariableValues(), copy.getSolution().getVariableValues(), 1e-9);
+
+            assertThrows(IOException.class, () -> LpModel.fromByteArray(new byte[]{1, 2, 3}));
+        }
+    }
+
+    @Test
+    void deliverSolveEventsAndStopFromListener() {
+        try (HiGHS solver = new HiGHS()) {
+            solver.setBoolParameter("output_flag", false);
+            // Keep presolve from solving the MIP before the branch-and-bound callbacks run
+            solver.setStringParameter("presolve", "off");
+            solver.loadModel(exampleModel());
+            solver.changeColIntegrality(0, VarType.kInteger);
+            solver.changeColIntegrality(1, VarType.kInteger);
+            int[] improving = new int[1];
+            double[] incumbent = new double[1];
+            solver.setSolveListener(event -> {
+                assertEquals(CallbackType.kMipImprovingSolution, event.getType());
+                improving[0]++;
+                incumbent[0] = event.getObjectiveValue();
+                assertEquals(2, event.getMipSolution().length);
+            }, CallbackType.kMipImprovingSolution);
+            solver.solve();
+            assertEquals(ModelStatus.kOptimal, solver.getModelStatus());
+            assertTrue(improving[0] > 0);
+            assertEquals(3.0, incumbent[0], 1e-6);
+
+            solver.setSolveListener(event -> {
+                throw new IllegalStateException("stop");
+            }, CallbackType.kMipInterrupt, CallbackType.kSimplexInterrupt);
+            solver.clearSolver();
+            IllegalStateException thrown = assertThrows(IllegalStateException.class, solver::solve);
+            assertEquals("stop", thrown.getMessage());
+
+            solver.setSolveListener(null);
+            solver.clearSolver();
+            assertEquals(HighsStatus.kOk, solver.solve());
+        }
+    }
+
+    @Test
+    void reportSolveInfoAndMetrics() {
+        List<SolveInfo> reported = new ArrayList<>();
+        HiGHS.setMetricsHook(reported::add);
+        try (HiGHS solver = new HiGHS()) {
+            solver.setBoolParameter("output_flag", false);
+            solver.loadModel(exampleModel());
+            solver.solve();
+
+            SolveInfo info = solver.getSolveInfo();
+            assertTrue(info.isValid());
+            assertEquals(ModelStatus.kOptimal, info.getModelStatus());
+            assertEquals(2.75, info.getObjectiveValue(), 1e-6);
+            assertEquals(2, info.getPrimalSolutionStatus());
+            assertEquals(0, info.getNumPrimalInfeasibilities());
+            assertTrue(info.getWallTimeNanos() > 0);
+            assertTrue(info.getRunTime() >= 0.0);
+
+            assertEquals(1, reported.size());
+            assertEquals(info.getObjectiveValue(), reported.get(0).getObjectiveValue());
+        } finally {
+            HiGHS.setMetricsHook(null);
+        }
+    }
+
+    @Test
+    void bufferEditsUntilSolve() {
+        try (HiGHS solver = new HiGHS()) {
+            solver.setBoolParameter("output_flag", false);
+            solver.loadModel(exampleModel());
+            assertEquals(HighsStatus.kOk, solver.setBufferedEdits(true));
+
+            // Repeated edits of one column or row keep only the last one
+            assertEquals(HighsStatus.kOk, solver.changeVarBounds(0, 0.0, 3.0));
+            assertEquals(HighsStatus.kOk, solver.changeVarBounds(0, 1.0, 4.0));
+            solver.changeConstraintBounds(1, 4.0, 15.0);
+            solver.changeConstraintBounds(1, 5.0, 15.0);
+            solver.changeColIntegrality(1, VarType.kInteger);
+            assertEquals(3, solver.getNumPendingEdits());
+
+            LpModel model = solver.getModel();
+            assertEquals(0, solver.getNumPendingEdits());
+            assertEquals(1.0, model.getColLower()[0]);
+            assertEquals(4.0, model.getColUpper()[0]);
+            assertEquals(5.0, model.getRowLower()[1]);
+            assertTrue(model.isMip());
+
+            solver.changeColIntegrality(1, VarType.kContinuous);
+            assertEquals(HighsStatus.kOk, solver.solve());
+            assertEquals(0, solver.getNumPendingEdits());
+            assertEquals(3.0, solver.getObjectiveValue(), 1e-6);
+
+            // Indices are checked when the edit is recorded
+            assertThrows(IllegalArgumentException.class, () -> solver.changeVarBounds(99, 0.0, 1.0));
+            assertThrows(IllegalArgumentException.class, () -> solver.changeConstraintBounds(-1, 0.0, 1.0));
+            assertEquals(0, solver.getNumPendingEdits());
+
+            // The known model size follows columns added and deleted while edits are pending
+            solver.changeVarBounds(0, 0.0, 4.0);
+            solver.addVars(1, new double[]{0.0}, new double[]{1.0}, new double[]{0.0});
+            assertEquals(HighsStatus.kOk, solver.changeVarBounds(2, 0.0, 2.0));
+            assertEquals(HighsStatus.kOk, solver.deleteVars(2, 2));
+            assertThrows(IllegalArgumentException.class, () -> solver.changeVarBounds(2, 0.0, 1.0));
+            assertEquals(HighsStatus.kOk, solver.setBufferedEdits(false));
+            assertFalse(solver.isBufferedEdits());
+        }
+    }
+
+    private static IntBuffer directInts(int... values) {
+        IntBuffer buffer = ByteBuffer.allocateDirect(values.length * Integer.BYTES)
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+        return buffer.put(values).flip();
+    }
+
+    private static DoubleBuffer directDoubles(double... values) {
+        DoubleBuffer buffer = ByteBuffer.allocateDirect(values.length * Double.BYTES)
+                .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        return buffer.put(values).flip();
+    }
 }
@@ -0,0 +1,34 @@
+package nl.jessenagel.jhighs;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HighsBatchSolverTest {
+
+    @Test
+    void solvesEveryJobAndReportsFailures() throws Exception {
+        List<HighsBatchSolver.Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            jobs.add(HighsBatchSolver.Job.of(HiGHSTest.exampleModel()));
+        }
+        jobs.add(HighsBatchSolver.Job.ofFile(Path.of("does-not-exist.mps")));
+
+        HighsOptions options = HighsOptions.builder().outputFlag(false).build();
+        try (HighsBatchSolver batch = new HighsBatchSolver(2, options)) {
+            assertEquals(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), batch.getThreadsPerWorker());
+            List<HighsBatchSolver.Result> results = batch.solveAll(jobs);
+            assertEquals(jobs.size(), results.size());
+            for (int i = 0; i < 6; i++) {
+                assertEquals(i, results.get(i).getIndex());
+                assertEquals(ModelStatus.kOptimal, results.get(i).getModelStatus());
+                assertEquals(2.75, results.get(i).getObjectiveValue(), 1e-6);
+            }
+            assertNotEquals(ModelStatus.kOptimal, results.get(6).getModelStatus());
+        }
+    }
+}
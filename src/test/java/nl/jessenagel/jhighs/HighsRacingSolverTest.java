@@ -0,0 +1,63 @@
+package nl.jessenagel.jhighs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HighsRacingSolverTest {
+
+    // HiGHSTest.exampleModel() with both columns integer; optimum 3
+    private static LpModel exampleMip() {
+        LpModel lp = HiGHSTest.exampleModel();
+        return new LpModel(lp.getNumCol(), lp.getNumRow(), lp.getFormat(), lp.getStarts(), lp.getIndices(),
+                lp.getValues(), lp.getColCosts(), lp.getColLower(), lp.getColUpper(), lp.getRowLower(),
+                lp.getRowUpper(), lp.isMinimize(), lp.getOffset(),
+                new byte[]{(byte) VarType.kInteger.getValue(), (byte) VarType.kInteger.getValue()});
+    }
+
+    @Test
+    void raceToOptimum() throws InterruptedException {
+        HighsOptions options = HighsOptions.builder().outputFlag(false).build();
+        try (HighsRacingSolver race = new HighsRacingSolver(3, options)) {
+            assertEquals(3, race.getRacers());
+            for (int run = 0; run < 2; run++) {
+                HighsRacingSolver.Result result = race.solve(exampleMip());
+                assertEquals(ModelStatus.kOptimal, result.getModelStatus());
+                assertEquals(3.0, result.getObjectiveValue(), 1e-6);
+                assertTrue(result.getWinner() >= 0);
+                assertTrue(result.getBestRacer() >= 0);
+                double[] x = result.getSolution().getVariableValues();
+                assertEquals(3.0, x[0] + x[1], 1e-6);
+            }
+        }
+    }
+
+    @Test
+    void raceMoreRacersThanCores() throws InterruptedException {
+        // Every racer runs its own scheduler, so the cores are split and each racer gets one thread
+        int racers = Runtime.getRuntime().availableProcessors() / 2 + 2;
+        HighsOptions options = HighsOptions.builder().outputFlag(false).build();
+        for (HighsOptions configuration : HighsRacingSolver.defaultConfigurations(racers, options)) {
+            try (HiGHS probe = new HiGHS()) {
+                probe.setOptions(configuration);
+                assertEquals(1, probe.getIntParameter("threads"));
+            }
+        }
+        try (HighsRacingSolver race = new HighsRacingSolver(racers, options)) {
+            HighsRacingSolver.Result result = race.solve(exampleMip());
+            assertEquals(HighsStatus.kOk, result.getStatus());
+            assertEquals(ModelStatus.kOptimal, result.getModelStatus());
+            assertEquals(3.0, result.getObjectiveValue(), 1e-6);
+        }
+    }
+
+    @Test
+    void rejectEmptyConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new HighsRacingSolver(List.of(), null));
+        assertThrows(IllegalArgumentException.class, () -> HighsRacingSolver.defaultConfigurations(0, null));
+        List<HighsOptions> configurations = HighsRacingSolver.defaultConfigurations(5, null);
+        assertEquals(5, configurations.size());
+    }
+}
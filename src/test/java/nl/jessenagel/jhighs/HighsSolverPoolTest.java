@@ -0,0 +1,45 @@
+package nl.jessenagel.jhighs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HighsSolverPoolTest {
+
+    @Test
+    void restoresTemplateBetweenCheckouts() throws Exception {
+        HighsOptions options = HighsOptions.builder().outputFlag(false).build();
+        try (HighsSolverPool pool = new HighsSolverPool(1, HiGHSTest.exampleModel(), options)) {
+            double first = pool.withSolver(solver -> {
+                solver.changeColsCost(new int[]{0}, new double[]{2.0});
+                solver.solve();
+                return solver.getObjectiveValue();
+            });
+            assertEquals(3.0, first, 1e-6);
+
+            double second = pool.withSolver(solver -> {
+                assertFalse(solver.getBoolParameter("output_flag"));
+                solver.solve();
+                return solver.getObjectiveValue();
+            });
+            assertEquals(2.75, second, 1e-6);
+
+            assertEquals(1, pool.getLiveInstances());
+            assertEquals(1, pool.getIdleInstances());
+            assertEquals(2, pool.getCheckouts());
+        }
+    }
+
+    @Test
+    void boundsCheckouts() throws Exception {
+        try (HighsSolverPool pool = new HighsSolverPool(1)) {
+            HiGHS solver = pool.acquire();
+            assertNull(pool.acquire(10, TimeUnit.MILLISECONDS));
+            pool.release(solver);
+            assertThrows(IllegalArgumentException.class, () -> pool.release(solver));
+            assertNotNull(pool.acquire(10, TimeUnit.MILLISECONDS));
+        }
+    }
+}
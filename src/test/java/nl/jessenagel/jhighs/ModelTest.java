@@ -0,0 +1,72 @@
+package nl.jessenagel.jhighs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModelTest {
+
+    @Test
+    void buildAndSolveExampleMip() {
+        try (Model model = new Model()) {
+            model.getSolver().setBoolParameter("output_flag", false);
+            Var x0 = model.addVar(0.0, 4.0, 0.0, VarType.kInteger, "x0");
+            Var x1 = model.addVar(1.0, Double.POSITIVE_INFINITY, 0.0, VarType.kInteger, "x1");
+
+            // One expression reused for every row; x1 is given twice and x0 cancels out in r0
+            LinExpr expr = new LinExpr();
+            model.addLessEq(expr.addTerm(1.0, x1).addTerm(1.0, x0).addTerm(-1.0, x0), 7.0, "r0");
+            model.addConstr(expr.clear().addTerm(1.0, x0).addTerm(1.0, x1).addTerm(1.0, x1), 5.0, 15.0, "r1");
+            Constr r2 = model.addGreaterEq(expr.clear().addTerm(3.0, x0).addTerm(2.0, x1), 6.0, "r2");
+            model.setObjective(expr.clear().addTerm(1.0, x0).addTerm(1.0, x1).addConstant(10.0), true);
+
+            assertEquals(HighsStatus.kOk, model.solve());
+            assertEquals(ModelStatus.kOptimal, model.getModelStatus());
+            assertEquals(13.0, model.getObjectiveValue(), 1e-9);
+            assertEquals(0.0, x0.getValue(), 1e-9);
+            assertEquals(3.0, x1.getValue(), 1e-9);
+
+            LpModel lp = model.getSolver().getModel();
+            assertEquals(5, lp.getNumNz());
+            assertEquals(2.0, lp.getValues()[indexOf(lp, 1, 1)], 1e-12);
+
+            assertEquals(x1, model.getVar("x1"));
+            assertEquals(r2, model.getConstr("r2"));
+            assertEquals("r2", r2.getName());
+            assertNull(model.getVar("missing"));
+            assertThrows(IllegalArgumentException.class, () -> model.addVar(0.0, 1.0, 0.0, VarType.kContinuous, "x0"));
+        }
+    }
+
+    @Test
+    void flushOnlyPassesNewRowsAndObjectiveChanges() {
+        try (HiGHS solver = new HiGHS(); Model model = new Model(solver)) {
+            solver.setBoolParameter("output_flag", false);
+            Var x = model.addVar(0.0, 10.0, 1.0, VarType.kContinuous);
+            Var y = model.addVar(0.0, 10.0, 1.0, VarType.kContinuous);
+            LinExpr expr = new LinExpr().addTerm(1.0, x).addTerm(1.0, y);
+            model.addGreaterEq(expr, 4.0, null);
+            assertEquals(HighsStatus.kOk, model.solve());
+            assertEquals(4.0, model.getObjectiveValue(), 1e-9);
+
+            // A second batch after the first flush, and a new objective over old and new columns
+            Var z = model.addVar(0.0, 10.0);
+            model.addLessEq(expr.clear().addTerm(1.0, x).addTerm(-1.0, z), 0.0, null);
+            model.setObjective(new LinExpr().addTerm(2.0, x).addTerm(4.0, y).addTerm(1.0, z), true);
+            assertEquals(HighsStatus.kOk, model.solve());
+            assertEquals(3, solver.getNumVars());
+            assertEquals(2, solver.getNumConstraints());
+            assertEquals(12.0, model.getObjectiveValue(), 1e-9);
+            assertEquals(4.0, z.getValue(), 1e-9);
+            assertThrows(IllegalArgumentException.class, () -> model.addLessEq(new LinExpr().addTerm(1.0, 5), 1.0, null));
+        }
+    }
+
+    // Position of row entry (row, col) in the column-wise matrix of lp
+    private static int indexOf(LpModel lp, int row, int col) {
+        for (int k = lp.getStarts()[col]; k < lp.getStarts()[col + 1]; k++) {
+            if (lp.getIndices()[k] == row) return k;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,102 @@
+package nl.jessenagel.jhighs;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MpsLoaderTest {
+
+    // The example LP of HiGHSTest with x1 integer
+    private static final String EXAMPLE = """
+            NAME example
+            * x1 is declared integer through markers
+            ROWS
+             N  obj
+             L  r0
+             G  r1
+             G  r2
+            COLUMNS
+                x0  obj  1  r1  1
+                x0  r2   3
+                MARKER  'MARKER'  'INTORG'
+                x1  obj  1  r0  1
+                x1  r1   2  r2  2
+                MARKER  'MARKER'  'INTEND'
+            RHS
+                rhs  r0  7  r1  5
+                rhs  r2  6
+            RANGES
+                rng  r1  10
+            BOUNDS
+             UP bnd  x0  4
+             LO bnd  x1  1
+            ENDATA
+            """;
+
+    @Test
+    void loadsModelAcrossChunks() throws IOException {
+        Path file = Files.createTempFile("jhighs", ".mps");
+        try (HiGHS solver = new HiGHS()) {
+            Files.writeString(file, EXAMPLE);
+            solver.setBoolParameter("output_flag", false);
+            Set<MpsLoader.Phase> phases = EnumSet.noneOf(MpsLoader.Phase.class);
+            // A tiny chunk size splits columns and integer markers across chunk boundaries
+            HighsStatus status = MpsLoader.load(solver, file, (phase, done, total) -> phases.add(phase), 16);
+            assertEquals(HighsStatus.kOk, status);
+            assertEquals(EnumSet.allOf(MpsLoader.Phase.class), phases);
+
+            LpModel model = solver.getModel();
+            assertEquals(2, model.getNumCol());
+            assertEquals(3, model.getNumRow());
+            assertEquals(5, model.getNumNz());
+            assertArrayEquals(new double[]{5.0, 6.0}, new double[]{model.getRowLower()[1], model.getRowLower()[2]});
+            assertEquals(15.0, model.getRowUpper()[1]);
+            assertTrue(model.isMip());
+
+            solver.solve();
+            assertEquals(ModelStatus.kOptimal, solver.getModelStatus());
+            assertEquals(3.0, solver.getObjectiveValue(), 1e-6);
+
+            assertEquals(HighsStatus.kOk, MpsLoader.load(solver, file));
+            assertEquals(5, solver.getModel().getNumNz());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void makesUnboundedMarkerIntegersBinaryLikeHighs() throws IOException {
+        Path file = Files.createTempFile("jhighs", ".mps");
+        try (HiGHS loaded = new HiGHS(); HiGHS read = new HiGHS()) {
+            Files.writeString(file, EXAMPLE.replace(" LO bnd  x1  1\n", ""));
+            loaded.setBoolParameter("output_flag", false);
+            read.setBoolParameter("output_flag", false);
+            assertEquals(HighsStatus.kOk, MpsLoader.load(loaded, file));
+            assertNotEquals(HighsStatus.kError, read.readModel(file.toString()));
+
+            LpModel model = loaded.getModel();
+            assertEquals(1.0, model.getColUpper()[1]);
+            assertArrayEquals(read.getModel().getColLower(), model.getColLower());
+            assertArrayEquals(read.getModel().getColUpper(), model.getColUpper());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void rejectsUnknownRows() throws IOException {
+        Path file = Files.createTempFile("jhighs", ".mps");
+        try (HiGHS solver = new HiGHS()) {
+            Files.writeString(file, EXAMPLE.replace("x1  r1   2", "x1  r9   2"));
+            assertThrows(IOException.class, () -> MpsLoader.load(solver, file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package nl.jessenagel.jhighs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolutionCacheTest {
+
+    @Test
+    void serveRepeatedModelsFromCache() {
+        try (HiGHS first = new HiGHS(); HiGHS second = new HiGHS()) {
+            first.setBoolParameter("output_flag", false);
+            second.setBoolParameter("output_flag", false);
+            first.loadModel(HiGHSTest.exampleModel());
+            second.loadModel(HiGHSTest.exampleModel());
+            assertEquals(first.getModelFingerprint(), second.getModelFingerprint());
+
+            SolutionCache cache = new SolutionCache(1 << 20, true);
+            SolveResult solved = cache.solve(first);
+            assertFalse(solved.isCached());
+            assertEquals(2.75, solved.getObjectiveValue(), 1e-6);
+
+            SolveResult cached = cache.solve(second);
+            assertTrue(cached.isCached());
+            assertEquals(ModelStatus.kOptimal, cached.getModelStatus());
+            assertEquals(0.5, cached.getSolution().getVariableValue(0), 1e-6);
+            assertNotSame(solved.getSolution(), cached.getSolution());
+
+            // Same matrix with other bounds: a miss that starts from the cached basis
+            first.changeVarBounds(0, 1.0, 4.0);
+            assertNotEquals(second.getModelFingerprint(), first.getModelFingerprint());
+            SolveResult changed = cache.solve(first);
+            assertFalse(changed.isCached());
+            assertEquals(3.0, changed.getObjectiveValue(), 1e-6);
+
+            assertEquals(1, cache.getHits());
+            assertEquals(2, cache.getMisses());
+            assertEquals(1.0 / 3.0, cache.getHitRate(), 1e-12);
+            assertEquals(1, cache.getWarmStarts());
+            assertEquals(2, cache.size());
+            assertTrue(cache.getBytesUsed() > 0);
+        }
+    }
+
+    @Test
+    void fingerprintIgnoresMatrixOrientation() {
+        try (HiGHS rowwise = new HiGHS(); HiGHS colwise = new HiGHS()) {
+            rowwise.setBoolParameter("output_flag", false);
+            rowwise.loadModel(HiGHSTest.exampleModel());
+            LpModel exported = rowwise.getModel();
+            assertEquals(MatrixFormat.kColwise, exported.getFormat());
+            colwise.loadModel(exported);
+
+            long[] before = rowwise.getFingerprints();
+            assertArrayEquals(before, colwise.getFingerprints());
+            rowwise.solve();
+            assertArrayEquals(before, rowwise.getFingerprints());
+        }
+    }
+
+    @Test
+    void evictLeastRecentlyUsedOverBudget() {
+        try (HiGHS solver = new HiGHS()) {
+            solver.setBoolParameter("output_flag", false);
+            solver.loadModel(HiGHSTest.exampleModel());
+
+            // Room for one entry of this model only
+            SolutionCache cache = new SolutionCache(300);
+            cache.solve(solver);
+            long oneEntry = cache.getBytesUsed();
+            solver.changeVarBounds(0, 1.0, 4.0);
+            cache.solve(solver);
+
+            assertEquals(1, cache.size());
+            assertEquals(1, cache.getEvictions());
+            assertEquals(oneEntry, cache.getBytesUsed());
+            assertTrue(cache.solve(solver).isCached());
+        }
+    }
+}